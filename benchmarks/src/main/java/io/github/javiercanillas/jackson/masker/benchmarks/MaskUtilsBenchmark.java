@@ -0,0 +1,70 @@
+package io.github.javiercanillas.jackson.masker.benchmarks;
+
+import io.github.javiercanillas.jackson.masker.MaskUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link MaskUtils} single value kernels across value lengths and keep/mask ratios.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class MaskUtilsBenchmark {
+
+    @Param({"8", "64", "1024"})
+    int length;
+
+    /**
+     * Ratio of the value left unmasked, split between initial and last characters.
+     */
+    @Param({"0.0", "0.25", "0.75"})
+    double keepRatio;
+
+    String value;
+    int keepInitialCharacters;
+    int keepLastCharacters;
+    char[] buffer;
+    StringBuilder builder;
+
+    @Setup
+    public void setup() {
+        this.value = Values.text(this.length);
+        final int keep = (int) (this.length * this.keepRatio);
+        this.keepInitialCharacters = keep / 2;
+        this.keepLastCharacters = keep - this.keepInitialCharacters;
+        this.buffer = new char[this.length];
+        this.builder = new StringBuilder(this.length);
+    }
+
+    @Benchmark
+    public String mask() {
+        return MaskUtils.mask(this.value, this.keepInitialCharacters, this.keepLastCharacters, '*');
+    }
+
+    @Benchmark
+    public int maskIntoCharArray() {
+        return MaskUtils.mask(this.value, this.keepInitialCharacters, this.keepLastCharacters, '*', this.buffer, 0);
+    }
+
+    @Benchmark
+    public StringBuilder maskIntoAppendable() throws IOException {
+        this.builder.setLength(0);
+        return MaskUtils.mask(this.value, this.keepInitialCharacters, this.keepLastCharacters, '*', this.builder);
+    }
+}
@@ -0,0 +1,85 @@
+package io.github.javiercanillas.jackson.masker.benchmarks;
+
+import io.github.javiercanillas.jackson.masker.MaskUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link MaskUtils} collection overloads and bulk entry points from 10 to 100k elements.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class MaskUtilsCollectionsBenchmark {
+
+    @Param({"10", "1000", "100000"})
+    int size;
+
+    String[] array;
+    String[] destination;
+    List<String> list;
+    Set<String> set;
+    Map<Integer, String> map;
+
+    @Setup
+    public void setup() {
+        this.array = new String[this.size];
+        this.map = new HashMap<>();
+        for (int i = 0; i < this.size; i++) {
+            this.array[i] = Values.text(16) + i;
+            this.map.put(i, this.array[i]);
+        }
+        this.destination = new String[this.size];
+        this.list = List.of(this.array);
+        this.set = new LinkedHashSet<>(this.list);
+    }
+
+    @Benchmark
+    public String[] maskArray() {
+        return MaskUtils.mask(this.array, 2, 4, '*');
+    }
+
+    @Benchmark
+    public String[] maskArrayIntoDestination() {
+        return MaskUtils.mask(this.array, this.destination, 2, 4, '*');
+    }
+
+    @Benchmark
+    public List<String> maskList() {
+        return MaskUtils.mask(this.list, 2, 4, '*');
+    }
+
+    @Benchmark
+    public Set<String> maskSet() {
+        return MaskUtils.mask(this.set, 2, 4, '*');
+    }
+
+    @Benchmark
+    public Map<?, String> maskMapValues() {
+        return MaskUtils.maskMapValues(this.map, 2, 4, '*');
+    }
+
+    @Benchmark
+    public HashMap<Integer, String> maskMapValuesIntoPresizedMap() {
+        return MaskUtils.maskMapValues(this.map, new HashMap<>(this.size * 2), 2, 4, '*');
+    }
+}
@@ -0,0 +1,94 @@
+package io.github.javiercanillas.jackson.masker.benchmarks;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import io.github.javiercanillas.jackson.masker.MaskedToString;
+import io.github.javiercanillas.jackson.masker.annotation.MaskString;
+import io.github.javiercanillas.jackson.masker.view.Masked;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Masked representation of a flat dto for logging: {@link MaskedToString} against
+ * {@code writerWithView(Masked.class).writeValueAsString}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class MaskedToStringBenchmark {
+
+    ObjectWriter maskedWriter;
+    FlatCustomer customer;
+    StringBuilder builder;
+
+    @Setup
+    public void setup() {
+        this.maskedWriter = new ObjectMapper().writerWithView(Masked.class);
+        this.customer = new FlatCustomer();
+        this.builder = new StringBuilder(256);
+    }
+
+    @Benchmark
+    public String maskedToString() {
+        return MaskedToString.toString(this.customer);
+    }
+
+    @Benchmark
+    public StringBuilder maskedToStringAppend() {
+        this.builder.setLength(0);
+        return MaskedToString.appendTo(this.customer, this.builder);
+    }
+
+    @Benchmark
+    public String jackson() throws JsonProcessingException {
+        return this.maskedWriter.writeValueAsString(this.customer);
+    }
+
+    /**
+     * Flat dto: a few plain values and a few sensitive ones.
+     */
+    public static class FlatCustomer {
+        private String name = "John Doe";
+        private int age = 42;
+        @MaskString(keepInitialCharacters = 1, keepLastCharacters = 12)
+        private String email = "john.doe@example.com";
+        @MaskString(keepLastCharacters = 3)
+        private String document = "30123456";
+        @MaskString(keepLastCharacters = 4, maskCharacter = 'X')
+        private String cardNumber = "4111111111111111";
+
+        public String getName() {
+            return this.name;
+        }
+
+        public int getAge() {
+            return this.age;
+        }
+
+        public String getEmail() {
+            return this.email;
+        }
+
+        public String getDocument() {
+            return this.document;
+        }
+
+        public String getCardNumber() {
+            return this.cardNumber;
+        }
+    }
+}
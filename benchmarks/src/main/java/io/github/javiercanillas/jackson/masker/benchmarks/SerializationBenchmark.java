@@ -0,0 +1,142 @@
+package io.github.javiercanillas.jackson.masker.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import io.github.javiercanillas.jackson.masker.annotation.MaskString;
+import io.github.javiercanillas.jackson.masker.view.Masked;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End to end serialization through {@code writerWithView(Masked.class)} against the plain writer of the same mapper,
+ * which is the baseline masking overhead is measured from. Output is discarded so only serialization is measured.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SerializationBenchmark {
+
+    /**
+     * Quantity of elements on the masked collections of the payload.
+     */
+    @Param({"0", "10", "1000"})
+    int elements;
+
+    ObjectWriter maskedWriter;
+    ObjectWriter unmaskedWriter;
+    Customer customer;
+
+    @Setup
+    public void setup() {
+        final ObjectMapper mapper = new ObjectMapper();
+        this.maskedWriter = mapper.writerWithView(Masked.class);
+        this.unmaskedWriter = mapper.writer();
+        this.customer = Customer.sample(this.elements);
+    }
+
+    @Benchmark
+    public void masked() throws IOException {
+        this.maskedWriter.writeValue(OutputStream.nullOutputStream(), this.customer);
+    }
+
+    @Benchmark
+    public void unmasked() throws IOException {
+        this.unmaskedWriter.writeValue(OutputStream.nullOutputStream(), this.customer);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void maskedMultiThreaded() throws IOException {
+        this.maskedWriter.writeValue(OutputStream.nullOutputStream(), this.customer);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void unmaskedMultiThreaded() throws IOException {
+        this.unmaskedWriter.writeValue(OutputStream.nullOutputStream(), this.customer);
+    }
+
+    /**
+     * Payload similar to the ones this library is used for: a few plain values, a few sensitive ones and a couple of
+     * sensitive collections.
+     */
+    public static class Customer {
+        private String name;
+        private int age;
+        private String email;
+        private String document;
+        private String cardNumber;
+        private List<String> phones;
+        private Map<String, String> attributes;
+
+        static Customer sample(final int elements) {
+            final Customer customer = new Customer();
+            customer.name = "John Doe";
+            customer.age = 42;
+            customer.email = "john.doe@example.com";
+            customer.document = "30123456";
+            customer.cardNumber = "4111111111111111";
+            customer.phones = new ArrayList<>(elements);
+            customer.attributes = new LinkedHashMap<>();
+            for (int i = 0; i < elements; i++) {
+                customer.phones.add("+5411" + (40000000 + i));
+                customer.attributes.put("attribute" + i, Values.text(24));
+            }
+            return customer;
+        }
+
+        public String getName() {
+            return this.name;
+        }
+
+        public int getAge() {
+            return this.age;
+        }
+
+        @MaskString(keepInitialCharacters = 1, keepLastCharacters = 12)
+        public String getEmail() {
+            return this.email;
+        }
+
+        @MaskString(keepLastCharacters = 3)
+        public String getDocument() {
+            return this.document;
+        }
+
+        @MaskString(keepLastCharacters = 4, maskCharacter = 'X')
+        public String getCardNumber() {
+            return this.cardNumber;
+        }
+
+        @MaskString(keepLastCharacters = 2)
+        public List<String> getPhones() {
+            return this.phones;
+        }
+
+        @MaskString
+        public Map<String, String> getAttributes() {
+            return this.attributes;
+        }
+    }
+}
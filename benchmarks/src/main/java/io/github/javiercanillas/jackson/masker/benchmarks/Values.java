@@ -0,0 +1,18 @@
+package io.github.javiercanillas.jackson.masker.benchmarks;
+
+/**
+ * Benchmark input values.
+ */
+final class Values {
+    private static final String ALPHABET = "abcdefghijklmnopqrstuvwxyz0123456789";
+
+    private Values() { }
+
+    static String text(final int length) {
+        final char[] chars = new char[length];
+        for (int i = 0; i < length; i++) {
+            chars[i] = ALPHABET.charAt(i % ALPHABET.length());
+        }
+        return new String(chars);
+    }
+}
@@ -0,0 +1,16 @@
+package io.github.javiercanillas.jackson.masker.encoder;
+
+/**
+ * What {@link MaskedJsonEncoder#encode(Object)} does when the ring buffer is full, because events come faster than
+ * they can be written.
+ */
+public enum BackPressure {
+    /**
+     * Wait until there is room for the event, slowing producers down to the pace of the output.
+     */
+    BLOCK,
+    /**
+     * Discard the event and count it as dropped, so producers never wait.
+     */
+    DROP
+}
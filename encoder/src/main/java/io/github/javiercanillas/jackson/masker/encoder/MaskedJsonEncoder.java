@@ -0,0 +1,384 @@
+package io.github.javiercanillas.jackson.masker.encoder;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import io.github.javiercanillas.jackson.masker.module.MaskedWriters;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Writes objects as masked json lines from a background thread, so masking and serialization are kept out of the
+ * threads producing them (i.e. request threads logging dtos).
+ * <p>
+ * {@link #encode(Object)} only puts the object on a bounded lock-free ring buffer. A single worker thread takes them
+ * out, serializes them with a masked {@link ObjectWriter} into a reusable byte buffer, one per line, and writes the
+ * buffer to the output in batches: when it holds {@link Builder#batchBytes(int) batchBytes} or there is nothing else
+ * to take. When the ring buffer is full, the {@link BackPressure} policy decides if producers wait or the event is
+ * dropped. Events dropped, written and failed are counted.
+ * <pre>
+ * MaskedJsonEncoder encoder = MaskedJsonEncoder.builder()
+ *         .mapper(mapper)
+ *         .output(FileChannel.open(path, CREATE, WRITE, APPEND))
+ *         .backPressure(BackPressure.DROP)
+ *         .build();
+ * encoder.encode(requestDto);
+ * ...
+ * encoder.close(); // drains pending events
+ * </pre>
+ * If the worker thread dies, on an {@link Error} thrown while serializing or writing, the encoder is closed: pending
+ * events are counted as failed, and later ones as dropped.
+ * Objects must not be modified once encoded, since they are serialized later on. The output is not closed by the
+ * encoder.
+ */
+public final class MaskedJsonEncoder implements AutoCloseable {
+
+    public static final int DEFAULT_CAPACITY = 8192;
+    public static final int DEFAULT_BATCH_BYTES = 64 * 1024;
+
+    private static final byte NEW_LINE = '\n';
+    private static final int SPINS = 100;
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+    private static final long FULL_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+
+    private final ObjectWriter writer;
+    private final Output output;
+    private final RingBuffer<Object> events;
+    private final BackPressure backPressure;
+    private final int batchBytes;
+    private final Batch batch;
+    private final Thread worker;
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder written = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private volatile boolean closed;
+    private volatile boolean sleeping;
+
+    private MaskedJsonEncoder(final Builder builder) {
+        this.writer = builder.writer;
+        this.output = builder.output;
+        this.events = new RingBuffer<>(builder.capacity);
+        this.backPressure = builder.backPressure;
+        this.batchBytes = builder.batchBytes;
+        this.batch = new Batch(builder.batchBytes);
+        this.worker = new Thread(this::run, builder.threadName);
+        this.worker.setDaemon(true);
+        this.worker.start();
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Queue an object to be written as a masked json line.
+     * @param event object to write, ignored if null
+     * @return false if the object was dropped, because the ring buffer is full under {@link BackPressure#DROP} or the
+     * encoder is closed.
+     */
+    public boolean encode(final Object event) {
+        if (event == null) {
+            return true;
+        }
+        int attempts = 0;
+        while (!this.closed) {
+            if (this.events.offer(event)) {
+                if (this.sleeping) {
+                    LockSupport.unpark(this.worker);
+                }
+                return true;
+            }
+            if (this.backPressure == BackPressure.DROP) {
+                break;
+            }
+            LockSupport.unpark(this.worker);
+            if (++attempts < SPINS) {
+                Thread.onSpinWait();
+            } else {
+                LockSupport.parkNanos(this, FULL_PARK_NANOS);
+            }
+        }
+        this.dropped.increment();
+        return false;
+    }
+
+    /**
+     * @return events discarded, because of {@link BackPressure#DROP} or because they came once closed
+     */
+    public long getDropped() {
+        return this.dropped.sum();
+    }
+
+    /**
+     * @return events written to the output
+     */
+    public long getWritten() {
+        return this.written.sum();
+    }
+
+    /**
+     * @return events that could not be serialized, or whose batch could not be written to the output
+     */
+    public long getFailed() {
+        return this.failed.sum();
+    }
+
+    /**
+     * Stop accepting events, and wait for the pending ones to be written. Events encoded while closing, from other
+     * threads, may be neither written nor counted.
+     * @throws InterruptedException if interrupted while waiting
+     */
+    @Override
+    public void close() throws InterruptedException {
+        this.closed = true;
+        LockSupport.unpark(this.worker);
+        this.worker.join();
+    }
+
+    private void run() {
+        try {
+            work();
+        } catch (final Throwable e) {
+            // producers stop waiting for room, and what can no longer be written is counted
+            this.closed = true;
+            this.failed.add(this.batch.events);
+            while (this.events.poll() != null) {
+                this.failed.increment();
+            }
+            throw e;
+        }
+    }
+
+    private void work() {
+        int idle = 0;
+        while (true) {
+            final Object event = this.events.poll();
+            if (event != null) {
+                idle = 0;
+                append(event);
+                if (this.batch.size >= this.batchBytes) {
+                    flush();
+                }
+            } else if (this.batch.events > 0) {
+                flush();
+            } else if (this.events.isEmpty() && this.closed) {
+                return;
+            } else if (++idle < SPINS) {
+                Thread.onSpinWait();
+            } else {
+                // producers unpark this thread when they see it sleeping, the timeout is only a safety net
+                this.sleeping = true;
+                if (this.events.isEmpty() && !this.closed) {
+                    LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+                }
+                this.sleeping = false;
+            }
+        }
+    }
+
+    private void append(final Object event) {
+        final int mark = this.batch.size;
+        try {
+            this.writer.writeValue(this.batch, event);
+            this.batch.write(NEW_LINE);
+            this.batch.events++;
+        } catch (IOException | RuntimeException e) {
+            this.batch.size = mark;
+            this.failed.increment();
+        }
+    }
+
+    private void flush() {
+        try {
+            this.output.write(this.batch.bytes, this.batch.size);
+            this.written.add(this.batch.events);
+        } catch (IOException | RuntimeException e) {
+            this.failed.add(this.batch.events);
+        }
+        this.batch.reset();
+    }
+
+    /**
+     * Destination of batches.
+     */
+    @FunctionalInterface
+    private interface Output {
+        void write(byte[] bytes, int length) throws IOException;
+    }
+
+    /**
+     * Byte buffer reused for every batch. Not synchronized, unlike {@link java.io.ByteArrayOutputStream}, since only
+     * the worker thread touches it. Closing it does nothing, so writers can close it after every event.
+     */
+    private static final class Batch extends OutputStream {
+        private final int initialLength;
+        private byte[] bytes;
+        private int size;
+        private int events;
+
+        private Batch(final int initialLength) {
+            // a bit over the batch size, so the event crossing it rarely grows the buffer
+            this.initialLength = initialLength + initialLength / 4;
+            this.bytes = new byte[this.initialLength];
+        }
+
+        @Override
+        public void write(final int b) {
+            ensureCapacity(1);
+            this.bytes[this.size++] = (byte) b;
+        }
+
+        @Override
+        public void write(final byte[] b, final int off, final int len) {
+            ensureCapacity(len);
+            System.arraycopy(b, off, this.bytes, this.size, len);
+            this.size += len;
+        }
+
+        private void ensureCapacity(final int extra) {
+            if (this.size + extra > this.bytes.length) {
+                this.bytes = Arrays.copyOf(this.bytes, Math.max(this.bytes.length * 2, this.size + extra));
+            }
+        }
+
+        private void reset() {
+            this.size = 0;
+            this.events = 0;
+            // don't hold on to buffers grown by unusually big events
+            if (this.bytes.length > this.initialLength * 4) {
+                this.bytes = new byte[this.initialLength];
+            }
+        }
+    }
+
+    /**
+     * Builder of {@link MaskedJsonEncoder}.
+     */
+    public static class Builder {
+        private ObjectWriter writer;
+        private Output output;
+        private int capacity = DEFAULT_CAPACITY;
+        private int batchBytes = DEFAULT_BATCH_BYTES;
+        private BackPressure backPressure = BackPressure.BLOCK;
+        private String threadName = "masked-json-encoder";
+
+        protected Builder() { }
+
+        /**
+         * Serialize events with a {@link MaskedWriters masked writer} of the given mapper.
+         * @param mapper mapper to copy configuration from
+         * @return this builder
+         */
+        public Builder mapper(final ObjectMapper mapper) {
+            return writer(MaskedWriters.of(mapper));
+        }
+
+        /**
+         * Serialize events with the given writer, i.e. {@code mapper.writerWithView(Masked.class)}.
+         * @param writer writer to use
+         * @return this builder
+         */
+        public Builder writer(final ObjectWriter writer) {
+            this.writer = Objects.requireNonNull(writer);
+            return this;
+        }
+
+        /**
+         * Write batches to the given stream, flushing it after each one.
+         * @param out output stream
+         * @return this builder
+         */
+        public Builder output(final OutputStream out) {
+            Objects.requireNonNull(out);
+            this.output = (bytes, length) -> {
+                out.write(bytes, 0, length);
+                out.flush();
+            };
+            return this;
+        }
+
+        /**
+         * Write batches to the given channel, at its current position.
+         * @param channel file channel, open for writing
+         * @return this builder
+         */
+        public Builder output(final FileChannel channel) {
+            Objects.requireNonNull(channel);
+            this.output = (bytes, length) -> {
+                final ByteBuffer buffer = ByteBuffer.wrap(bytes, 0, length);
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+            };
+            return this;
+        }
+
+        /**
+         * Events that can be waiting to be written, rounded up to a power of two. Defaults to
+         * {@link #DEFAULT_CAPACITY}.
+         * @param capacity ring buffer capacity
+         * @return this builder
+         * @throws IllegalArgumentException if {@code capacity} is less than 1 or over 2^30.
+         */
+        public Builder capacity(final int capacity) {
+            if (capacity < 1 || capacity > (1 << 30)) {
+                throw new IllegalArgumentException("Parameter capacity must be between 1 and 2^30.");
+            }
+            this.capacity = capacity;
+            return this;
+        }
+
+        /**
+         * Bytes gathered before writing a batch to the output, if events keep coming. Defaults to
+         * {@link #DEFAULT_BATCH_BYTES}.
+         * @param batchBytes batch size in bytes
+         * @return this builder
+         * @throws IllegalArgumentException if {@code batchBytes} is less than 1.
+         */
+        public Builder batchBytes(final int batchBytes) {
+            if (batchBytes < 1) {
+                throw new IllegalArgumentException("Parameter batchBytes cannot be less than One.");
+            }
+            this.batchBytes = batchBytes;
+            return this;
+        }
+
+        /**
+         * What to do when the ring buffer is full. Defaults to {@link BackPressure#BLOCK}.
+         * @param backPressure policy
+         * @return this builder
+         */
+        public Builder backPressure(final BackPressure backPressure) {
+            this.backPressure = Objects.requireNonNull(backPressure);
+            return this;
+        }
+
+        /**
+         * @param threadName name of the worker thread
+         * @return this builder
+         */
+        public Builder threadName(final String threadName) {
+            this.threadName = Objects.requireNonNull(threadName);
+            return this;
+        }
+
+        /**
+         * Build the encoder, starting its worker thread.
+         * @return the encoder
+         * @throws IllegalStateException if no writer (or mapper) or output was given.
+         */
+        public MaskedJsonEncoder build() {
+            if (this.writer == null || this.output == null) {
+                throw new IllegalStateException("Both a writer (or mapper) and an output are required.");
+            }
+            return new MaskedJsonEncoder(this);
+        }
+    }
+}
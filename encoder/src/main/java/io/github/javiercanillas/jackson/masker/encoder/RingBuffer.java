@@ -0,0 +1,95 @@
+package io.github.javiercanillas.jackson.masker.encoder;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bounded lock-free queue for many producers and a single consumer, after Dmitry Vyukov's bounded queue.
+ * <p>
+ * Every slot has a sequence telling whose turn it is: a producer claims position {@code p} with a CAS on the tail
+ * when the slot sequence is {@code p}, stores the element and publishes it setting the sequence to {@code p + 1}; the
+ * consumer takes it when the sequence is {@code head + 1} and hands the slot back setting it to
+ * {@code head + capacity}. Producers never wait on each other, and a full queue is detected without locking.
+ * @param <E> type of elements
+ */
+final class RingBuffer<E> {
+
+    private final Object[] elements;
+    private final AtomicLongArray sequences;
+    private final int mask;
+    private final AtomicLong tail = new AtomicLong();
+    // only touched by the consumer thread
+    private long head;
+
+    /**
+     * @param capacity maximum elements held, rounded up to a power of two
+     */
+    RingBuffer(final int capacity) {
+        if (capacity < 1 || capacity > (1 << 30)) {
+            throw new IllegalArgumentException("Parameter capacity must be between 1 and 2^30.");
+        }
+        final int size = capacity == 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1;
+        this.elements = new Object[size];
+        this.sequences = new AtomicLongArray(size);
+        this.mask = size - 1;
+        for (int i = 0; i < size; i++) {
+            this.sequences.set(i, i);
+        }
+    }
+
+    int capacity() {
+        return this.elements.length;
+    }
+
+    /**
+     * Add an element, from any thread.
+     * @param element element to add, not null
+     * @return false if the queue is full
+     */
+    boolean offer(final E element) {
+        long position = this.tail.get();
+        while (true) {
+            final int index = (int) position & this.mask;
+            final long difference = this.sequences.get(index) - position;
+            if (difference == 0) {
+                if (this.tail.compareAndSet(position, position + 1)) {
+                    this.elements[index] = element;
+                    // release: the element is visible to whoever reads the new sequence
+                    this.sequences.lazySet(index, position + 1);
+                    return true;
+                }
+                position = this.tail.get();
+            } else if (difference < 0) {
+                // the slot still holds an element of the previous lap
+                return false;
+            } else {
+                // another producer took this position
+                position = this.tail.get();
+            }
+        }
+    }
+
+    /**
+     * Take the oldest element, from the consumer thread only.
+     * @return the element, or null if the queue is empty
+     */
+    @SuppressWarnings("unchecked")
+    E poll() {
+        final int index = (int) this.head & this.mask;
+        if (this.sequences.get(index) != this.head + 1) {
+            return null;
+        }
+        final E element = (E) this.elements[index];
+        this.elements[index] = null;
+        this.sequences.lazySet(index, this.head + this.mask + 1);
+        this.head++;
+        return element;
+    }
+
+    /**
+     * @return true if there is nothing to poll. Exact from the consumer thread, a hint from any other.
+     */
+    boolean isEmpty() {
+        return this.tail.get() == this.head;
+    }
+}
@@ -0,0 +1,196 @@
+package io.github.javiercanillas.jackson.masker.encoder;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.javiercanillas.jackson.masker.annotation.MaskString;
+import io.github.javiercanillas.jackson.masker.view.Masked;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+class MaskedJsonEncoderTest {
+
+    public static class Event {
+        private final int id;
+        private final String email;
+
+        public Event(final int id, final String email) {
+            this.id = id;
+            this.email = email;
+        }
+
+        public int getId() {
+            return this.id;
+        }
+
+        @MaskString(keepInitialCharacters = 1, keepLastCharacters = 12)
+        public String getEmail() {
+            return this.email;
+        }
+    }
+
+    public static class Broken {
+        public String getValue() {
+            throw new IllegalStateException("boom");
+        }
+    }
+
+    @Test
+    void writesMaskedLines() throws Exception {
+        final var out = new ByteArrayOutputStream();
+        final var encoder = MaskedJsonEncoder.builder()
+                .mapper(new ObjectMapper())
+                .output(out)
+                .build();
+
+        Assertions.assertTrue(encoder.encode(new Event(1, "john@example.com")));
+        Assertions.assertTrue(encoder.encode(new Broken()));
+        Assertions.assertTrue(encoder.encode(new Event(2, "jane@example.com")));
+        encoder.close();
+
+        Assertions.assertEquals("{\"id\":1,\"email\":\"j***@example.com\"}\n{\"id\":2,\"email\":\"j***@example.com\"}\n",
+                out.toString(StandardCharsets.UTF_8));
+        Assertions.assertEquals(2, encoder.getWritten());
+        Assertions.assertEquals(1, encoder.getFailed());
+        Assertions.assertEquals(0, encoder.getDropped());
+        Assertions.assertFalse(encoder.encode(new Event(3, "late@example.com")));
+        Assertions.assertEquals(1, encoder.getDropped());
+    }
+
+    @Test
+    void manyProducersToFileChannel(@TempDir final Path folder) throws Exception {
+        final Path file = folder.resolve("events.ndjson");
+        final int producers = 4;
+        final int eventsPerProducer = 5_000;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            final var encoder = MaskedJsonEncoder.builder()
+                    .writer(new ObjectMapper().writerWithView(Masked.class))
+                    .output(channel)
+                    .capacity(64)
+                    .batchBytes(1024)
+                    .build();
+            final List<Thread> threads = new ArrayList<>();
+            for (int p = 0; p < producers; p++) {
+                final int base = p * eventsPerProducer;
+                final var thread = new Thread(() -> {
+                    for (int i = 0; i < eventsPerProducer; i++) {
+                        encoder.encode(new Event(base + i, "john@example.com"));
+                    }
+                });
+                threads.add(thread);
+                thread.start();
+            }
+            for (final Thread thread : threads) {
+                thread.join();
+            }
+            encoder.close();
+            Assertions.assertEquals(producers * eventsPerProducer, encoder.getWritten());
+            Assertions.assertEquals(0, encoder.getDropped());
+        }
+
+        final List<String> lines = Files.readAllLines(file);
+        Assertions.assertEquals(producers * eventsPerProducer, lines.size());
+        Assertions.assertEquals(producers * eventsPerProducer, lines.stream().distinct().count());
+        Assertions.assertTrue(lines.stream().allMatch(line -> line.endsWith(",\"email\":\"j***@example.com\"}")));
+    }
+
+    @Test
+    void dropsWhenFull() throws Exception {
+        final var blocked = new CountDownLatch(1);
+        final OutputStream slow = new OutputStream() {
+            @Override
+            public void write(final int b) { }
+
+            @Override
+            public void write(final byte[] b, final int off, final int len) {
+                try {
+                    blocked.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        };
+        final var encoder = MaskedJsonEncoder.builder()
+                .mapper(new ObjectMapper())
+                .output(slow)
+                .capacity(4)
+                .backPressure(BackPressure.DROP)
+                .build();
+
+        int accepted = 0;
+        for (int i = 0; i < 100; i++) {
+            if (encoder.encode(new Event(i, "john@example.com"))) {
+                accepted++;
+            }
+        }
+        blocked.countDown();
+        encoder.close();
+
+        Assertions.assertTrue(encoder.getDropped() > 0);
+        Assertions.assertEquals(100, accepted + encoder.getDropped());
+        Assertions.assertEquals(accepted, encoder.getWritten());
+    }
+
+    @Test
+    void closesWhenWorkerDies() throws Exception {
+        final OutputStream broken = new OutputStream() {
+            @Override
+            public void write(final int b) { }
+
+            @Override
+            public void write(final byte[] b, final int off, final int len) {
+                throw new InternalError("broken output");
+            }
+        };
+        final var encoder = MaskedJsonEncoder.builder()
+                .mapper(new ObjectMapper())
+                .output(broken)
+                .capacity(4)
+                .build();
+
+        // blocking producers must not wait for room forever
+        final int accepted = Assertions.assertTimeoutPreemptively(Duration.ofSeconds(10), () -> {
+            int count = 0;
+            for (int i = 0; i < 100; i++) {
+                if (encoder.encode(new Event(i, "john@example.com"))) {
+                    count++;
+                }
+            }
+            return count;
+        });
+        encoder.close();
+
+        Assertions.assertEquals(0, encoder.getWritten());
+        Assertions.assertTrue(encoder.getFailed() > 0);
+        Assertions.assertEquals(100 - accepted, encoder.getDropped());
+    }
+
+    @Test
+    void ringBuffer() {
+        final var buffer = new RingBuffer<Integer>(3);
+        Assertions.assertEquals(4, buffer.capacity());
+        Assertions.assertTrue(buffer.isEmpty());
+        for (int lap = 0; lap < 3; lap++) {
+            for (int i = 0; i < 4; i++) {
+                Assertions.assertTrue(buffer.offer(i));
+            }
+            Assertions.assertFalse(buffer.offer(4));
+            for (int i = 0; i < 4; i++) {
+                Assertions.assertEquals(Integer.valueOf(i), buffer.poll());
+            }
+            Assertions.assertNull(buffer.poll());
+            Assertions.assertTrue(buffer.isEmpty());
+        }
+    }
+}
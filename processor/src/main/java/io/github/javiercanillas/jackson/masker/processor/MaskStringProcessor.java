@@ -0,0 +1,363 @@
+package io.github.javiercanillas.jackson.masker.processor;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.Filer;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Elements;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardLocation;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Generates, for every class with {@code @MaskString} members, a {@code <Class>MaskSpecs} class holding their specs
+ * as constants, and, per package, a {@code GeneratedMaskSpecProvider} registered as a
+ * {@code io.github.javiercanillas.jackson.masker.ser.MaskSpecProvider} service. On runtime, masked properties of
+ * those classes are then contextualized without parsing their annotations.
+ * <p>
+ * Annotated fields are also registered under their getter names, since Jackson serializes through the getter when
+ * there is one. Members of private or local classes are skipped, generated code could not reach them.
+ * <p>
+ * The service file lists the providers generated on a compilation, so incremental compilations of a subset of the
+ * sources should be avoided (the classes left out just fall back to their annotations).
+ */
+@SupportedAnnotationTypes(MaskStringProcessor.MASK_STRING)
+public class MaskStringProcessor extends AbstractProcessor {
+    static final String MASK_STRING = "io.github.javiercanillas.jackson.masker.annotation.MaskString";
+    static final String PROVIDER_NAME = "GeneratedMaskSpecProvider";
+    static final String SPECS_SUFFIX = "MaskSpecs";
+
+    private static final String MASKER_PACKAGE = "io.github.javiercanillas.jackson.masker.";
+    private static final String MASK_SPEC = MASKER_PACKAGE + "MaskSpec";
+    private static final String PROVIDER_INTERFACE = MASKER_PACKAGE + "ser.MaskSpecProvider";
+    private static final String POSITION_STRATEGY = MASKER_PACKAGE + "strategy.PositionMaskStrategy";
+    private static final String GENERATED = "javax.annotation.processing.Generated";
+
+    private final List<String> providers = new ArrayList<>();
+    private final Set<String> providerNames = new HashSet<>();
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(final Set<? extends TypeElement> annotations, final RoundEnvironment roundEnv) {
+        if (roundEnv.processingOver()) {
+            writeServiceFile();
+            return false;
+        }
+        final TypeElement maskString = processingEnv.getElementUtils().getTypeElement(MASK_STRING);
+        if (maskString == null) {
+            return false;
+        }
+
+        final Map<TypeElement, List<Element>> membersByType = new LinkedHashMap<>();
+        for (final Element member : roundEnv.getElementsAnnotatedWith(maskString)) {
+            final TypeElement type = (TypeElement) member.getEnclosingElement();
+            if (isReachable(type)) {
+                membersByType.computeIfAbsent(type, key -> new ArrayList<>()).add(member);
+            } else {
+                processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING,
+                        "MaskString specs are not generated for members of private or local classes", member);
+            }
+        }
+
+        final Map<String, List<TypeElement>> typesByPackage = new LinkedHashMap<>();
+        for (final Map.Entry<TypeElement, List<Element>> entry : membersByType.entrySet()) {
+            final TypeElement type = entry.getKey();
+            writeSpecs(type, entry.getValue());
+            typesByPackage.computeIfAbsent(packageOf(type), key -> new ArrayList<>()).add(type);
+        }
+        typesByPackage.forEach(this::writeProvider);
+        // MaskString is not claimed, other processors might be interested on it
+        return false;
+    }
+
+    private static boolean isReachable(final TypeElement type) {
+        for (Element element = type; element instanceof TypeElement; element = element.getEnclosingElement()) {
+            final TypeElement enclosing = (TypeElement) element;
+            if (enclosing.getModifiers().contains(Modifier.PRIVATE)
+                    || enclosing.getNestingKind() == NestingKind.LOCAL
+                    || enclosing.getNestingKind() == NestingKind.ANONYMOUS) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void writeSpecs(final TypeElement type, final List<Element> members) {
+        final String packageName = packageOf(type);
+        final String className = specsClassName(type);
+        final Map<String, String> constantByMember = new LinkedHashMap<>();
+        // getters of annotated fields, only taken when the getter itself is not annotated
+        final Map<String, String> constantByGetter = new LinkedHashMap<>();
+        final Set<String> constants = new HashSet<>();
+        final StringBuilder fields = new StringBuilder();
+        for (final Element member : members) {
+            final String memberName = member.getSimpleName().toString();
+            String constant = constantName(memberName);
+            for (int i = 2; !constants.add(constant); i++) {
+                constant = constantName(memberName) + '_' + i;
+            }
+            fields.append("    static final ").append(MASK_SPEC).append(' ').append(constant).append(" = ")
+                    .append(specExpression(annotationOf(member))).append(";\n");
+            constantByMember.putIfAbsent(memberName, constant);
+            if (member.getKind() == ElementKind.FIELD) {
+                for (final String getter : getterNames(type, memberName)) {
+                    constantByGetter.putIfAbsent(getter, constant);
+                }
+            }
+        }
+        constantByGetter.forEach(constantByMember::putIfAbsent);
+
+        final StringBuilder source = new StringBuilder();
+        header(source, packageName);
+        source.append("final class ").append(className).append(" {\n")
+                .append(fields)
+                .append('\n')
+                .append("    private ").append(className).append("() { }\n")
+                .append('\n')
+                .append("    static ").append(MASK_SPEC).append(" forMember(final String member) {\n")
+                .append("        switch (member) {\n");
+        constantByMember.forEach((member, constant) -> source
+                .append("            case ").append(literal(member)).append(":\n")
+                .append("                return ").append(constant).append(";\n"));
+        source.append("            default:\n")
+                .append("                return null;\n")
+                .append("        }\n")
+                .append("    }\n")
+                .append("}\n");
+        writeSource(qualified(packageName, className), source, type);
+    }
+
+    private void writeProvider(final String packageName, final List<TypeElement> types) {
+        String className = PROVIDER_NAME;
+        for (int i = 2; !this.providerNames.add(qualified(packageName, className)); i++) {
+            className = PROVIDER_NAME + i;
+        }
+
+        final StringBuilder typeSet = new StringBuilder();
+        final StringBuilder lookups = new StringBuilder();
+        for (final TypeElement type : types) {
+            final String typeName = type.getQualifiedName().toString();
+            typeSet.append(typeSet.length() == 0 ? "" : ", ").append(typeName).append(".class");
+            lookups.append("        if (type == ").append(typeName).append(".class) {\n")
+                    .append("            return ").append(specsClassName(type)).append(".forMember(member);\n")
+                    .append("        }\n");
+        }
+
+        final StringBuilder source = new StringBuilder();
+        header(source, packageName);
+        source.append("public final class ").append(className).append(" implements ").append(PROVIDER_INTERFACE)
+                .append(" {\n")
+                .append("    private static final java.util.Set<Class<?>> TYPES = java.util.Set.of(").append(typeSet)
+                .append(");\n")
+                .append('\n')
+                .append("    @Override\n")
+                .append("    public java.util.Set<Class<?>> getTypes() {\n")
+                .append("        return TYPES;\n")
+                .append("    }\n")
+                .append('\n')
+                .append("    @Override\n")
+                .append("    public ").append(MASK_SPEC)
+                .append(" forMember(final Class<?> type, final String member) {\n")
+                .append(lookups)
+                .append("        return null;\n")
+                .append("    }\n")
+                .append("}\n");
+        writeSource(qualified(packageName, className), source, types.toArray(new Element[0]));
+        this.providers.add(qualified(packageName, className));
+    }
+
+    private void writeServiceFile() {
+        if (this.providers.isEmpty()) {
+            return;
+        }
+        try {
+            final FileObject file = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "",
+                    "META-INF/services/" + PROVIDER_INTERFACE);
+            try (Writer writer = file.openWriter()) {
+                for (final String provider : this.providers) {
+                    writer.write(provider);
+                    writer.write('\n');
+                }
+            }
+        } catch (final IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                    "Cannot write MaskSpecProvider service file: " + e.getMessage());
+        }
+    }
+
+    private void header(final StringBuilder source, final String packageName) {
+        if (!packageName.isEmpty()) {
+            source.append("package ").append(packageName).append(";\n\n");
+        }
+        if (processingEnv.getElementUtils().getTypeElement(GENERATED) != null) {
+            source.append('@').append(GENERATED).append("(\"").append(getClass().getName()).append("\")\n");
+        }
+    }
+
+    private void writeSource(final String name, final CharSequence source, final Element... originatingElements) {
+        final Filer filer = processingEnv.getFiler();
+        try {
+            final JavaFileObject file = filer.createSourceFile(name, originatingElements);
+            try (Writer writer = file.openWriter()) {
+                writer.append(source);
+            }
+        } catch (final IOException e) {
+            throw new UncheckedIOException("Cannot write " + name, e);
+        }
+    }
+
+    /**
+     * Java expression building the spec, equal to the one {@code MaskSpec.from} builds from the annotation.
+     */
+    private String specExpression(final AnnotationMirror annotation) {
+        final Map<String, Object> values = new LinkedHashMap<>();
+        processingEnv.getElementUtils().getElementValuesWithDefaults(annotation)
+                .forEach((method, value) -> values.put(method.getSimpleName().toString(), value.getValue()));
+
+        final String mode = values.get("mode").toString();
+        if ("PSEUDONYMIZE".equals(mode)) {
+            return MASK_SPEC + ".pseudonymizing(null)";
+        }
+        final String parameters = Math.max(0, (Integer) values.get("keepInitialCharacters")) + ", "
+                + Math.max(0, (Integer) values.get("keepLastCharacters")) + ", "
+                + charLiteral((Character) values.get("maskCharacter"));
+        final StringBuilder expression = new StringBuilder();
+        if ("SCAN".equals(mode)) {
+            expression.append(MASK_SPEC).append(".scanning(").append(MASKER_PACKAGE).append("scan.PiiScanner.of(")
+                    .append(listExpression(values.get("scanFor"), MASKER_PACKAGE + "scan.PiiPattern"))
+                    .append(", ").append(listExpression(values.get("scanTerms"), "String"))
+                    .append("), ").append(parameters).append(')');
+        } else {
+            expression.append(MASK_SPEC).append(".of(").append(parameters).append(')');
+        }
+        final String strategy = ((TypeMirror) values.get("strategy")).toString();
+        if (!POSITION_STRATEGY.equals(strategy)) {
+            expression.append(".withStrategy(").append(MASKER_PACKAGE).append("strategy.MaskStrategies.instance(")
+                    .append(strategy).append(".class))");
+        }
+        return expression.toString();
+    }
+
+    private static String listExpression(final Object annotationValues, final String elementType) {
+        final StringBuilder list = new StringBuilder("java.util.Arrays.<").append(elementType).append(">asList(");
+        boolean first = true;
+        for (final Object value : (List<?>) annotationValues) {
+            final Object element = ((AnnotationValue) value).getValue();
+            list.append(first ? "" : ", ").append(element instanceof VariableElement
+                    ? elementType + '.' + ((VariableElement) element).getSimpleName()
+                    : literal(element.toString()));
+            first = false;
+        }
+        return list.append(')').toString();
+    }
+
+    private AnnotationMirror annotationOf(final Element member) {
+        final Elements elements = processingEnv.getElementUtils();
+        for (final AnnotationMirror mirror : elements.getAllAnnotationMirrors(member)) {
+            if (((TypeElement) mirror.getAnnotationType().asElement()).getQualifiedName().contentEquals(MASK_STRING)) {
+                return mirror;
+            }
+        }
+        throw new IllegalStateException("Member " + member + " is not annotated with " + MASK_STRING);
+    }
+
+    /**
+     * @return names of the existing no arguments getters of {@code field}.
+     */
+    private static List<String> getterNames(final TypeElement type, final String field) {
+        final String capitalized = Character.toUpperCase(field.charAt(0)) + field.substring(1);
+        final List<String> getters = new ArrayList<>(2);
+        for (final ExecutableElement method : ElementFilter.methodsIn(type.getEnclosedElements())) {
+            final String name = method.getSimpleName().toString();
+            if (method.getParameters().isEmpty()
+                    && (name.equals("get" + capitalized) || name.equals("is" + capitalized))) {
+                getters.add(name);
+            }
+        }
+        return getters;
+    }
+
+    private String packageOf(final TypeElement type) {
+        return processingEnv.getElementUtils().getPackageOf(type).getQualifiedName().toString();
+    }
+
+    /**
+     * @return {@code Outer_InnerMaskSpecs} for a nested {@code Outer.Inner} class.
+     */
+    private String specsClassName(final TypeElement type) {
+        final String qualifiedName = type.getQualifiedName().toString();
+        final String packageName = packageOf(type);
+        final String simpleNames = packageName.isEmpty() ? qualifiedName : qualifiedName.substring(packageName.length() + 1);
+        return simpleNames.replace('.', '_') + SPECS_SUFFIX;
+    }
+
+    private static String qualified(final String packageName, final String className) {
+        return packageName.isEmpty() ? className : packageName + '.' + className;
+    }
+
+    /**
+     * @return {@code USER_EMAIL} for {@code userEmail}.
+     */
+    private static String constantName(final String memberName) {
+        final StringBuilder constant = new StringBuilder();
+        for (int i = 0; i < memberName.length(); i++) {
+            final char c = memberName.charAt(i);
+            if (Character.isUpperCase(c) && i > 0 && !Character.isUpperCase(memberName.charAt(i - 1))) {
+                constant.append('_');
+            }
+            constant.append(c);
+        }
+        return constant.toString().toUpperCase(Locale.ROOT);
+    }
+
+    /**
+     * A cast rather than a literal, unicode escapes are translated before parsing so {@code '\u0027'} is not valid.
+     */
+    private static String charLiteral(final char c) {
+        return "(char) " + (int) c;
+    }
+
+    private static String literal(final String value) {
+        final StringBuilder literal = new StringBuilder(value.length() + 2).append('"');
+        for (int i = 0; i < value.length(); i++) {
+            final char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                literal.append('\\').append(c);
+            } else if (c < ' ') {
+                literal.append(String.format(Locale.ROOT, "\\%03o", (int) c));
+            } else if (c > '~') {
+                literal.append(String.format(Locale.ROOT, "\\u%04x", (int) c));
+            } else {
+                literal.append(c);
+            }
+        }
+        return literal.append('"').toString();
+    }
+}
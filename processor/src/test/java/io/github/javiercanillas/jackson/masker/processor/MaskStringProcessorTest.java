@@ -0,0 +1,115 @@
+package io.github.javiercanillas.jackson.masker.processor;
+
+import io.github.javiercanillas.jackson.masker.MaskSpec;
+import io.github.javiercanillas.jackson.masker.annotation.MaskString;
+import io.github.javiercanillas.jackson.masker.ser.MaskSpecProvider;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.tools.JavaCompiler;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.ServiceLoader;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MaskStringProcessorTest {
+
+    private static final String SOURCE = "package demo;\n"
+            + "\n"
+            + "import io.github.javiercanillas.jackson.masker.annotation.MaskString;\n"
+            + "import io.github.javiercanillas.jackson.masker.strategy.EmailMaskStrategy;\n"
+            + "\n"
+            + "public class Person {\n"
+            + "    @MaskString(keepLastCharacters = 2, maskCharacter = '\\'')\n"
+            + "    private String name;\n"
+            + "    @MaskString(strategy = EmailMaskStrategy.class, keepInitialCharacters = 1)\n"
+            + "    public String email;\n"
+            + "    @MaskString(mode = MaskString.Mode.SCAN, scanTerms = \"se\\\"cret\")\n"
+            + "    public String notes;\n"
+            + "\n"
+            + "    @MaskString(keepLastCharacters = 4)\n"
+            + "    private String document;\n"
+            + "\n"
+            + "    public String getName() { return name; }\n"
+            + "\n"
+            + "    @MaskString(keepInitialCharacters = 1)\n"
+            + "    public String getDocument() { return document; }\n"
+            + "\n"
+            + "    @MaskString(keepInitialCharacters = -1)\n"
+            + "    public String getUserId() { return null; }\n"
+            + "\n"
+            + "    public static class Inner {\n"
+            + "        @MaskString(mode = MaskString.Mode.PSEUDONYMIZE)\n"
+            + "        public String token;\n"
+            + "    }\n"
+            + "\n"
+            + "    private static class Hidden {\n"
+            + "        @MaskString\n"
+            + "        public String token;\n"
+            + "    }\n"
+            + "}\n";
+
+    @Test
+    void generatesSpecsEqualToAnnotationOnes(@TempDir Path directory) throws Exception {
+        final Path output = compile(directory);
+        assertTrue(Files.exists(output.resolve("demo/PersonMaskSpecs.class")));
+        assertTrue(Files.exists(output.resolve("demo/Person_InnerMaskSpecs.class")));
+        assertFalse(Files.exists(output.resolve("demo/Person_HiddenMaskSpecs.class")));
+
+        try (URLClassLoader loader = new URLClassLoader(new URL[] { output.toUri().toURL() },
+                MaskStringProcessorTest.class.getClassLoader())) {
+            final Class<?> person = loader.loadClass("demo.Person");
+            final Class<?> inner = loader.loadClass("demo.Person$Inner");
+            final List<MaskSpecProvider> providers = new java.util.ArrayList<>();
+            ServiceLoader.load(MaskSpecProvider.class, loader).forEach(providers::add);
+            assertEquals(1, providers.size());
+            final MaskSpecProvider provider = providers.get(0);
+
+            assertEquals(new java.util.HashSet<>(Arrays.asList(person, inner)), provider.getTypes());
+            for (final String field : Arrays.asList("name", "email", "notes")) {
+                assertEquals(fromAnnotation(person.getDeclaredField(field).getAnnotation(MaskString.class)),
+                        provider.forMember(person, field), field);
+            }
+            // annotated fields are found through their getters too
+            assertEquals(MaskSpec.of(0, 2, '\''), provider.forMember(person, "getName"));
+            assertEquals(MaskSpec.of(0, 0, '*'), provider.forMember(person, "getUserId"));
+            // but a getter's own annotation wins over its field's
+            assertEquals(MaskSpec.of(0, 4, '*'), provider.forMember(person, "document"));
+            assertEquals(MaskSpec.of(1, 0, '*'), provider.forMember(person, "getDocument"));
+            assertTrue(provider.forMember(inner, "token").isPseudonymizing());
+            assertNull(provider.forMember(person, "other"));
+        }
+    }
+
+    private static MaskSpec fromAnnotation(final MaskString annotation) {
+        return MaskSpec.from(annotation);
+    }
+
+    private static Path compile(final Path directory) throws IOException {
+        final Path source = directory.resolve("src/demo/Person.java");
+        final Path output = directory.resolve("out");
+        Files.createDirectories(source.getParent());
+        Files.createDirectories(output);
+        Files.write(source, SOURCE.getBytes(StandardCharsets.UTF_8));
+
+        final JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        try (StandardJavaFileManager files = compiler.getStandardFileManager(null, null, StandardCharsets.UTF_8)) {
+            final JavaCompiler.CompilationTask task = compiler.getTask(null, files, null,
+                    Arrays.asList("-classpath", System.getProperty("java.class.path"), "-d", output.toString()),
+                    null, files.getJavaFileObjects(source.toFile()));
+            task.setProcessors(Collections.singletonList(new MaskStringProcessor()));
+            assertTrue(task.call(), "compilation failed");
+        }
+        return output;
+    }
+}
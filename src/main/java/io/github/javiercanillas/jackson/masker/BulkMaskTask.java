@@ -0,0 +1,61 @@
+package io.github.javiercanillas.jackson.masker;
+
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Fork-join task masking a range of an array into another (or the same) array. Ranges bigger than
+ * {@link MaskUtils#PARALLEL_THRESHOLD} are split in halves.
+ */
+final class BulkMaskTask extends RecursiveAction {
+    private static final long serialVersionUID = 1L;
+
+    private final String[] source;
+    private final String[] destination;
+    private final int from;
+    private final int to;
+    private final int keepInitialCharacters;
+    private final int keepLastCharacters;
+    private final char maskCharacter;
+
+    BulkMaskTask(final String[] source, final String[] destination, final int from, final int to,
+                 final int keepInitialCharacters, final int keepLastCharacters, final char maskCharacter) {
+        this.source = source;
+        this.destination = destination;
+        this.from = from;
+        this.to = to;
+        this.keepInitialCharacters = keepInitialCharacters;
+        this.keepLastCharacters = keepLastCharacters;
+        this.maskCharacter = maskCharacter;
+    }
+
+    /**
+     * Mask {@code source} into {@code destination}, splitting the work across the current fork-join pool (or the
+     * common one, if the caller is not running in a pool) when it is big enough.
+     */
+    static void mask(final String[] source, final String[] destination, final int keepInitialCharacters,
+                     final int keepLastCharacters, final char maskCharacter) {
+        final BulkMaskTask task = new BulkMaskTask(source, destination, 0, source.length, keepInitialCharacters,
+                keepLastCharacters, maskCharacter);
+        if (source.length <= MaskUtils.PARALLEL_THRESHOLD) {
+            task.compute();
+        } else {
+            task.invoke();
+        }
+    }
+
+    @Override
+    protected void compute() {
+        if (this.to - this.from <= MaskUtils.PARALLEL_THRESHOLD) {
+            for (int i = this.from; i < this.to; i++) {
+                this.destination[i] = MaskUtils.mask(this.source[i], this.keepInitialCharacters,
+                        this.keepLastCharacters, this.maskCharacter);
+            }
+        } else {
+            final int middle = (this.from + this.to) >>> 1;
+            invokeAll(new BulkMaskTask(this.source, this.destination, this.from, middle, this.keepInitialCharacters,
+                            this.keepLastCharacters, this.maskCharacter),
+                    new BulkMaskTask(this.source, this.destination, middle, this.to, this.keepInitialCharacters,
+                            this.keepLastCharacters, this.maskCharacter));
+        }
+    }
+}
@@ -0,0 +1,327 @@
+package io.github.javiercanillas.jackson.masker;
+
+import io.github.javiercanillas.jackson.masker.annotation.MaskString;
+import io.github.javiercanillas.jackson.masker.pseudonymization.Pseudonymizer;
+import io.github.javiercanillas.jackson.masker.scan.PiiScanner;
+import io.github.javiercanillas.jackson.masker.strategy.MaskStrategies;
+import io.github.javiercanillas.jackson.masker.strategy.MaskStrategy;
+import io.github.javiercanillas.jackson.masker.strategy.PositionMaskStrategy;
+
+import java.io.IOException;
+import java.nio.CharBuffer;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Immutable, precompiled masking parameters, as declared by {@link MaskString}. Instances are safe to share and
+ * equal specs can be used interchangeably.
+ * <p>
+ * Specs with a {@link PiiScanner} only mask what it finds, applying the keep quantities to every match. Specs with a
+ * {@link MaskStrategy} delegate on it how values (or matches) are masked. Pseudonymizing specs replace whole values
+ * with a {@link Pseudonymizer} token, ignoring any other parameter.
+ */
+public final class MaskSpec {
+    /**
+     * Spec with {@link MaskUtils} defaults.
+     */
+    public static final MaskSpec DEFAULTS = new MaskSpec(MaskUtils.DEFAULTS_KEEP_INITIAL_CHARACTERS,
+            MaskUtils.DEFAULTS_KEEP_LAST_CHARACTERS, MaskUtils.DEFAULT_MASK_CHARACTER, null, null, false, null);
+
+    private static final MaskSpec PSEUDONYMIZING = pseudonymizing(null);
+    /**
+     * Specs built from annotations, by the class of their strategy (or {@link MaskSpec} if they have none), so specs
+     * holding an application strategy go away with its class.
+     */
+    private static final ClassValue<ConcurrentMap<MaskSpec, MaskSpec>> INTERNED = new ClassValue<>() {
+        @Override
+        protected ConcurrentMap<MaskSpec, MaskSpec> computeValue(final Class<?> type) {
+            return new ConcurrentHashMap<>();
+        }
+    };
+
+    private final int keepInitialCharacters;
+    private final int keepLastCharacters;
+    private final char maskCharacter;
+    private final PiiScanner scanner;
+    private final MaskStrategy strategy;
+    private final boolean pseudonymizing;
+    private final Pseudonymizer pseudonymizer;
+
+    @SuppressWarnings("java:S107")
+    private MaskSpec(final int keepInitialCharacters, final int keepLastCharacters, final char maskCharacter,
+                     final PiiScanner scanner, final MaskStrategy strategy, final boolean pseudonymizing,
+                     final Pseudonymizer pseudonymizer) {
+        this.keepInitialCharacters = keepInitialCharacters;
+        this.keepLastCharacters = keepLastCharacters;
+        this.maskCharacter = maskCharacter;
+        this.scanner = scanner;
+        // the default strategy is inlined, see mask methods
+        this.strategy = strategy != null && strategy.getClass() == PositionMaskStrategy.class
+                ? null : strategy;
+        this.pseudonymizing = pseudonymizing;
+        this.pseudonymizer = pseudonymizer;
+    }
+
+    /**
+     * Build a spec from the given parameters.
+     * @param keepInitialCharacters quantity of characters to leave unmasked since the beginning
+     * @param keepLastCharacters quantity of characters to leave unmasked from last positions
+     * @param maskCharacter char to be used to replace masked positions
+     * @return the spec
+     * @throws IllegalArgumentException if {@code keepInitialCharacters} or {@code keepLastCharacters} is less than 0.
+     */
+    public static MaskSpec of(final int keepInitialCharacters, final int keepLastCharacters, final char maskCharacter) {
+        checkArguments(keepInitialCharacters, keepLastCharacters);
+        return new MaskSpec(keepInitialCharacters, keepLastCharacters, maskCharacter, null, null, false, null);
+    }
+
+    /**
+     * Build a spec masking only what {@code scanner} finds, see
+     * {@link MaskUtils#maskMatches(String, PiiScanner, int, int, char)}.
+     * @param scanner scanner finding the values to be masked
+     * @param keepInitialCharacters quantity of characters of each match to leave unmasked since its beginning
+     * @param keepLastCharacters quantity of characters of each match to leave unmasked from its last positions
+     * @param maskCharacter char to be used to replace masked positions
+     * @return the spec
+     * @throws IllegalArgumentException if {@code scanner} is null, or {@code keepInitialCharacters} or
+     * {@code keepLastCharacters} is less than 0.
+     */
+    public static MaskSpec scanning(final PiiScanner scanner, final int keepInitialCharacters,
+                                    final int keepLastCharacters, final char maskCharacter) {
+        if (scanner == null) {
+            throw new IllegalArgumentException("Parameter scanner cannot be null.");
+        }
+        checkArguments(keepInitialCharacters, keepLastCharacters);
+        return new MaskSpec(keepInitialCharacters, keepLastCharacters, maskCharacter, scanner, null, false, null);
+    }
+
+    /**
+     * Build a spec replacing values with their {@code pseudonymizer} token.
+     * @param pseudonymizer pseudonymizer to use, or null to use {@link Pseudonymizer#getDefault()} (resolved on each
+     *                      use, so it can be set after the spec is built)
+     * @return the spec
+     */
+    public static MaskSpec pseudonymizing(final Pseudonymizer pseudonymizer) {
+        return new MaskSpec(MaskUtils.DEFAULTS_KEEP_INITIAL_CHARACTERS, MaskUtils.DEFAULTS_KEEP_LAST_CHARACTERS,
+                MaskUtils.DEFAULT_MASK_CHARACTER, null, null, true, pseudonymizer);
+    }
+
+    private static void checkArguments(final int keepInitialCharacters, final int keepLastCharacters) {
+        if (keepInitialCharacters < 0) {
+            throw new IllegalArgumentException("Parameter keepInitialCharacters cannot be less than Zero.");
+        }
+        if (keepLastCharacters < 0) {
+            throw new IllegalArgumentException("Parameter keepLastCharacters cannot be less than Zero.");
+        }
+    }
+
+    /**
+     * Build the spec declared by the given annotation. Negative quantities are taken as zero. Equal annotations
+     * return the same instance.
+     * @param annotation {@link MaskString} annotation
+     * @return the spec
+     */
+    public static MaskSpec from(final MaskString annotation) {
+        if (annotation.mode() == MaskString.Mode.PSEUDONYMIZE) {
+            return PSEUDONYMIZING;
+        }
+        final PiiScanner scanner = annotation.mode() == MaskString.Mode.SCAN
+                ? PiiScanner.of(Arrays.asList(annotation.scanFor()), Arrays.asList(annotation.scanTerms()))
+                : null;
+        final MaskSpec spec = new MaskSpec(Math.max(0, annotation.keepInitialCharacters()),
+                Math.max(0, annotation.keepLastCharacters()), annotation.maskCharacter(), scanner,
+                MaskStrategies.instance(annotation.strategy()), false, null);
+        final MaskSpec interned = INTERNED.get(spec.strategy == null ? MaskSpec.class : spec.strategy.getClass())
+                .putIfAbsent(spec, spec);
+        return interned == null ? spec : interned;
+    }
+
+    public int getKeepInitialCharacters() {
+        return this.keepInitialCharacters;
+    }
+
+    public int getKeepLastCharacters() {
+        return this.keepLastCharacters;
+    }
+
+    public char getMaskCharacter() {
+        return this.maskCharacter;
+    }
+
+    /**
+     * @return the scanner finding what is masked, or null if whole values are masked.
+     */
+    public PiiScanner getScanner() {
+        return this.scanner;
+    }
+
+    /**
+     * @return the strategy masking values (or matches), or null if it is {@link PositionMaskStrategy}.
+     */
+    public MaskStrategy getStrategy() {
+        return this.strategy;
+    }
+
+    /**
+     * @return true if whole values are masked by position, as {@link MaskUtils#mask(String, int, int, char)} does.
+     */
+    public boolean isPositional() {
+        return this.scanner == null && this.strategy == null && !this.pseudonymizing;
+    }
+
+    /**
+     * @return true if values are replaced with a {@link Pseudonymizer} token.
+     */
+    public boolean isPseudonymizing() {
+        return this.pseudonymizing;
+    }
+
+    /**
+     * @return the pseudonymizer used by this spec, or null if it is not {@link #isPseudonymizing() pseudonymizing}.
+     * @throws IllegalStateException if the default pseudonymizer is used but it is not configured.
+     */
+    public Pseudonymizer getPseudonymizer() {
+        if (!this.pseudonymizing) {
+            return null;
+        }
+        return this.pseudonymizer == null ? Pseudonymizer.getDefault() : this.pseudonymizer;
+    }
+
+    /**
+     * @param length length of a value
+     * @return maximum quantity of characters masking a value of the given length writes, to size buffers given to
+     * {@link #mask(CharSequence, char[], int)}.
+     */
+    public int maxMaskedLength(final int length) {
+        return this.pseudonymizing ? Math.max(length, Pseudonymizer.TOKEN_LENGTH) : length;
+    }
+
+    /**
+     * Same spec, masking values (or matches) with {@code strategy}.
+     * @param strategy strategy to mask with
+     * @return the new spec
+     */
+    public MaskSpec withStrategy(final MaskStrategy strategy) {
+        return new MaskSpec(this.keepInitialCharacters, this.keepLastCharacters, this.maskCharacter, this.scanner,
+                strategy, this.pseudonymizing, this.pseudonymizer);
+    }
+
+    /**
+     * Mask the given value, see {@link MaskUtils#mask(String, int, int, char)}.
+     * @param value value to be masked
+     * @return if value is null, it will return null, otherwise the masked value result.
+     */
+    public String mask(final String value) {
+        if (this.pseudonymizing) {
+            return getPseudonymizer().pseudonymize(value);
+        }
+        if (this.scanner != null) {
+            return MaskUtils.maskMatches(value, this.scanner, this);
+        }
+        if (this.strategy != null && value != null) {
+            final char[] chars = new char[value.length()];
+            return new String(chars, 0, this.strategy.mask(value, 0, value.length(), this, chars, 0));
+        }
+        return MaskUtils.mask(value, this.keepInitialCharacters, this.keepLastCharacters, this.maskCharacter);
+    }
+
+    /**
+     * Mask the given value into {@code destination}, see {@link MaskUtils#mask(CharSequence, int, int, char, char[], int)}.
+     * @param value value to be masked
+     * @param destination array where masked characters are written
+     * @param offset position of {@code destination} where to start writing
+     * @return quantity of characters written into {@code destination}.
+     */
+    public int mask(final CharSequence value, final char[] destination, final int offset) {
+        if (this.pseudonymizing) {
+            return getPseudonymizer().pseudonymize(value, destination, offset);
+        }
+        if (this.scanner != null) {
+            return MaskUtils.maskMatches(value, this.scanner, this, destination, offset);
+        }
+        if (this.strategy != null) {
+            return value == null ? 0 : this.strategy.mask(value, 0, value.length(), this, destination, offset);
+        }
+        return MaskUtils.mask(value, this.keepInitialCharacters, this.keepLastCharacters, this.maskCharacter,
+                destination, offset);
+    }
+
+    /**
+     * Mask {@code length} characters of {@code source} into {@code destination}, see
+     * {@link MaskUtils#mask(char[], int, int, int, int, char, char[], int)}.
+     * @param source array holding the value to be masked
+     * @param sourceOffset position of {@code source} where the value starts
+     * @param length quantity of characters of the value
+     * @param destination array where masked characters are written
+     * @param offset position of {@code destination} where to start writing
+     * @return quantity of characters written into {@code destination}.
+     */
+    public int mask(final char[] source, final int sourceOffset, final int length, final char[] destination,
+                    final int offset) {
+        if (!isPositional()) {
+            return mask(CharBuffer.wrap(source, sourceOffset, length), destination, offset);
+        }
+        return MaskUtils.mask(source, sourceOffset, length, this.keepInitialCharacters, this.keepLastCharacters,
+                this.maskCharacter, destination, offset);
+    }
+
+    /**
+     * Mask the given value appending it to {@code appendable}, see
+     * {@link MaskUtils#mask(CharSequence, int, int, char, Appendable)}.
+     * @param value value to be masked
+     * @param appendable where masked characters are appended
+     * @param <A> type of the {@link Appendable}
+     * @return the given {@code appendable}.
+     * @throws IOException if {@code appendable} fails to append.
+     */
+    public <A extends Appendable> A mask(final CharSequence value, final A appendable) throws IOException {
+        if (!isPositional() && value != null) {
+            final char[] chars = new char[maxMaskedLength(value.length())];
+            appendable.append(CharBuffer.wrap(chars, 0, mask(value, chars, 0)));
+            return appendable;
+        }
+        return MaskUtils.mask(value, this.keepInitialCharacters, this.keepLastCharacters, this.maskCharacter, appendable);
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof MaskSpec)) {
+            return false;
+        }
+        final MaskSpec other = (MaskSpec) o;
+        return this.keepInitialCharacters == other.keepInitialCharacters
+                && this.keepLastCharacters == other.keepLastCharacters
+                && this.maskCharacter == other.maskCharacter
+                && Objects.equals(this.scanner, other.scanner)
+                && Objects.equals(this.strategy, other.strategy)
+                && this.pseudonymizing == other.pseudonymizing
+                && Objects.equals(this.pseudonymizer, other.pseudonymizer);
+    }
+
+    @Override
+    public int hashCode() {
+        int result = this.keepInitialCharacters;
+        result = 31 * result + this.keepLastCharacters;
+        result = 31 * result + this.maskCharacter;
+        result = 31 * result + Objects.hashCode(this.scanner);
+        result = 31 * result + Objects.hashCode(this.strategy);
+        result = 31 * result + Boolean.hashCode(this.pseudonymizing);
+        result = 31 * result + Objects.hashCode(this.pseudonymizer);
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "MaskSpec(keepInitialCharacters=" + this.keepInitialCharacters
+                + ", keepLastCharacters=" + this.keepLastCharacters
+                + ", maskCharacter=" + this.maskCharacter
+                + (this.scanner == null ? "" : ", scanner=" + this.scanner)
+                + (this.strategy == null ? "" : ", strategy=" + this.strategy.getClass().getSimpleName())
+                + (this.pseudonymizing ? ", pseudonymizing=true" : "") + ")";
+    }
+}
@@ -1,16 +1,24 @@
 package io.github.javiercanillas.jackson.masker;
 
+import io.github.javiercanillas.jackson.masker.scan.PiiScanner;
+import io.github.javiercanillas.jackson.masker.strategy.MaskStrategy;
+import io.github.javiercanillas.jackson.masker.strategy.PositionMaskStrategy;
+
+import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.stream.Collector;
-import java.util.stream.Collectors;
-import java.util.stream.IntStream;
-import java.util.stream.Stream;
 
 /**
  * Mask utilities methods used for masking.
+ * <p>
+ * Characters to keep and to mask are counted as Unicode code points, so surrogate pairs (emojis, supplementary CJK
+ * characters...) are never split: they are kept whole, or replaced by a single mask character. This means a masked
+ * value can be shorter than the original one, but never longer.
  */
 @SuppressWarnings("java:S1168")
 public final class MaskUtils {
@@ -18,6 +26,12 @@ public final class MaskUtils {
     public static final int DEFAULTS_KEEP_LAST_CHARACTERS = 0;
     public static final char DEFAULT_MASK_CHARACTER = '*';
 
+    /**
+     * Quantity of values from which bulk operations split their work across a {@link java.util.concurrent.ForkJoinPool}.
+     */
+    public static final int PARALLEL_THRESHOLD = 8 * 1024;
+
+    private static final MaskStrategy POSITION = new PositionMaskStrategy();
 
     private MaskUtils() { }
 
@@ -40,8 +54,11 @@ public final class MaskUtils {
             return null;
         }
 
-        return mask(values.stream(), keepInitialCharacters, keepLastCharacters, maskCharacter)
-                .collect(Collectors.toSet());
+        final Set<String> masked = new HashSet<>(capacityFor(values.size()));
+        for (final String value : values) {
+            masked.add(mask(value, keepInitialCharacters, keepLastCharacters, maskCharacter));
+        }
+        return masked;
     }
 
     /**
@@ -63,8 +80,11 @@ public final class MaskUtils {
             return null;
         }
 
-        return mask(values.stream(), keepInitialCharacters, keepLastCharacters, maskCharacter)
-                .collect(Collectors.toList());
+        final List<String> masked = new ArrayList<>(values.size());
+        for (final String value : values) {
+            masked.add(mask(value, keepInitialCharacters, keepLastCharacters, maskCharacter));
+        }
+        return masked;
     }
 
     /**
@@ -86,8 +106,49 @@ public final class MaskUtils {
             return null;
         }
 
-        return mask(Arrays.stream(array), keepInitialCharacters, keepLastCharacters, maskCharacter)
-                .collect(Collectors.toList()).toArray(new String[array.length]);
+        return mask(array, new String[array.length], keepInitialCharacters, keepLastCharacters, maskCharacter);
+    }
+
+    /**
+     * Mask every value of {@code source} into the same position of {@code destination}. When there are more than
+     * {@link #PARALLEL_THRESHOLD} values, the work is split across the current {@link java.util.concurrent.ForkJoinPool}
+     * (or the common one if the caller is not running in a pool).
+     * <p>
+     * {@code source} and {@code destination} can be the same array, see {@link #maskInPlace(String[], int, int, char)}.
+     * @param source array of strings to be masked.
+     * @param destination array where masked values are written. It must be, at least, as long as {@code source}.
+     * @param keepInitialCharacters quantity of characters to leave unmasked since the beginning
+     * @param keepLastCharacters quantity of characters to leave unmasked from last positions
+     * @param maskCharacter char to be used to replace masked positions
+     * @return the given {@code destination}.
+     * @throws IllegalArgumentException if {@code keepInitialCharacters} or {@code keepLastCharacters} is less than 0,
+     * or if {@code destination} is shorter than {@code source}.
+     */
+    public static String[] mask(final String[] source, final String[] destination, final int keepInitialCharacters,
+                                final int keepLastCharacters, final char maskCharacter) {
+        checkArguments(keepInitialCharacters, keepLastCharacters);
+        if (destination.length < source.length) {
+            throw new IllegalArgumentException("Parameter destination cannot be shorter than source.");
+        }
+
+        BulkMaskTask.mask(source, destination, keepInitialCharacters, keepLastCharacters, maskCharacter);
+        return destination;
+    }
+
+    /**
+     * Mask every value of the argument array, replacing it with its masked value. When there are more than
+     * {@link #PARALLEL_THRESHOLD} values, the work is split across the current {@link java.util.concurrent.ForkJoinPool}
+     * (or the common one if the caller is not running in a pool).
+     * @param values array of strings to be masked.
+     * @param keepInitialCharacters quantity of characters to leave unmasked since the beginning
+     * @param keepLastCharacters quantity of characters to leave unmasked from last positions
+     * @param maskCharacter char to be used to replace masked positions
+     * @return the given {@code values} array.
+     * @throws IllegalArgumentException if {@code keepInitialCharacters} or {@code keepLastCharacters} is less than 0.
+     */
+    public static String[] maskInPlace(final String[] values, final int keepInitialCharacters, final int keepLastCharacters,
+                                       final char maskCharacter) {
+        return mask(values, values, keepInitialCharacters, keepLastCharacters, maskCharacter);
     }
 
     /**
@@ -109,13 +170,53 @@ public final class MaskUtils {
             return null;
         }
 
-        return map.entrySet().stream()
-                .collect(Collectors.toMap(Map.Entry::getKey, e -> mask(e.getValue(), keepInitialCharacters, keepLastCharacters, maskCharacter)));
+        return maskMapValues(map, new HashMap<>(capacityFor(map.size())), keepInitialCharacters, keepLastCharacters,
+                maskCharacter);
     }
 
-    private static Stream<String> mask(final Stream<String> stream, final int keepInitialCharacters, final int keepLastCharacters,
-                                final char maskCharacter) {
-        return stream.map(value -> mask(value, keepInitialCharacters, keepLastCharacters, maskCharacter));
+    /**
+     * Mask every value of {@code source} putting it, with the same key, into {@code destination}. This way callers
+     * choose the map implementation, its size and order. When there are more than {@link #PARALLEL_THRESHOLD} entries,
+     * values are masked across the current {@link java.util.concurrent.ForkJoinPool} (or the common one if the caller
+     * is not running in a pool), while {@code destination} is always filled by the calling thread.
+     * @param source map which values are masked.
+     * @param destination map where masked values are put. It can be the same as {@code source}.
+     * @param keepInitialCharacters quantity of characters to leave unmasked since the beginning
+     * @param keepLastCharacters quantity of characters to leave unmasked from last positions
+     * @param maskCharacter char to be used to replace masked positions
+     * @param <K> type of keys
+     * @param <M> type of the destination map
+     * @return the given {@code destination}.
+     * @throws IllegalArgumentException if {@code keepInitialCharacters} or {@code keepLastCharacters} is less than 0.
+     */
+    public static <K, M extends Map<K, String>> M maskMapValues(final Map<? extends K, String> source, final M destination,
+                                                               final int keepInitialCharacters, final int keepLastCharacters,
+                                                               final char maskCharacter) {
+        checkArguments(keepInitialCharacters, keepLastCharacters);
+        final int size = source.size();
+        if (size <= PARALLEL_THRESHOLD) {
+            for (final Map.Entry<? extends K, String> entry : source.entrySet()) {
+                destination.put(entry.getKey(), mask(entry.getValue(), keepInitialCharacters, keepLastCharacters,
+                        maskCharacter));
+            }
+            return destination;
+        }
+
+        final List<K> keys = new ArrayList<>(size);
+        final String[] values = new String[size];
+        for (final Map.Entry<? extends K, String> entry : source.entrySet()) {
+            values[keys.size()] = entry.getValue();
+            keys.add(entry.getKey());
+        }
+        BulkMaskTask.mask(values, values, keepInitialCharacters, keepLastCharacters, maskCharacter);
+        for (int i = 0; i < size; i++) {
+            destination.put(keys.get(i), values[i]);
+        }
+        return destination;
+    }
+
+    private static int capacityFor(final int size) {
+        return (int) (size / 0.75f) + 1;
     }
 
     /**
@@ -136,26 +237,446 @@ public final class MaskUtils {
         if (value == null) {
             return null;
         }
-        if (keepInitialCharacters < 0) {
-            throw new IllegalArgumentException("Parameter keepInitialCharacters cannot be less than Zero.");
+        checkArguments(keepInitialCharacters, keepLastCharacters);
+
+        if (value.length() <= (keepInitialCharacters + keepLastCharacters)) {
+            return value;
         }
-        if (keepLastCharacters < 0) {
-            throw new IllegalArgumentException("Parameter keepLastCharacters cannot be less than Zero.");
+
+        final char[] chars = new char[value.length()];
+        return new String(chars, 0, mask(value, keepInitialCharacters, keepLastCharacters, maskCharacter, chars, 0));
+    }
+
+    /**
+     * Mask the argument value keeping the first {@code keepInitialCharacters} and the last {@code keepLastCharacters}
+     * and replacing the others with {@code maskCharacter}, writing the result into {@code destination} starting at
+     * {@code offset}. No intermediate object is allocated.
+     * <p>
+     * For example:  <code>mask("hello", 0, 2, '*', buffer, 0)</code> will write <code>***lo</code> and return 5
+     * @param value value to be masked.
+     * @param keepInitialCharacters quantity of characters to leave unmasked since the beginning
+     * @param keepLastCharacters quantity of characters to leave unmasked from last positions
+     * @param maskCharacter char to be used to replace masked positions
+     * @param destination array where masked characters are written
+     * @param offset position of {@code destination} where to start writing
+     * @return quantity of characters written into {@code destination}. If value is null, nothing is written and
+     * zero is returned.
+     * @throws IllegalArgumentException if {@code keepInitialCharacters} or {@code keepLastCharacters} is less than 0.
+     * @throws IndexOutOfBoundsException if {@code destination} has no room for the masked value.
+     */
+    public static int mask(final CharSequence value, final int keepInitialCharacters, final int keepLastCharacters,
+                           final char maskCharacter, final char[] destination, final int offset) {
+        if (value == null) {
+            checkArguments(keepInitialCharacters, keepLastCharacters);
+            return 0;
         }
+        return mask(value, 0, value.length(), keepInitialCharacters, keepLastCharacters, maskCharacter, destination,
+                offset);
+    }
 
-        if (value.length() <= (keepInitialCharacters + keepLastCharacters)) {
+    /**
+     * Mask the characters of {@code value} between {@code start} (inclusive) and {@code end} (exclusive), keeping the
+     * first {@code keepInitialCharacters} and the last {@code keepLastCharacters} of them and replacing the others
+     * with {@code maskCharacter}, writing the result into {@code destination} starting at {@code offset}.
+     * @param value value holding the characters to be masked.
+     * @param start position of {@code value} where characters to be masked start
+     * @param end position of {@code value} where characters to be masked end
+     * @param keepInitialCharacters quantity of characters to leave unmasked since the beginning
+     * @param keepLastCharacters quantity of characters to leave unmasked from last positions
+     * @param maskCharacter char to be used to replace masked positions
+     * @param destination array where masked characters are written
+     * @param offset position of {@code destination} where to start writing
+     * @return quantity of characters written into {@code destination}.
+     * @throws IllegalArgumentException if {@code keepInitialCharacters} or {@code keepLastCharacters} is less than 0.
+     * @throws IndexOutOfBoundsException if {@code destination} has no room for the masked value.
+     */
+    @SuppressWarnings("java:S107")
+    public static int mask(final CharSequence value, final int start, final int end, final int keepInitialCharacters,
+                           final int keepLastCharacters, final char maskCharacter, final char[] destination,
+                           final int offset) {
+        checkArguments(keepInitialCharacters, keepLastCharacters);
+        final int keepInitialEnd = forwardCodePoints(value, start, end, keepInitialCharacters);
+        final int keepLastStart = backwardCodePoints(value, keepInitialEnd, end, keepLastCharacters);
+        if (keepLastStart == keepInitialEnd) {
+            copy(value, start, end, destination, offset);
+            return end - start;
+        }
+
+        int written = offset;
+        copy(value, start, keepInitialEnd, destination, written);
+        written += keepInitialEnd - start;
+        final int masked = countCodePoints(value, keepInitialEnd, keepLastStart);
+        Arrays.fill(destination, written, written + masked, maskCharacter);
+        written += masked;
+        copy(value, keepLastStart, end, destination, written);
+        return written + end - keepLastStart - offset;
+    }
+
+    /**
+     * Mask {@code length} characters of {@code source}, starting at {@code sourceOffset}, keeping the first
+     * {@code keepInitialCharacters} and the last {@code keepLastCharacters} and replacing the others with
+     * {@code maskCharacter}, writing the result into {@code destination} starting at {@code offset}. This is meant for
+     * values exposed as a window over a shared buffer, like the ones returned by
+     * {@link com.fasterxml.jackson.core.JsonParser#getTextCharacters()}.
+     * @param source array holding the value to be masked.
+     * @param sourceOffset position of {@code source} where the value starts
+     * @param length quantity of characters of the value
+     * @param keepInitialCharacters quantity of characters to leave unmasked since the beginning
+     * @param keepLastCharacters quantity of characters to leave unmasked from last positions
+     * @param maskCharacter char to be used to replace masked positions
+     * @param destination array where masked characters are written
+     * @param offset position of {@code destination} where to start writing
+     * @return quantity of characters written into {@code destination}.
+     * @throws IllegalArgumentException if {@code keepInitialCharacters} or {@code keepLastCharacters} is less than 0.
+     * @throws IndexOutOfBoundsException if {@code destination} has no room for the masked value.
+     */
+    @SuppressWarnings("java:S107")
+    public static int mask(final char[] source, final int sourceOffset, final int length, final int keepInitialCharacters,
+                           final int keepLastCharacters, final char maskCharacter, final char[] destination,
+                           final int offset) {
+        checkArguments(keepInitialCharacters, keepLastCharacters);
+        final int end = sourceOffset + length;
+        final int keepInitialEnd = forwardCodePoints(source, sourceOffset, end, keepInitialCharacters);
+        final int keepLastStart = backwardCodePoints(source, keepInitialEnd, end, keepLastCharacters);
+        if (keepLastStart == keepInitialEnd) {
+            System.arraycopy(source, sourceOffset, destination, offset, length);
+            return length;
+        }
+
+        int written = offset;
+        System.arraycopy(source, sourceOffset, destination, written, keepInitialEnd - sourceOffset);
+        written += keepInitialEnd - sourceOffset;
+        final int masked = countCodePoints(source, keepInitialEnd, keepLastStart);
+        Arrays.fill(destination, written, written + masked, maskCharacter);
+        written += masked;
+        System.arraycopy(source, keepLastStart, destination, written, end - keepLastStart);
+        return written + end - keepLastStart - offset;
+    }
+
+    /**
+     * Mask the argument value keeping the first {@code keepInitialCharacters} and the last {@code keepLastCharacters}
+     * and replacing the others with {@code maskCharacter}, appending the result to {@code appendable}.
+     * @param value value to be masked.
+     * @param keepInitialCharacters quantity of characters to leave unmasked since the beginning
+     * @param keepLastCharacters quantity of characters to leave unmasked from last positions
+     * @param maskCharacter char to be used to replace masked positions
+     * @param appendable where masked characters are appended
+     * @param <A> type of the {@link Appendable}
+     * @return the given {@code appendable}. If value is null, nothing is appended.
+     * @throws IOException if {@code appendable} fails to append.
+     * @throws IllegalArgumentException if {@code keepInitialCharacters} or {@code keepLastCharacters} is less than 0.
+     */
+    public static <A extends Appendable> A mask(final CharSequence value, final int keepInitialCharacters,
+                                                final int keepLastCharacters, final char maskCharacter,
+                                                final A appendable) throws IOException {
+        checkArguments(keepInitialCharacters, keepLastCharacters);
+        if (value == null) {
+            return appendable;
+        }
+
+        final int length = value.length();
+        final int keepInitialEnd = forwardCodePoints(value, 0, length, keepInitialCharacters);
+        final int keepLastStart = backwardCodePoints(value, keepInitialEnd, length, keepLastCharacters);
+        if (keepLastStart == keepInitialEnd) {
+            appendable.append(value);
+            return appendable;
+        }
+
+        appendable.append(value, 0, keepInitialEnd);
+        for (int i = countCodePoints(value, keepInitialEnd, keepLastStart); i > 0; i--) {
+            appendable.append(maskCharacter);
+        }
+        appendable.append(value, keepLastStart, length);
+        return appendable;
+    }
+
+    /**
+     * Lazily mask the argument value keeping the first {@code keepInitialCharacters} and the last
+     * {@code keepLastCharacters} and replacing the others with {@code maskCharacter}. Nothing is copied: the returned
+     * view computes masked characters when read, so it costs almost nothing if never read (i.e. disabled log levels).
+     * <p>
+     * For example:  <code>lazyMask("hello", 0, 2, '*')</code> will read as <code>***lo</code>
+     * @param value value to be masked. It must not change while the view is in use.
+     * @param keepInitialCharacters quantity of characters to leave unmasked since the beginning
+     * @param keepLastCharacters quantity of characters to leave unmasked from last positions
+     * @param maskCharacter char to be used to replace masked positions
+     * @return if value is null, it will return null, otherwise a masked view over it.
+     * @throws IllegalArgumentException if {@code keepInitialCharacters} or {@code keepLastCharacters} is less than 0.
+     */
+    public static MaskedCharSequence lazyMask(final CharSequence value, final int keepInitialCharacters,
+                                              final int keepLastCharacters, final char maskCharacter) {
+        checkArguments(keepInitialCharacters, keepLastCharacters);
+        if (value == null) {
+            return null;
+        }
+        final int length = value.length();
+        final int keepInitialEnd = forwardCodePoints(value, 0, length, keepInitialCharacters);
+        return new MaskedCharSequence(value, keepInitialEnd,
+                backwardCodePoints(value, keepInitialEnd, length, keepLastCharacters), maskCharacter);
+    }
+
+    /**
+     * Mask the argument value the same way as {@link #mask(CharSequence, int, int, char, char[], int)}, but writing it
+     * UTF-8 encoded into {@code destination} starting at {@code offset}. This is meant for byte oriented outputs, like
+     * {@link com.fasterxml.jackson.core.JsonGenerator#writeUTF8String(byte[], int, int)}, so masked values are
+     * encoded once. Unpaired surrogates are encoded as {@code '?'}.
+     * @param value value to be masked.
+     * @param keepInitialCharacters quantity of characters to leave unmasked since the beginning
+     * @param keepLastCharacters quantity of characters to leave unmasked from last positions
+     * @param maskCharacter char to be used to replace masked positions
+     * @param destination array where masked bytes are written. It requires room for
+     * {@link #maxUtf8Length(int)} bytes.
+     * @param offset position of {@code destination} where to start writing
+     * @return quantity of bytes written into {@code destination}. If value is null, nothing is written and zero is
+     * returned.
+     * @throws IllegalArgumentException if {@code keepInitialCharacters} or {@code keepLastCharacters} is less than 0.
+     * @throws IndexOutOfBoundsException if {@code destination} has no room for the masked value.
+     */
+    public static int maskUtf8(final CharSequence value, final int keepInitialCharacters, final int keepLastCharacters,
+                               final char maskCharacter, final byte[] destination, final int offset) {
+        checkArguments(keepInitialCharacters, keepLastCharacters);
+        if (value == null) {
+            return 0;
+        }
+
+        final int length = value.length();
+        final int keepInitialEnd = forwardCodePoints(value, 0, length, keepInitialCharacters);
+        final int keepLastStart = backwardCodePoints(value, keepInitialEnd, length, keepLastCharacters);
+        if (keepLastStart == keepInitialEnd) {
+            return encodeUtf8(value, 0, length, destination, offset) - offset;
+        }
+
+        int written = encodeUtf8(value, 0, keepInitialEnd, destination, offset);
+        final int masked = countCodePoints(value, keepInitialEnd, keepLastStart);
+        if (maskCharacter < 0x80) {
+            Arrays.fill(destination, written, written + masked, (byte) maskCharacter);
+            written += masked;
+        } else {
+            final String encoded = String.valueOf(maskCharacter);
+            for (int i = 0; i < masked; i++) {
+                written = encodeUtf8(encoded, 0, 1, destination, written);
+            }
+        }
+        return encodeUtf8(value, keepLastStart, length, destination, written) - offset;
+    }
+
+    /**
+     * @param length length of a value
+     * @return maximum quantity of bytes {@link #maskUtf8(CharSequence, int, int, char, byte[], int)} writes for a
+     * value of the given length.
+     */
+    public static int maxUtf8Length(final int length) {
+        return length * 3;
+    }
+
+    /**
+     * Mask every match {@code scanner} finds on the argument value, keeping the first {@code keepInitialCharacters}
+     * and the last {@code keepLastCharacters} of each match and replacing the others with {@code maskCharacter}. The
+     * rest of the value is kept as is.
+     * <p>
+     * For example:  <code>maskMatches("mail john@example.com", PiiScanner.of(PiiPattern.EMAIL), 1, 0, '*')</code>
+     * will reproduce <code>mail j***************</code>
+     * @param value string value to be scanned.
+     * @param scanner scanner finding the values to be masked
+     * @param keepInitialCharacters quantity of characters of each match to leave unmasked since its beginning
+     * @param keepLastCharacters quantity of characters of each match to leave unmasked from its last positions
+     * @param maskCharacter char to be used to replace masked positions
+     * @return if value is null, it will return null, otherwise the masked value result. If nothing is found, the same
+     * value is returned.
+     * @throws IllegalArgumentException if {@code keepInitialCharacters} or {@code keepLastCharacters} is less than 0.
+     */
+    public static String maskMatches(final String value, final PiiScanner scanner, final int keepInitialCharacters,
+                                     final int keepLastCharacters, final char maskCharacter) {
+        return maskMatches(value, scanner, MaskSpec.of(keepInitialCharacters, keepLastCharacters, maskCharacter));
+    }
+
+    /**
+     * Mask every match {@code scanner} finds on the argument value, writing the whole value into {@code destination}
+     * starting at {@code offset}, see {@link #maskMatches(String, PiiScanner, int, int, char)}.
+     * @param value value to be scanned.
+     * @param scanner scanner finding the values to be masked
+     * @param keepInitialCharacters quantity of characters of each match to leave unmasked since its beginning
+     * @param keepLastCharacters quantity of characters of each match to leave unmasked from its last positions
+     * @param maskCharacter char to be used to replace masked positions
+     * @param destination array where characters are written
+     * @param offset position of {@code destination} where to start writing
+     * @return quantity of characters written into {@code destination}. If value is null, nothing is written and
+     * zero is returned.
+     * @throws IllegalArgumentException if {@code keepInitialCharacters} or {@code keepLastCharacters} is less than 0.
+     * @throws IndexOutOfBoundsException if {@code destination} has no room for the value.
+     */
+    @SuppressWarnings("java:S107")
+    public static int maskMatches(final CharSequence value, final PiiScanner scanner, final int keepInitialCharacters,
+                                  final int keepLastCharacters, final char maskCharacter, final char[] destination,
+                                  final int offset) {
+        return maskMatches(value, scanner, MaskSpec.of(keepInitialCharacters, keepLastCharacters, maskCharacter),
+                destination, offset);
+    }
+
+    static String maskMatches(final String value, final PiiScanner scanner, final MaskSpec spec) {
+        if (value == null) {
+            return null;
+        }
+
+        final long first = scanner.find(value, 0);
+        if (first < 0) {
             return value;
         }
+        final char[] chars = new char[value.length()];
+        return new String(chars, 0, maskMatches(value, scanner, first, spec, chars, 0));
+    }
+
+    static int maskMatches(final CharSequence value, final PiiScanner scanner, final MaskSpec spec,
+                           final char[] destination, final int offset) {
+        if (value == null) {
+            return 0;
+        }
+        return maskMatches(value, scanner, scanner.find(value, 0), spec, destination, offset);
+    }
+
+    private static int maskMatches(final CharSequence value, final PiiScanner scanner, final long first,
+                                   final MaskSpec spec, final char[] destination, final int offset) {
+        final MaskStrategy strategy = spec.getStrategy() == null ? POSITION : spec.getStrategy();
+        int written = offset;
+        int from = 0;
+        for (long match = first; match >= 0; match = scanner.find(value, from)) {
+            final int start = PiiScanner.start(match);
+            copy(value, from, start, destination, written);
+            written += start - from;
+            from = PiiScanner.end(match);
+            written += strategy.mask(value, start, from, spec, destination, written);
+        }
+        copy(value, from, value.length(), destination, written);
+        return written + value.length() - from - offset;
+    }
+
+    /**
+     * @return position of {@code value} after skipping {@code count} code points from {@code start}, or {@code end}
+     * if there are not so many.
+     */
+    private static int forwardCodePoints(final CharSequence value, final int start, final int end, final int count) {
+        int position = start;
+        for (int i = 0; i < count && position < end; i++) {
+            position += Character.isHighSurrogate(value.charAt(position)) && position + 1 < end
+                    && Character.isLowSurrogate(value.charAt(position + 1)) ? 2 : 1;
+        }
+        return position;
+    }
 
-        return value.substring(0,keepInitialCharacters)
-                + repeat(maskCharacter, value.length() - (keepInitialCharacters + keepLastCharacters))
-                + value.substring(value.length() - keepLastCharacters);
+    /**
+     * @return position of {@code value} after going back {@code count} code points from {@code end}, or {@code start}
+     * if there are not so many.
+     */
+    private static int backwardCodePoints(final CharSequence value, final int start, final int end, final int count) {
+        int position = end;
+        for (int i = 0; i < count && position > start; i++) {
+            position -= Character.isLowSurrogate(value.charAt(position - 1)) && position - 1 > start
+                    && Character.isHighSurrogate(value.charAt(position - 2)) ? 2 : 1;
+        }
+        return position;
     }
 
-    private static String repeat(final char word, final int times) {
-        return IntStream.range(0, times).mapToObj(i -> word).collect(Collector.of(StringBuilder::new,
-                StringBuilder::append,
-                StringBuilder::append,
-                StringBuilder::toString));
+    /**
+     * Fast path for BMP text: a single comparison per character, pairs are only looked at when a high surrogate shows up.
+     */
+    static int countCodePoints(final CharSequence value, final int start, final int end) {
+        int count = end - start;
+        for (int i = start; i < end - 1; i++) {
+            if (Character.isHighSurrogate(value.charAt(i)) && Character.isLowSurrogate(value.charAt(i + 1))) {
+                count--;
+                i++;
+            }
+        }
+        return count;
+    }
+
+    private static int forwardCodePoints(final char[] value, final int start, final int end, final int count) {
+        int position = start;
+        for (int i = 0; i < count && position < end; i++) {
+            position += Character.isHighSurrogate(value[position]) && position + 1 < end
+                    && Character.isLowSurrogate(value[position + 1]) ? 2 : 1;
+        }
+        return position;
+    }
+
+    private static int backwardCodePoints(final char[] value, final int start, final int end, final int count) {
+        int position = end;
+        for (int i = 0; i < count && position > start; i++) {
+            position -= Character.isLowSurrogate(value[position - 1]) && position - 1 > start
+                    && Character.isHighSurrogate(value[position - 2]) ? 2 : 1;
+        }
+        return position;
+    }
+
+    private static int countCodePoints(final char[] value, final int start, final int end) {
+        int count = end - start;
+        for (int i = start; i < end - 1; i++) {
+            if (Character.isHighSurrogate(value[i]) && Character.isLowSurrogate(value[i + 1])) {
+                count--;
+                i++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * UTF-8 encode characters of {@code value} between {@code start} and {@code end}, ASCII ones on a tight loop.
+     * @return position of {@code destination} after the last byte written
+     */
+    @SuppressWarnings("java:S3776")
+    private static int encodeUtf8(final CharSequence value, final int start, final int end, final byte[] destination,
+                                  final int offset) {
+        int written = offset;
+        int i = start;
+        while (i < end) {
+            char c = value.charAt(i);
+            while (c < 0x80) {
+                destination[written++] = (byte) c;
+                if (++i == end) {
+                    return written;
+                }
+                c = value.charAt(i);
+            }
+            if (c < 0x800) {
+                destination[written++] = (byte) (0xC0 | (c >> 6));
+                destination[written++] = (byte) (0x80 | (c & 0x3F));
+            } else if (!Character.isSurrogate(c)) {
+                destination[written++] = (byte) (0xE0 | (c >> 12));
+                destination[written++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                destination[written++] = (byte) (0x80 | (c & 0x3F));
+            } else if (Character.isHighSurrogate(c) && i + 1 < end && Character.isLowSurrogate(value.charAt(i + 1))) {
+                final int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                destination[written++] = (byte) (0xF0 | (codePoint >> 18));
+                destination[written++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+                destination[written++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+                destination[written++] = (byte) (0x80 | (codePoint & 0x3F));
+            } else {
+                destination[written++] = '?';
+            }
+            i++;
+        }
+        return written;
+    }
+
+    private static void checkArguments(final int keepInitialCharacters, final int keepLastCharacters) {
+        if (keepInitialCharacters < 0) {
+            throw new IllegalArgumentException("Parameter keepInitialCharacters cannot be less than Zero.");
+        }
+        if (keepLastCharacters < 0) {
+            throw new IllegalArgumentException("Parameter keepLastCharacters cannot be less than Zero.");
+        }
+    }
+
+    private static void copy(final CharSequence source, final int start, final int end, final char[] destination,
+                             final int offset) {
+        if (source instanceof String) {
+            ((String) source).getChars(start, end, destination, offset);
+        } else if (source instanceof StringBuilder) {
+            ((StringBuilder) source).getChars(start, end, destination, offset);
+        } else {
+            for (int i = start; i < end; i++) {
+                destination[offset + i - start] = source.charAt(i);
+            }
+        }
     }
 }
@@ -0,0 +1,128 @@
+package io.github.javiercanillas.jackson.masker;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Objects;
+
+/**
+ * Masked view over a value, computing masked characters on demand instead of building the masked string up front.
+ * It is returned by {@link MaskUtils#lazyMask(CharSequence, int, int, char)}.
+ * <p>
+ * Masking rules are the same as {@link MaskUtils#mask(String, int, int, char)}, code points included: a masked
+ * surrogate pair is a single mask character, so the view can be shorter than the value. Building it only walks the
+ * characters to keep; the characters to mask are counted the first time they are reached.
+ * <p>
+ * It can be appended to a {@link StringBuilder}, or to any {@link Appendable} through {@link #appendTo(Appendable)},
+ * without materializing an intermediate string. {@link #toString()} does build one. The view reads the value every
+ * time, so it must not change afterwards.
+ */
+public final class MaskedCharSequence implements CharSequence {
+
+    private final CharSequence value;
+    private final int keepInitialEnd;
+    private final int keepLastStart;
+    private final char maskCharacter;
+    private final int from;
+    private final int to;
+    // lazily counted code points to mask, -1 until then
+    private int masked;
+
+    MaskedCharSequence(final CharSequence value, final int keepInitialEnd, final int keepLastStart,
+                       final char maskCharacter) {
+        this(value, keepInitialEnd, keepLastStart, maskCharacter, -1, 0, -1);
+    }
+
+    @SuppressWarnings("java:S107")
+    private MaskedCharSequence(final CharSequence value, final int keepInitialEnd, final int keepLastStart,
+                               final char maskCharacter, final int masked, final int from, final int to) {
+        this.value = value;
+        this.keepInitialEnd = keepInitialEnd;
+        this.keepLastStart = keepLastStart;
+        this.maskCharacter = maskCharacter;
+        this.masked = masked;
+        this.from = from;
+        this.to = to;
+    }
+
+    @Override
+    public int length() {
+        return end() - this.from;
+    }
+
+    @Override
+    public char charAt(final int index) {
+        final int position = this.from + index;
+        if (index >= 0 && position < this.keepInitialEnd && (this.to < 0 || position < this.to)) {
+            // kept initial characters, no need to count the masked ones
+            return this.value.charAt(position);
+        }
+        Objects.checkIndex(index, length());
+        final int maskEnd = this.keepInitialEnd + masked();
+        return position < maskEnd ? this.maskCharacter : this.value.charAt(this.keepLastStart + position - maskEnd);
+    }
+
+    /**
+     * @return a view over the given range of this one, without copying characters.
+     */
+    @Override
+    public CharSequence subSequence(final int start, final int end) {
+        Objects.checkFromToIndex(start, end, length());
+        return new MaskedCharSequence(this.value, this.keepInitialEnd, this.keepLastStart, this.maskCharacter, masked(),
+                this.from + start, this.from + end);
+    }
+
+    /**
+     * Append the masked characters to {@code appendable}: kept ranges are appended straight from the value, and mask
+     * characters one by one. Kept ranges of strings are written to {@link Writer}s without copying them.
+     * @param appendable where masked characters are appended
+     * @param <A> type of the {@link Appendable}
+     * @return the given {@code appendable}
+     * @throws IOException if {@code appendable} fails to append.
+     */
+    public <A extends Appendable> A appendTo(final A appendable) throws IOException {
+        final int end = end();
+        final int maskEnd = this.keepInitialEnd + masked();
+        appendValue(appendable, this.from, Math.min(end, this.keepInitialEnd));
+        for (int i = Math.max(this.from, this.keepInitialEnd), last = Math.min(end, maskEnd); i < last; i++) {
+            appendable.append(this.maskCharacter);
+        }
+        final int suffixFrom = Math.max(this.from, maskEnd);
+        appendValue(appendable, this.keepLastStart + suffixFrom - maskEnd, this.keepLastStart + end - maskEnd);
+        return appendable;
+    }
+
+    @Override
+    public String toString() {
+        final char[] chars = new char[length()];
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = charAt(i);
+        }
+        return new String(chars);
+    }
+
+    private void appendValue(final Appendable appendable, final int start, final int end) throws IOException {
+        if (start >= end) {
+            return;
+        }
+        if (appendable instanceof Writer && this.value instanceof String) {
+            // Writer.append(CharSequence, int, int) would create a substring first
+            ((Writer) appendable).write((String) this.value, start, end - start);
+        } else {
+            appendable.append(this.value, start, end);
+        }
+    }
+
+    private int end() {
+        return this.to >= 0 ? this.to : this.keepInitialEnd + masked() + this.value.length() - this.keepLastStart;
+    }
+
+    private int masked() {
+        int count = this.masked;
+        if (count < 0) {
+            // racy but idempotent, like String.hashCode
+            count = MaskUtils.countCodePoints(this.value, this.keepInitialEnd, this.keepLastStart);
+            this.masked = count;
+        }
+        return count;
+    }
+}
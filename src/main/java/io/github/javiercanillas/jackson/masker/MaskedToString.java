@@ -0,0 +1,415 @@
+package io.github.javiercanillas.jackson.masker;
+
+import io.github.javiercanillas.jackson.masker.annotation.MaskString;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.nio.CharBuffer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Masked {@code toString()} output for debug logging, without going through an
+ * {@link com.fasterxml.jackson.databind.ObjectMapper}.
+ * <p>
+ * Output looks like Lombok's {@code @ToString}: {@code Customer(name=John, email=j***@example.com, age=42)}, with
+ * the fields of the class (superclass ones first) masked as declared by {@link MaskString} on the field or its
+ * getter. Masked values that are not strings are masked on their {@code String.valueOf}, and masked collections,
+ * arrays, maps and optionals element by element. Nested objects are written the same way, whatever their own
+ * {@code toString()} does, so masked fields are masked however deep they are; only JDK types and classes without
+ * fields are written with their own {@code toString()}.
+ * <p>
+ * Fields are read with {@link MethodHandle}s, found once per class and kept on a {@link ClassValue}, and output is
+ * written into a thread local {@link StringBuilder} reused between calls. Fields that cannot be accessed (i.e. classes
+ * on modules not opened to this library) are left out.
+ * <pre>
+ * &#64;Override
+ * public String toString() {
+ *     return MaskedToString.toString(this);
+ * }
+ * </pre>
+ * Objects reached again while being written, through a cycle, are written as {@code Name(...)}.
+ */
+public final class MaskedToString {
+
+    private static final int INITIAL_CAPACITY = 256;
+    private static final int MAX_CAPACITY = 8 * 1024;
+    private static final ThreadLocal<StringBuilder> BUFFERS =
+            ThreadLocal.withInitial(() -> new StringBuilder(INITIAL_CAPACITY));
+    private static final ThreadLocal<char[]> CHARS = ThreadLocal.withInitial(() -> new char[INITIAL_CAPACITY]);
+    // objects being written on this thread, by identity
+    private static final ThreadLocal<Map<Object, Boolean>> WRITING = ThreadLocal.withInitial(IdentityHashMap::new);
+
+    private static final ClassValue<Plan> PLANS = new ClassValue<>() {
+        @Override
+        protected Plan computeValue(final Class<?> type) {
+            return Plan.of(type);
+        }
+    };
+
+    private MaskedToString() { }
+
+    /**
+     * @param value object to write
+     * @return masked representation of {@code value}, or {@code "null"}
+     */
+    public static String toString(final Object value) {
+        final StringBuilder buffer = BUFFERS.get();
+        if (buffer.length() > 0) {
+            // called from a toString() of an object being written on this thread
+            return appendTo(value, new StringBuilder(INITIAL_CAPACITY)).toString();
+        }
+        try {
+            return appendTo(value, buffer).toString();
+        } finally {
+            buffer.setLength(0);
+            if (buffer.capacity() > MAX_CAPACITY) {
+                BUFFERS.set(new StringBuilder(INITIAL_CAPACITY));
+            }
+        }
+    }
+
+    /**
+     * Append the masked representation of {@code value} to {@code builder}.
+     * @param value object to write
+     * @param builder where to append it
+     * @return the given {@code builder}
+     */
+    public static StringBuilder appendTo(final Object value, final StringBuilder builder) {
+        if (value == null) {
+            return builder.append("null");
+        }
+        PLANS.get(value.getClass()).appendTo(value, builder);
+        return builder;
+    }
+
+    private static void appendValue(final Object value, final StringBuilder builder) {
+        if (value == null || isPlain(value.getClass())) {
+            builder.append(value);
+        } else if (value instanceof Collection) {
+            appendElements(((Collection<?>) value).iterator(), null, builder);
+        } else if (value instanceof Object[]) {
+            appendElements(Arrays.asList((Object[]) value).iterator(), null, builder);
+        } else if (value instanceof Map) {
+            appendEntries((Map<?, ?>) value, null, builder);
+        } else if (value.getClass().isArray()) {
+            builder.append(primitiveArrayToString(value));
+        } else {
+            final Plan plan = PLANS.get(value.getClass());
+            if (plan.opaque || plan.fieldless) {
+                builder.append(value);
+            } else {
+                plan.appendTo(value, builder);
+            }
+        }
+    }
+
+    private static void appendMasked(final Object value, final MaskSpec spec, final StringBuilder builder) {
+        if (value == null) {
+            builder.append("null");
+        } else if (value instanceof CharSequence) {
+            mask((CharSequence) value, spec, builder);
+        } else if (value instanceof Collection) {
+            appendElements(((Collection<?>) value).iterator(), spec, builder);
+        } else if (value instanceof Object[]) {
+            appendElements(Arrays.asList((Object[]) value).iterator(), spec, builder);
+        } else if (value instanceof Map) {
+            appendEntries((Map<?, ?>) value, spec, builder);
+        } else if (value instanceof Optional) {
+            final Optional<?> optional = (Optional<?>) value;
+            if (optional.isPresent()) {
+                builder.append("Optional[");
+                appendMasked(optional.get(), spec, builder);
+                builder.append(']');
+            } else {
+                builder.append("Optional.empty");
+            }
+        } else if (value instanceof char[]) {
+            mask(CharBuffer.wrap((char[]) value), spec, builder);
+        } else if (value.getClass().isArray()) {
+            mask(primitiveArrayToString(value), spec, builder);
+        } else {
+            mask(String.valueOf(value), spec, builder);
+        }
+    }
+
+    private static void appendElements(final Iterator<?> elements, final MaskSpec spec, final StringBuilder builder) {
+        builder.append('[');
+        while (elements.hasNext()) {
+            final Object element = elements.next();
+            if (spec == null) {
+                appendValue(element, builder);
+            } else {
+                appendMasked(element, spec, builder);
+            }
+            if (elements.hasNext()) {
+                builder.append(", ");
+            }
+        }
+        builder.append(']');
+    }
+
+    private static void appendEntries(final Map<?, ?> map, final MaskSpec spec, final StringBuilder builder) {
+        builder.append('{');
+        final Iterator<? extends Map.Entry<?, ?>> entries = map.entrySet().iterator();
+        while (entries.hasNext()) {
+            final Map.Entry<?, ?> entry = entries.next();
+            // like the serializer, keys are never masked
+            appendValue(entry.getKey(), builder);
+            builder.append('=');
+            if (spec == null) {
+                appendValue(entry.getValue(), builder);
+            } else {
+                appendMasked(entry.getValue(), spec, builder);
+            }
+            if (entries.hasNext()) {
+                builder.append(", ");
+            }
+        }
+        builder.append('}');
+    }
+
+    private static void mask(final CharSequence value, final MaskSpec spec, final StringBuilder builder) {
+        final int length = spec.maxMaskedLength(value.length());
+        if (length > MAX_CAPACITY) {
+            try {
+                spec.mask(value, builder);
+            } catch (IOException e) {
+                // StringBuilder never throws
+                throw new UncheckedIOException(e);
+            }
+            return;
+        }
+        // masked into a scratch array and appended at once, cheaper than appending character by character
+        char[] chars = CHARS.get();
+        if (chars.length < length) {
+            chars = new char[Math.max(length, chars.length << 1)];
+            CHARS.set(chars);
+        }
+        builder.append(chars, 0, spec.mask(value, chars, 0));
+    }
+
+    private static String primitiveArrayToString(final Object array) {
+        if (array instanceof int[]) {
+            return Arrays.toString((int[]) array);
+        } else if (array instanceof long[]) {
+            return Arrays.toString((long[]) array);
+        } else if (array instanceof double[]) {
+            return Arrays.toString((double[]) array);
+        } else if (array instanceof float[]) {
+            return Arrays.toString((float[]) array);
+        } else if (array instanceof short[]) {
+            return Arrays.toString((short[]) array);
+        } else if (array instanceof byte[]) {
+            return Arrays.toString((byte[]) array);
+        } else if (array instanceof boolean[]) {
+            return Arrays.toString((boolean[]) array);
+        }
+        return Arrays.toString((char[]) array);
+    }
+
+    /**
+     * @return true for scalar types, written with their own {@code toString()}
+     */
+    private static boolean isPlain(final Class<?> type) {
+        return type.isEnum() || CharSequence.class.isAssignableFrom(type) || Number.class.isAssignableFrom(type)
+                || type == Boolean.class || type == Character.class;
+    }
+
+    /**
+     * @return true for types whose fields are not looked at: scalars, arrays and JDK ones
+     */
+    private static boolean isOpaque(final Class<?> type) {
+        return isPlain(type) || type.isArray() || type.isPrimitive() || type.getName().startsWith("java.")
+                || type.getName().startsWith("javax.");
+    }
+
+    /**
+     * How to write instances of a class: its name and an accessor per field.
+     */
+    private static final class Plan {
+        private final String name;
+        private final Property[] properties;
+        // no instance fields at all, so nothing to mask when nested
+        private final boolean fieldless;
+        // written as any other value, without looking at fields
+        private final boolean opaque;
+
+        private Plan(final String name, final Property[] properties, final boolean fieldless, final boolean opaque) {
+            this.name = name;
+            this.properties = properties;
+            this.fieldless = fieldless;
+            this.opaque = opaque;
+        }
+
+        private static Plan of(final Class<?> type) {
+            if (isOpaque(type)) {
+                return new Plan(type.getName(), new Property[0], true, true);
+            }
+            final Deque<Class<?>> hierarchy = new ArrayDeque<>();
+            for (Class<?> current = type; current != null && current != Object.class; current = current.getSuperclass()) {
+                hierarchy.push(current);
+            }
+            final List<Property> properties = new ArrayList<>();
+            boolean fieldless = true;
+            for (final Class<?> declaring : hierarchy) {
+                // private access is per class, so a lookup on the type itself cannot read superclass private fields
+                final MethodHandles.Lookup lookup = lookup(declaring);
+                for (final Field field : declaring.getDeclaredFields()) {
+                    if (Modifier.isStatic(field.getModifiers()) || field.isSynthetic()
+                            || field.getName().startsWith("$")) {
+                        continue;
+                    }
+                    fieldless = false;
+                    final MaskSpec spec = spec(field);
+                    final MethodHandle getter = getter(lookup, field, spec != null);
+                    if (getter != null) {
+                        properties.add(new Property(field.getName(), field.getType(), getter, spec));
+                    }
+                }
+            }
+            return new Plan(simpleName(type), properties.toArray(new Property[0]), fieldless, false);
+        }
+
+        private static MethodHandles.Lookup lookup(final Class<?> declaring) {
+            try {
+                return MethodHandles.privateLookupIn(declaring, MethodHandles.lookup());
+            } catch (IllegalAccessException | RuntimeException e) {
+                return null;
+            }
+        }
+
+        private static MethodHandle getter(final MethodHandles.Lookup lookup, final Field field, final boolean masked) {
+            if (lookup == null) {
+                return null;
+            }
+            try {
+                final MethodHandle getter = lookup.unreflectGetter(field);
+                final Class<?> type = field.getType();
+                // unmasked primitives keep their type so they are appended without boxing
+                final Class<?> returnType = masked || !type.isPrimitive() ? Object.class
+                        : type == short.class || type == byte.class ? int.class : type;
+                return getter.asType(MethodType.methodType(returnType, Object.class));
+            } catch (IllegalAccessException | RuntimeException e) {
+                return null;
+            }
+        }
+
+        private static MaskSpec spec(final Field field) {
+            MaskString annotation = field.getAnnotation(MaskString.class);
+            if (annotation == null) {
+                final String name = field.getName();
+                final String suffix = Character.toUpperCase(name.charAt(0)) + name.substring(1);
+                annotation = getterAnnotation(field.getDeclaringClass(), "get" + suffix);
+                if (annotation == null && field.getType() == boolean.class) {
+                    annotation = getterAnnotation(field.getDeclaringClass(), "is" + suffix);
+                }
+            }
+            return annotation == null ? null : MaskSpec.from(annotation);
+        }
+
+        private static MaskString getterAnnotation(final Class<?> type, final String name) {
+            try {
+                final Method method = type.getDeclaredMethod(name);
+                return method.getAnnotation(MaskString.class);
+            } catch (NoSuchMethodException e) {
+                return null;
+            }
+        }
+
+        /**
+         * @return the name Lombok would write, {@code Outer.Inner} for nested classes
+         */
+        private static String simpleName(final Class<?> type) {
+            if (type.isAnonymousClass() || type.isLocalClass() || type.getEnclosingClass() == null) {
+                return type.isAnonymousClass() ? type.getName().substring(type.getName().lastIndexOf('.') + 1)
+                        : type.getSimpleName();
+            }
+            return simpleName(type.getEnclosingClass()) + '.' + type.getSimpleName();
+        }
+
+        private void appendTo(final Object value, final StringBuilder builder) {
+            if (this.opaque) {
+                appendValue(value, builder);
+                return;
+            }
+            final Map<Object, Boolean> writing = WRITING.get();
+            if (writing.put(value, Boolean.TRUE) != null) {
+                builder.append(this.name).append("(...)");
+                return;
+            }
+            try {
+                builder.append(this.name).append('(');
+                for (int i = 0; i < this.properties.length; i++) {
+                    if (i > 0) {
+                        builder.append(", ");
+                    }
+                    this.properties[i].appendTo(value, builder);
+                }
+                builder.append(')');
+            } finally {
+                writing.remove(value);
+            }
+        }
+    }
+
+    /**
+     * A field and how to read and write it.
+     */
+    private static final class Property {
+        private final String name;
+        private final Class<?> type;
+        private final MethodHandle getter;
+        private final MaskSpec spec;
+
+        private Property(final String name, final Class<?> type, final MethodHandle getter, final MaskSpec spec) {
+            this.name = name;
+            this.type = type;
+            this.getter = getter;
+            this.spec = spec;
+        }
+
+        @SuppressWarnings("java:S1181")
+        private void appendTo(final Object bean, final StringBuilder builder) {
+            builder.append(this.name).append('=');
+            try {
+                if (this.spec != null) {
+                    appendMasked((Object) this.getter.invokeExact(bean), this.spec, builder);
+                } else if (!this.type.isPrimitive()) {
+                    appendValue((Object) this.getter.invokeExact(bean), builder);
+                } else if (this.type == int.class || this.type == short.class || this.type == byte.class) {
+                    builder.append((int) this.getter.invokeExact(bean));
+                } else if (this.type == long.class) {
+                    builder.append((long) this.getter.invokeExact(bean));
+                } else if (this.type == boolean.class) {
+                    builder.append((boolean) this.getter.invokeExact(bean));
+                } else if (this.type == char.class) {
+                    builder.append((char) this.getter.invokeExact(bean));
+                } else if (this.type == double.class) {
+                    builder.append((double) this.getter.invokeExact(bean));
+                } else {
+                    builder.append((float) this.getter.invokeExact(bean));
+                }
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                // field getters throw nothing checked
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+}
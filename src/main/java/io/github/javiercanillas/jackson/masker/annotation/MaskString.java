@@ -3,6 +3,9 @@ package io.github.javiercanillas.jackson.masker.annotation;
 import com.fasterxml.jackson.annotation.JacksonAnnotationsInside;
 import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import io.github.javiercanillas.jackson.masker.MaskUtils;
+import io.github.javiercanillas.jackson.masker.scan.PiiPattern;
+import io.github.javiercanillas.jackson.masker.strategy.MaskStrategy;
+import io.github.javiercanillas.jackson.masker.strategy.PositionMaskStrategy;
 import io.github.javiercanillas.jackson.masker.ser.MaskStringSerializer;
 import io.github.javiercanillas.jackson.masker.view.Masked;
 
@@ -17,8 +20,17 @@ import java.lang.annotation.Target;
  * {@link com.fasterxml.jackson.databind.ObjectMapper#writerWithView}. If no view is passed or it's null, data will not
  * be masked (backward compatibility).
  * <p>
- * <b>Note:</b> On {@link java.util.Map} only values will be mask and not keys. Also, on {@link java.util.Set} can have impact
- * on collection size, since when masking duplication might appear.
+ * Integral numbers ({@code long}, {@code int}, {@code short}, {@code byte}, their wrappers and
+ * {@link java.math.BigInteger}), {@link java.util.UUID}, {@code char[]}, {@link CharSequence}, {@link java.util.Optional}
+ * of those and primitive arrays are supported too, being written masked as {@link String}s.
+ * <p>
+ * <b>Note:</b> On {@link java.util.Map} only values will be mask and not keys. Elements of arrays, collections and maps
+ * are masked while being written, so their size and iteration order (e.g. {@link java.util.LinkedHashSet} or
+ * {@link java.util.LinkedHashMap}) are kept.
+ * <p>
+ * With {@link Mode#SCAN} mode, values are kept but the personal data found on them, see {@link #scanFor()} and
+ * {@link #scanTerms()}, which is useful for free text (notes, error messages, urls...). With {@link Mode#PSEUDONYMIZE}
+ * mode, values are replaced with a deterministic token instead.
  */
 @Retention(RetentionPolicy.RUNTIME)
 @Target({ ElementType.FIELD, ElementType.METHOD })
@@ -48,4 +60,52 @@ public @interface MaskString {
      * @return quantity of characters to leave unmasked
      */
     int keepLastCharacters() default DEFAULTS_KEEP_LAST_CHARACTERS;
+
+    /**
+     * How values are masked. Defaults to {@link Mode#POSITION}.
+     * @return masking mode
+     */
+    Mode mode() default Mode.POSITION;
+
+    /**
+     * Patterns masked on {@link Mode#SCAN} mode. Defaults to all of them.
+     * @return patterns to find
+     */
+    PiiPattern[] scanFor() default { PiiPattern.EMAIL, PiiPattern.CARD_NUMBER, PiiPattern.PHONE_NUMBER };
+
+    /**
+     * Literal terms (case sensitive) masked on {@link Mode#SCAN} mode, besides {@link #scanFor()} patterns.
+     * @return terms to find
+     */
+    String[] scanTerms() default {};
+
+    /**
+     * How values (or, on {@link Mode#SCAN} mode, the personal data found on them) are masked, like
+     * {@link io.github.javiercanillas.jackson.masker.strategy.EmailMaskStrategy} or
+     * {@link io.github.javiercanillas.jackson.masker.strategy.PanMaskStrategy}. Defaults to
+     * {@link PositionMaskStrategy}.
+     * @return strategy class, it must have a public no arguments constructor
+     */
+    Class<? extends MaskStrategy> strategy() default PositionMaskStrategy.class;
+
+    /**
+     * Masking modes.
+     */
+    enum Mode {
+        /**
+         * The whole value is masked, but for {@link #keepInitialCharacters()} and {@link #keepLastCharacters()}.
+         */
+        POSITION,
+        /**
+         * Only personal data found on the value is masked, applying {@link #keepInitialCharacters()} and
+         * {@link #keepLastCharacters()} to each one found.
+         */
+        SCAN,
+        /**
+         * The whole value is replaced with a deterministic token, so masked output keeps being joinable, see
+         * {@link io.github.javiercanillas.jackson.masker.pseudonymization.Pseudonymizer}. Any other parameter is
+         * ignored.
+         */
+        PSEUDONYMIZE
+    }
 }
@@ -0,0 +1,59 @@
+package io.github.javiercanillas.jackson.masker.jfr;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonStreamContext;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * Flight Recorder event for a value written masked by
+ * {@link io.github.javiercanillas.jackson.masker.ser.MaskStringSerializer}. Only values taking longer than the
+ * threshold (20 us by default, it can be changed on the recording settings) are committed.
+ * <p>
+ * It is begun, ended and committed through {@link MaskingEvents}, which only allocates it while a recording has it
+ * enabled.
+ */
+@Name(MaskedValueEvent.NAME)
+@Label("Masked Value")
+@Description("Value written masked by jackson-masker")
+@Category({ "Jackson Masker" })
+@Threshold("20 us")
+@StackTrace(false)
+public final class MaskedValueEvent extends jdk.jfr.Event {
+    public static final String NAME = "io.github.javiercanillas.jackson.masker.MaskedValue";
+
+    @Label("Declaring Class")
+    @Description("Class of the object holding the property, if known")
+    private Class<?> declaringClass;
+
+    @Label("Property")
+    private String property;
+
+    @Label("Value Type")
+    private Class<?> valueType;
+
+    @Label("Input Length")
+    @Description("Characters of the value (sum of them for arrays, collections and maps), zero for non text values")
+    private int inputLength;
+
+    /**
+     * Fill in the event from the value written and the generator it was written into, and commit it. It must be
+     * called once {@link #end()} was called, and only if {@link #shouldCommit()}.
+     * @param value value written
+     * @param inputLength characters of the value
+     * @param gen generator the value was written into
+     */
+    public void commit(final Object value, final int inputLength, final JsonGenerator gen) {
+        final Object currentValue = gen.currentValue();
+        final JsonStreamContext context = gen.getOutputContext();
+        this.declaringClass = currentValue == null || currentValue == value ? null : currentValue.getClass();
+        this.property = context == null ? null : context.getCurrentName();
+        this.valueType = value == null ? null : value.getClass();
+        this.inputLength = inputLength;
+        commit();
+    }
+}
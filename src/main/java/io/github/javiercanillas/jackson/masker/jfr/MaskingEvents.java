@@ -0,0 +1,112 @@
+package io.github.javiercanillas.jackson.masker.jfr;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import jdk.jfr.EventType;
+import jdk.jfr.FlightRecorder;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Entry point to the Flight Recorder events of masking: {@link MaskedValueEvent}, timed around values written masked,
+ * and {@link SerializerSummaryEvent}, emitted periodically from counters of contextualized properties.
+ * <p>
+ * Nothing of {@code jdk.jfr} is touched unless the module is present on the runtime, so masking works the same on
+ * runtimes built without it, just without events. Counting is always on, it only happens when properties are
+ * contextualized, and value events are only allocated while a recording has them enabled.
+ */
+public final class MaskingEvents {
+    private static final LongAdder CREATED = new LongAdder();
+    private static final LongAdder REUSED = new LongAdder();
+    private static final boolean AVAILABLE = isAvailable();
+
+    private MaskingEvents() { }
+
+    /**
+     * A masked property was contextualized.
+     * @param reused whether its serializer was already built for another property
+     */
+    public static void contextualized(final boolean reused) {
+        (reused ? REUSED : CREATED).increment();
+    }
+
+    /**
+     * Start timing a masked value.
+     * @return the event to pass to {@link #endValue(Object)}, or null if no recording has it enabled, so there is
+     * nothing else to do.
+     */
+    public static Object beginValue() {
+        return AVAILABLE ? Recorder.beginValue() : null;
+    }
+
+    /**
+     * Stop timing a masked value.
+     * @param event value returned by {@link #beginValue()}, not null
+     * @return whether the event should be committed through {@link #commitValue(Object, Object, int, JsonGenerator)}
+     */
+    public static boolean endValue(final Object event) {
+        return Recorder.endValue(event);
+    }
+
+    /**
+     * Commit the event of a masked value.
+     * @param event value returned by {@link #beginValue()}, once {@link #endValue(Object)} returned true
+     * @param value value written
+     * @param inputLength characters of the value
+     * @param gen generator the value was written into
+     */
+    public static void commitValue(final Object event, final Object value, final int inputLength, final JsonGenerator gen) {
+        ((MaskedValueEvent) event).commit(value, inputLength, gen);
+    }
+
+    private static boolean isAvailable() {
+        if (ModuleLayer.boot().findModule("jdk.jfr").isEmpty()) {
+            return false;
+        }
+        try {
+            Recorder.register();
+            return true;
+        } catch (final LinkageError | SecurityException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Holder of everything linking {@code jdk.jfr}, only loaded once it is known to be present.
+     */
+    private static final class Recorder {
+        private static final EventType VALUE_TYPE = EventType.getEventType(MaskedValueEvent.class);
+
+        static {
+            FlightRecorder.addPeriodicEvent(SerializerSummaryEvent.class, Recorder::emitSummary);
+        }
+
+        private Recorder() { }
+
+        private static void register() {
+            // loading the class is enough
+        }
+
+        private static Object beginValue() {
+            if (!VALUE_TYPE.isEnabled()) {
+                return null;
+            }
+            final MaskedValueEvent event = new MaskedValueEvent();
+            event.begin();
+            return event;
+        }
+
+        private static boolean endValue(final Object event) {
+            final MaskedValueEvent valueEvent = (MaskedValueEvent) event;
+            valueEvent.end();
+            return valueEvent.shouldCommit();
+        }
+
+        private static void emitSummary() {
+            final SerializerSummaryEvent event = new SerializerSummaryEvent();
+            event.created = CREATED.sum();
+            event.reused = REUSED.sum();
+            event.contextualized = event.created + event.reused;
+            event.commit();
+        }
+    }
+}
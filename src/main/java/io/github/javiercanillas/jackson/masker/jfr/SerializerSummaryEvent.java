@@ -0,0 +1,34 @@
+package io.github.javiercanillas.jackson.masker.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Period;
+import jdk.jfr.StackTrace;
+
+/**
+ * Periodic Flight Recorder event summarizing masking serializers contextualized since the application started, see
+ * {@link MaskingEvents}.
+ */
+@Name(SerializerSummaryEvent.NAME)
+@Label("Masking Serializers Summary")
+@Description("Masking serializers contextualized since start")
+@Category({ "Jackson Masker" })
+@Period("60 s")
+@StackTrace(false)
+final class SerializerSummaryEvent extends jdk.jfr.Event {
+    static final String NAME = "io.github.javiercanillas.jackson.masker.SerializerSummary";
+
+    @Label("Contextualized")
+    @Description("Masked properties contextualized")
+    long contextualized;
+
+    @Label("Created")
+    @Description("Masking serializers created while contextualizing")
+    long created;
+
+    @Label("Reused")
+    @Description("Masking serializers reused from the JVM wide cache while contextualizing")
+    long reused;
+}
@@ -0,0 +1,10 @@
+package io.github.javiercanillas.jackson.masker.metrics;
+
+/**
+ * Holder of {@link MaskingMetrics#getDefault()}, interfaces cannot have mutable fields.
+ */
+final class DefaultMaskingMetrics {
+    static volatile MaskingMetrics instance;
+
+    private DefaultMaskingMetrics() { }
+}
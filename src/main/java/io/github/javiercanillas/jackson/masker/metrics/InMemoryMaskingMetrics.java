@@ -0,0 +1,115 @@
+package io.github.javiercanillas.jackson.masker.metrics;
+
+import lombok.Getter;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * {@link MaskingMetrics} keeping counters in memory, on {@link LongAdder}s so recording from many threads does not
+ * contend. Properties are named {@code SimpleDeclaringClassName.property}; {@link #snapshot()} returns their current
+ * values, to be scraped by whatever monitoring system is in use.
+ * <pre>
+ * InMemoryMaskingMetrics metrics = new InMemoryMaskingMetrics();
+ * MaskingMetrics.setDefault(metrics);
+ * ...
+ * metrics.snapshot().forEach((property, counters) -&gt; ...);
+ * </pre>
+ */
+public class InMemoryMaskingMetrics implements MaskingMetrics {
+
+    private final ConcurrentMap<String, Counters> properties = new ConcurrentHashMap<>();
+
+    @Override
+    public Recorder forProperty(final Class<?> declaringClass, final String property) {
+        final String name = declaringClass == null ? property : declaringClass.getSimpleName() + '.' + property;
+        return this.properties.computeIfAbsent(name, key -> new Counters());
+    }
+
+    /**
+     * @return current counters of every recorded property, sorted by name
+     */
+    public Map<String, PropertySnapshot> snapshot() {
+        final Map<String, PropertySnapshot> snapshot = new TreeMap<>();
+        this.properties.forEach((name, counters) -> snapshot.put(name, counters.snapshot()));
+        return Collections.unmodifiableMap(snapshot);
+    }
+
+    /**
+     * Set every counter back to zero. Values recorded while resetting might be lost.
+     */
+    public void reset() {
+        this.properties.values().forEach(Counters::reset);
+    }
+
+    private static final class Counters implements Recorder {
+        private final LongAdder masked = new LongAdder();
+        private final LongAdder characters = new LongAdder();
+        private final LongAdder passedThrough = new LongAdder();
+        private final LongAdder nanos = new LongAdder();
+
+        @Override
+        public void masked(final int characters, final long nanos) {
+            this.masked.increment();
+            this.characters.add(characters);
+            this.nanos.add(nanos);
+        }
+
+        @Override
+        public void passedThrough() {
+            this.passedThrough.increment();
+        }
+
+        private PropertySnapshot snapshot() {
+            return new PropertySnapshot(this.masked.sum(), this.characters.sum(), this.passedThrough.sum(),
+                    this.nanos.sum());
+        }
+
+        private void reset() {
+            this.masked.reset();
+            this.characters.reset();
+            this.passedThrough.reset();
+            this.nanos.reset();
+        }
+    }
+
+    /**
+     * Counters of a property at a given time.
+     */
+    @Getter
+    public static final class PropertySnapshot {
+        /**
+         * Quantity of values masked.
+         */
+        private final long masked;
+        /**
+         * Quantity of characters of the masked values.
+         */
+        private final long characters;
+        /**
+         * Quantity of values written as they are, since their type is not supported.
+         */
+        private final long passedThrough;
+        /**
+         * Time spent writing masked values, in nanoseconds.
+         */
+        private final long nanos;
+
+        PropertySnapshot(final long masked, final long characters, final long passedThrough, final long nanos) {
+            this.masked = masked;
+            this.characters = characters;
+            this.passedThrough = passedThrough;
+            this.nanos = nanos;
+        }
+
+        @Override
+        public String toString() {
+            return "PropertySnapshot{masked=" + this.masked + ", characters=" + this.characters + ", passedThrough="
+                    + this.passedThrough + ", nanos=" + this.nanos + '}';
+        }
+    }
+}
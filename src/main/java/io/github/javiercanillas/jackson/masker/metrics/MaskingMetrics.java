@@ -0,0 +1,75 @@
+package io.github.javiercanillas.jackson.masker.metrics;
+
+import com.fasterxml.jackson.databind.BeanProperty;
+import com.fasterxml.jackson.databind.introspect.AnnotatedMember;
+
+/**
+ * Optional instrumentation of masked properties. When a {@link #setDefault(MaskingMetrics) default} is set,
+ * {@link io.github.javiercanillas.jackson.masker.ser.MaskStringSerializer} asks it for one {@link Recorder} per masked
+ * property when it is contextualized, and records every value written through it. Without a default, nothing is
+ * recorded and the only cost is a null check.
+ * <p>
+ * Since recorders are resolved once per property and mapper, the default should be set before the first
+ * serialization. Values written outside a property (e.g. root values) are not recorded.
+ *
+ * @see InMemoryMaskingMetrics
+ */
+public interface MaskingMetrics {
+
+    /**
+     * Called once per masked property, when its serializer is contextualized. Implementations should return the same
+     * recorder for the same property, since it might be asked again by other mappers.
+     * @param declaringClass class declaring the property, or null if unknown (e.g. virtual properties)
+     * @param property name of the property
+     * @return recorder for the property, or null to not record it
+     */
+    Recorder forProperty(Class<?> declaringClass, String property);
+
+    /**
+     * @return metrics used by {@link io.github.javiercanillas.jackson.masker.ser.MaskStringSerializer}, or null if
+     * none.
+     */
+    static MaskingMetrics getDefault() {
+        return DefaultMaskingMetrics.instance;
+    }
+
+    /**
+     * Set the metrics used by {@link io.github.javiercanillas.jackson.masker.ser.MaskStringSerializer}.
+     * @param metrics metrics to use, or null to stop recording on properties contextualized from now on.
+     */
+    static void setDefault(final MaskingMetrics metrics) {
+        DefaultMaskingMetrics.instance = metrics;
+    }
+
+    /**
+     * @param property property to record, it might be null
+     * @return recorder for the given property from the {@link #getDefault() default} metrics, or null if there is
+     * nothing to record.
+     */
+    static Recorder recorderFor(final BeanProperty property) {
+        final MaskingMetrics metrics = DefaultMaskingMetrics.instance;
+        if (metrics == null || property == null) {
+            return null;
+        }
+        final AnnotatedMember member = property.getMember();
+        return metrics.forProperty(member == null ? null : member.getDeclaringClass(), property.getName());
+    }
+
+    /**
+     * Records values written through a masked property. Called on the serialization hot path, possibly from many
+     * threads at once, so implementations should be cheap and contention free.
+     */
+    interface Recorder {
+
+        /**
+         * @param characters quantity of characters of the masked value (sum of them for arrays, collections and maps)
+         * @param nanos time spent writing the masked value
+         */
+        void masked(int characters, long nanos);
+
+        /**
+         * A value which type is not supported was written as it is.
+         */
+        void passedThrough();
+    }
+}
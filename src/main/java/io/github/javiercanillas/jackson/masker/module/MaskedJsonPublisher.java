@@ -0,0 +1,369 @@
+package io.github.javiercanillas.jackson.masker.module;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Publisher of a masked json array of the given elements, as {@link ByteBuffer} chunks of a fixed size (the last one
+ * might be smaller), for collections too big to be serialized at once, i.e. as a reactive or virtual thread HTTP
+ * response body.
+ * <p>
+ * Elements are only serialized as the subscriber asks for chunks, so memory stays bounded by the chunk size (plus the
+ * biggest element) whatever the number of elements, and no thread is blocked while there is no demand. Serialization
+ * runs on the given executor, so elements may come from a blocking source like a database cursor.
+ * <p>
+ * Chunks are taken from a pool of buffers. Subscribers done with a chunk can give it back with {@link #release(ByteBuffer)}
+ * so it is reused for the next ones; chunks not released are just left to the garbage collector.
+ * <pre>
+ * MaskedJsonPublisher publisher = MaskedJsonPublisher.builder()
+ *         .mapper(mapper)
+ *         .elements(customers)
+ *         .build();
+ * HttpRequest request = HttpRequest.newBuilder(uri).POST(HttpRequest.BodyPublishers.fromPublisher(publisher)).build();
+ * </pre>
+ * Every subscriber gets the whole array, iterating the elements again, so single use iterables (like
+ * {@code stream::iterator}) can only be subscribed to once.
+ */
+public final class MaskedJsonPublisher implements Flow.Publisher<ByteBuffer> {
+
+    /**
+     * Default chunk size, in bytes.
+     */
+    public static final int DEFAULT_CHUNK_SIZE = 16 * 1024;
+    /**
+     * Default number of released chunks kept to be reused.
+     */
+    public static final int DEFAULT_POOL_SIZE = 16;
+
+    private final ObjectWriter writer;
+    private final Iterable<?> elements;
+    private final Executor executor;
+    private final int chunkSize;
+    private final BlockingQueue<ByteBuffer> pool;
+
+    private MaskedJsonPublisher(final Builder builder) {
+        this.writer = builder.writer;
+        this.elements = builder.elements;
+        this.executor = builder.executor;
+        this.chunkSize = builder.chunkSize;
+        this.pool = new ArrayBlockingQueue<>(builder.poolSize);
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    @Override
+    public void subscribe(final Flow.Subscriber<? super ByteBuffer> subscriber) {
+        Objects.requireNonNull(subscriber);
+        final ChunkSubscription subscription = new ChunkSubscription(subscriber);
+        subscriber.onSubscribe(subscription);
+    }
+
+    /**
+     * Give a chunk back to be reused. It must not be touched afterwards, nor released twice.
+     * @param chunk chunk emitted by this publisher
+     */
+    public void release(final ByteBuffer chunk) {
+        if (chunk != null && chunk.capacity() == this.chunkSize && !chunk.isReadOnly()) {
+            this.pool.offer(chunk.clear());
+        }
+    }
+
+    private ByteBuffer acquire() {
+        final ByteBuffer chunk = this.pool.poll();
+        return chunk != null ? chunk : ByteBuffer.allocate(this.chunkSize);
+    }
+
+    /**
+     * Subscription of a single subscriber, with its own generator and iteration.
+     * <p>
+     * Signals are serialized with a work-in-progress counter: whoever takes it from zero drains, on the executor,
+     * until there is neither demand nor anything to emit, so the subscriber is never called concurrently nor
+     * recursively from {@link #request(long)}.
+     */
+    private final class ChunkSubscription extends OutputStream implements Flow.Subscription {
+        private final Flow.Subscriber<? super ByteBuffer> subscriber;
+        private final AtomicLong requested = new AtomicLong();
+        private final AtomicInteger wip = new AtomicInteger();
+        private final ArrayDeque<ByteBuffer> ready = new ArrayDeque<>();
+        private volatile boolean cancelled;
+        private volatile Throwable invalidRequest;
+        // only touched while draining
+        private Iterator<?> iterator;
+        private JsonGenerator generator;
+        private ByteBuffer current;
+        private boolean finished;
+
+        private ChunkSubscription(final Flow.Subscriber<? super ByteBuffer> subscriber) {
+            this.subscriber = subscriber;
+        }
+
+        @Override
+        public void request(final long n) {
+            if (n <= 0) {
+                this.invalidRequest = new IllegalArgumentException("Parameter n must be positive, got " + n);
+            } else {
+                long current;
+                long next;
+                do {
+                    current = this.requested.get();
+                    next = current + n < 0 ? Long.MAX_VALUE : current + n;
+                } while (!this.requested.compareAndSet(current, next));
+            }
+            schedule();
+        }
+
+        @Override
+        public void cancel() {
+            this.cancelled = true;
+            schedule();
+        }
+
+        private void schedule() {
+            if (this.wip.getAndIncrement() == 0) {
+                executor.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            int missed = 1;
+            do {
+                final long demand = this.requested.get();
+                long emitted = 0;
+                try {
+                    while (!this.cancelled && this.invalidRequest == null) {
+                        if (this.iterator == null) {
+                            open();
+                        }
+                        if (emitted == demand) {
+                            break;
+                        }
+                        final ByteBuffer chunk = this.ready.poll();
+                        if (chunk != null) {
+                            this.subscriber.onNext(chunk);
+                            emitted++;
+                        } else if (this.finished) {
+                            break;
+                        } else {
+                            fill();
+                        }
+                    }
+                } catch (IOException | RuntimeException e) {
+                    terminate();
+                    this.subscriber.onError(e);
+                    return;
+                }
+                if (this.cancelled) {
+                    terminate();
+                    return;
+                }
+                if (this.invalidRequest != null) {
+                    terminate();
+                    this.subscriber.onError(this.invalidRequest);
+                    return;
+                }
+                if (this.finished && this.ready.isEmpty()) {
+                    terminate();
+                    this.subscriber.onComplete();
+                    return;
+                }
+                if (emitted != 0 && demand != Long.MAX_VALUE) {
+                    this.requested.addAndGet(-emitted);
+                }
+                missed = this.wip.addAndGet(-missed);
+            } while (missed != 0);
+        }
+
+        private void open() throws IOException {
+            this.iterator = elements.iterator();
+            this.generator = writer.createGenerator(this, JsonEncoding.UTF8);
+            this.generator.writeStartArray();
+            if (!this.iterator.hasNext()) {
+                finish();
+            }
+        }
+
+        /**
+         * Serialize elements until a chunk is ready or they are over.
+         */
+        private void fill() throws IOException {
+            while (this.ready.isEmpty() && this.iterator.hasNext()) {
+                writer.writeValue(this.generator, this.iterator.next());
+            }
+            if (this.ready.isEmpty()) {
+                finish();
+            }
+        }
+
+        private void finish() throws IOException {
+            this.generator.writeEndArray();
+            this.generator.close();
+            if (this.current != null && this.current.position() > 0) {
+                this.ready.add(this.current.flip());
+                this.current = null;
+            }
+            this.finished = true;
+        }
+
+        /**
+         * Release buffers and the generator. The work-in-progress counter is never decremented afterwards, so nothing
+         * gets drained again.
+         */
+        private void terminate() {
+            if (this.current != null) {
+                release(this.current);
+                this.current = null;
+            }
+            for (ByteBuffer chunk = this.ready.poll(); chunk != null; chunk = this.ready.poll()) {
+                release(chunk);
+            }
+            if (this.generator != null && !this.generator.isClosed()) {
+                try {
+                    this.generator.close();
+                } catch (IOException | RuntimeException e) {
+                    // nothing else to do, the subscriber is gone or already notified
+                }
+            }
+        }
+
+        @Override
+        public void write(final int b) {
+            if (this.current == null) {
+                this.current = acquire();
+            }
+            this.current.put((byte) b);
+            cut();
+        }
+
+        @Override
+        public void write(final byte[] b, final int off, final int len) {
+            int offset = off;
+            int remaining = len;
+            while (remaining > 0) {
+                if (this.current == null) {
+                    this.current = acquire();
+                }
+                final int length = Math.min(remaining, this.current.remaining());
+                this.current.put(b, offset, length);
+                offset += length;
+                remaining -= length;
+                cut();
+            }
+        }
+
+        private void cut() {
+            if (!this.current.hasRemaining()) {
+                this.ready.add(this.current.flip());
+                this.current = null;
+            }
+        }
+    }
+
+    /**
+     * Builder of {@link MaskedJsonPublisher}.
+     */
+    public static class Builder {
+        private ObjectWriter writer;
+        private Iterable<?> elements;
+        private Executor executor = ForkJoinPool.commonPool();
+        private int chunkSize = DEFAULT_CHUNK_SIZE;
+        private int poolSize = DEFAULT_POOL_SIZE;
+
+        protected Builder() { }
+
+        /**
+         * Serialize elements with a {@link MaskedWriters masked writer} of the given mapper.
+         * @param mapper mapper to copy configuration from
+         * @return this builder
+         */
+        public Builder mapper(final ObjectMapper mapper) {
+            return writer(MaskedWriters.of(mapper));
+        }
+
+        /**
+         * Serialize elements with the given writer, i.e. {@code mapper.writerWithView(Masked.class)}.
+         * @param writer writer to use
+         * @return this builder
+         */
+        public Builder writer(final ObjectWriter writer) {
+            this.writer = Objects.requireNonNull(writer);
+            return this;
+        }
+
+        /**
+         * @param elements elements of the array, iterated once per subscriber
+         * @return this builder
+         */
+        public Builder elements(final Iterable<?> elements) {
+            this.elements = Objects.requireNonNull(elements);
+            return this;
+        }
+
+        /**
+         * Executor serializing elements and signalling subscribers. Defaults to {@link ForkJoinPool#commonPool()}; use
+         * a virtual thread (or dedicated) executor if elements come from a blocking source.
+         * @param executor executor to use
+         * @return this builder
+         */
+        public Builder executor(final Executor executor) {
+            this.executor = Objects.requireNonNull(executor);
+            return this;
+        }
+
+        /**
+         * Size of the emitted chunks. Defaults to {@link #DEFAULT_CHUNK_SIZE}.
+         * @param chunkSize chunk size in bytes
+         * @return this builder
+         * @throws IllegalArgumentException if {@code chunkSize} is less than 1.
+         */
+        public Builder chunkSize(final int chunkSize) {
+            if (chunkSize < 1) {
+                throw new IllegalArgumentException("Parameter chunkSize cannot be less than One.");
+            }
+            this.chunkSize = chunkSize;
+            return this;
+        }
+
+        /**
+         * Released chunks kept to be reused. Defaults to {@link #DEFAULT_POOL_SIZE}.
+         * @param poolSize pool size
+         * @return this builder
+         * @throws IllegalArgumentException if {@code poolSize} is less than 1.
+         */
+        public Builder poolSize(final int poolSize) {
+            if (poolSize < 1) {
+                throw new IllegalArgumentException("Parameter poolSize cannot be less than One.");
+            }
+            this.poolSize = poolSize;
+            return this;
+        }
+
+        /**
+         * @return the publisher
+         * @throws IllegalStateException if no writer (or mapper) or elements were given.
+         */
+        public MaskedJsonPublisher build() {
+            if (this.writer == null || this.elements == null) {
+                throw new IllegalStateException("Both a writer (or mapper) and elements are required.");
+            }
+            return new MaskedJsonPublisher(this);
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package io.github.javiercanillas.jackson.masker.module;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import io.github.javiercanillas.jackson.masker.view.Masked;
+
+/**
+ * Factory of masked {@link ObjectWriter}s, an alternative to {@code mapper.writerWithView(Masked.class)}.
+ * <p>
+ * Writers are backed by a copy of the given mapper with an {@link MaskerModule#alwaysMasking() always masking}
+ * {@link MaskerModule} registered, so:
+ * <ul>
+ *     <li>the masking decision is taken once, when serializers are built, instead of checking the active view for
+ *     every masked value.</li>
+ *     <li>the copy has its own serializer cache, so masked and unmasked traffic don't compete for the same cache
+ *     entries.</li>
+ * </ul>
+ * Since the mapper is copied, later configuration changes on it are not seen by writers already built. Building a
+ * writer is as expensive as copying a mapper: build it once and keep it.
+ */
+public final class MaskedWriters {
+
+    private MaskedWriters() { }
+
+    /**
+     * Build a masked writer for the given mapper, masking {@link io.github.javiercanillas.jackson.masker.annotation.MaskString}
+     * annotated properties.
+     * @param mapper mapper to copy configuration from
+     * @return the masked writer
+     */
+    public static ObjectWriter of(final ObjectMapper mapper) {
+        return of(mapper, new MaskerModule());
+    }
+
+    /**
+     * Build a masked writer for the given mapper, masking annotated properties and the ones matching the given module
+     * rules.
+     * @param mapper mapper to copy configuration from
+     * @param module module with rules and mix-ins to apply
+     * @return the masked writer
+     */
+    public static ObjectWriter of(final ObjectMapper mapper, final MaskerModule module) {
+        final MaskerModule alwaysMasking = module.isViewDependent() ? module.alwaysMasking() : module;
+        return mapper.copy()
+                .registerModule(alwaysMasking)
+                .writerWithView(Masked.class);
+    }
+}
@@ -0,0 +1,132 @@
+package io.github.javiercanillas.jackson.masker.module;
+
+import com.fasterxml.jackson.databind.BeanDescription;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializationConfig;
+import com.fasterxml.jackson.databind.ser.BeanPropertyWriter;
+import com.fasterxml.jackson.databind.ser.BeanSerializerBuilder;
+import com.fasterxml.jackson.databind.ser.BeanSerializerModifier;
+import com.fasterxml.jackson.databind.ser.impl.FilteredBeanPropertyWriter;
+import io.github.javiercanillas.jackson.masker.MaskSpec;
+import io.github.javiercanillas.jackson.masker.rules.MaskingRules;
+import io.github.javiercanillas.jackson.masker.ser.MaskStringSerializer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Splits every masked property of a bean serializer into an unmasked writer, used when no view is active, and a
+ * {@link MaskingPropertyWriter}, installed as the view filtered writer of the property. Properties matched by path
+ * dependent {@link MaskingRules} get a {@link PathMaskingPropertyWriter} instead. When rules might be reloaded, any
+ * property not masked by an annotation or a class rule might be matched later on, so it gets a
+ * {@link ReloadingPropertyWriter}.
+ */
+class MaskerBeanSerializerModifier extends BeanSerializerModifier {
+    private static final long serialVersionUID = 1L;
+
+    private final transient Map<Class<?>, Map<String, MaskSpec>> rules;
+    private final transient Supplier<MaskingRules> namedRules;
+    private final boolean reloadable;
+    private final boolean viewDependent;
+
+    /**
+     * @param rules programmatic rules, by class and property name
+     * @param namedRules rules by property name or path
+     * @param reloadable if false, named rules are looked up once per bean serializer; if true, writers look at the
+     *                   current rules for every value
+     * @param viewDependent if false, masked writers mask whatever the active view is, and they are installed as the
+     *                     writers used when no view is active too
+     */
+    MaskerBeanSerializerModifier(final Map<Class<?>, Map<String, MaskSpec>> rules,
+                                 final Supplier<MaskingRules> namedRules, final boolean reloadable,
+                                 final boolean viewDependent) {
+        this.rules = rules;
+        this.namedRules = namedRules;
+        this.reloadable = reloadable;
+        this.viewDependent = viewDependent;
+    }
+
+    @Override
+    public BeanSerializerBuilder updateBuilder(final SerializationConfig config, final BeanDescription beanDesc,
+                                              final BeanSerializerBuilder builder) {
+        final List<BeanPropertyWriter> properties = builder.getProperties();
+        final BeanPropertyWriter[] filtered = builder.getFilteredProperties();
+        List<BeanPropertyWriter> newProperties = null;
+        BeanPropertyWriter[] newFiltered = null;
+        // same snapshot for the whole bean, unless it might be reloaded
+        final MaskingRules named = this.reloadable ? null : this.namedRules.get();
+
+        for (int i = 0; i < properties.size(); i++) {
+            final BeanPropertyWriter writer = properties.get(i);
+            if (writer instanceof MaskingPropertyWriter || writer instanceof ReloadingPropertyWriter) {
+                // already taken care of by another instance of this module
+                continue;
+            }
+            final JsonSerializer<Object> serializer = writer.getSerializer();
+            final MaskSpec spec = serializer instanceof MaskStringSerializer
+                    ? ((MaskStringSerializer) serializer).getSpec()
+                    : ruleFor(beanDesc.getBeanClass(), writer.getName());
+            final BeanPropertyWriter unmasked = serializer instanceof MaskStringSerializer
+                    ? new UnmaskedPropertyWriter(writer, ((MaskStringSerializer) serializer).getNonMaskerSerializer())
+                    : writer;
+            final BeanPropertyWriter masked;
+            if (spec != null) {
+                masked = new MaskingPropertyWriter(unmasked, spec, this.viewDependent ? unmasked : null);
+            } else if (this.reloadable) {
+                masked = new ReloadingPropertyWriter(unmasked, this.namedRules, this.viewDependent);
+            } else {
+                masked = namedWriter(unmasked, named, this.viewDependent);
+                if (masked == null) {
+                    continue;
+                }
+            }
+            if (newProperties == null) {
+                newProperties = new ArrayList<>(properties);
+                newFiltered = filtered == null ? properties.toArray(new BeanPropertyWriter[0]) : filtered.clone();
+            }
+            newProperties.set(i, this.viewDependent ? unmasked : masked);
+            if (filtered == null || filtered[i] != null) {
+                newFiltered[i] = writer.getViews() == null ? masked
+                        : FilteredBeanPropertyWriter.constructViewBased(masked, writer.getViews());
+            }
+        }
+
+        if (newProperties != null) {
+            builder.setProperties(newProperties);
+            builder.setFilteredProperties(newFiltered);
+        }
+        return builder;
+    }
+
+    /**
+     * @param plain plain writer of the property
+     * @param rules rules by property name or path
+     * @param viewDependent if true, the writer only masks while the
+     *                      {@link io.github.javiercanillas.jackson.masker.view.Masked} view is active
+     * @return the writer masking the property as {@code rules} say, or null if no rule matches it
+     */
+    static BeanPropertyWriter namedWriter(final BeanPropertyWriter plain, final MaskingRules rules,
+                                          final boolean viewDependent) {
+        final String name = plain.getName();
+        if (!rules.mightMatch(name)) {
+            return null;
+        }
+        if (rules.isPathDependent(name)) {
+            return new PathMaskingPropertyWriter(plain, rules, viewDependent);
+        }
+        final MaskSpec spec = rules.find(name, null);
+        return spec == null ? null : new MaskingPropertyWriter(plain, spec, viewDependent ? plain : null);
+    }
+
+    private MaskSpec ruleFor(final Class<?> beanClass, final String property) {
+        for (Class<?> type = beanClass; type != null && type != Object.class; type = type.getSuperclass()) {
+            final Map<String, MaskSpec> properties = this.rules.get(type);
+            if (properties != null && properties.containsKey(property)) {
+                return properties.get(property);
+            }
+        }
+        return null;
+    }
+}
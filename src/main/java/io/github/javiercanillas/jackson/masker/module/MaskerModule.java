@@ -0,0 +1,207 @@
+package io.github.javiercanillas.jackson.masker.module;
+
+import com.fasterxml.jackson.core.Version;
+import com.fasterxml.jackson.databind.Module;
+import io.github.javiercanillas.jackson.masker.MaskSpec;
+import io.github.javiercanillas.jackson.masker.rules.MaskingRules;
+import io.github.javiercanillas.jackson.masker.rules.ReloadableMaskingRules;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * Jackson {@link Module} that installs masking through a {@link com.fasterxml.jackson.databind.ser.BeanSerializerModifier}
+ * rather than leaving every masked property wrapped by {@link io.github.javiercanillas.jackson.masker.ser.MaskStringSerializer}.
+ * <p>
+ * For each property annotated with {@link io.github.javiercanillas.jackson.masker.annotation.MaskString} (directly or
+ * through a mix-in), matching a programmatic rule or matching {@link MaskingRules} by name or path, the bean
+ * serializer ends up with two writers resolved once:
+ * <ul>
+ *     <li>the one used when no view is active, which writes with the plain serializer of the property, without any
+ *     masking wrapper or view check.</li>
+ *     <li>the one used when a view is active, which masks if that view is
+ *     {@link io.github.javiercanillas.jackson.masker.view.Masked}.</li>
+ * </ul>
+ * Usage:
+ * <pre>
+ * ObjectMapper mapper = new ObjectMapper().registerModule(MaskerModule.builder()
+ *         .rule(ThirdPartyDto.class, "email", MaskSpec.of(1, 4, '*'))
+ *         .mixIn(OtherDto.class, OtherDtoMaskMixIn.class)
+ *         .rules(MaskingRules.builder().rule("email", MaskSpec.DEFAULTS).rule("*.cardNumber", MaskSpec.of(0, 4, '*')).build())
+ *         .build());
+ * </pre>
+ * When rules are {@link ReloadableMaskingRules}, properties not masked by annotations or class rules check the current
+ * rules on every value, and are set up again when they changed, so reloads apply to every mapper and writer using the
+ * module, copies included.
+ */
+public class MaskerModule extends Module {
+
+    private static final Supplier<MaskingRules> NO_NAMED_RULES = new FixedRules(MaskingRules.EMPTY);
+
+    private final Map<Class<?>, Map<String, MaskSpec>> rules;
+    private final Map<Class<?>, Class<?>> mixIns;
+    private final Supplier<MaskingRules> namedRules;
+    private final boolean viewDependent;
+
+    /**
+     * Module masking annotated properties only.
+     */
+    public MaskerModule() {
+        this(Collections.emptyMap(), Collections.emptyMap(), true);
+    }
+
+    protected MaskerModule(final Map<Class<?>, Map<String, MaskSpec>> rules, final Map<Class<?>, Class<?>> mixIns,
+                           final boolean viewDependent) {
+        this(rules, mixIns, NO_NAMED_RULES, viewDependent);
+    }
+
+    protected MaskerModule(final Map<Class<?>, Map<String, MaskSpec>> rules, final Map<Class<?>, Class<?>> mixIns,
+                           final Supplier<MaskingRules> namedRules, final boolean viewDependent) {
+        this.rules = rules;
+        this.mixIns = mixIns;
+        this.namedRules = namedRules;
+        this.viewDependent = viewDependent;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Same module, with the same rules and mix-ins, but masking whatever the active view is, or if there is none.
+     * It is meant for mappers used only to write masked output, see {@link MaskedWriters}.
+     * @return the always masking module
+     */
+    public MaskerModule alwaysMasking() {
+        return new MaskerModule(this.rules, this.mixIns, this.namedRules, false);
+    }
+
+    public boolean isViewDependent() {
+        return this.viewDependent;
+    }
+
+    @Override
+    public String getModuleName() {
+        return getClass().getSimpleName();
+    }
+
+    /**
+     * Jackson skips modules whose type id was already registered on the mapper. The id includes the flavour, rules and
+     * mix-ins, so only registering an equal module twice is skipped, and modules with different rules all apply.
+     * @return the id of the module
+     */
+    @Override
+    public Object getTypeId() {
+        return Arrays.asList(super.getTypeId(), this.viewDependent, this.rules, this.mixIns, this.namedRules);
+    }
+
+    @Override
+    public Version version() {
+        return Version.unknownVersion();
+    }
+
+    @Override
+    public void setupModule(final SetupContext context) {
+        this.mixIns.forEach(context::setMixInAnnotations);
+        // rules other than fixed ones might change, so they are checked by serializers instead of dropping them from
+        // caches: copies of the mapper and writers have their own
+        context.addBeanSerializerModifier(new MaskerBeanSerializerModifier(this.rules, this.namedRules,
+                !(this.namedRules instanceof FixedRules), this.viewDependent));
+    }
+
+    /**
+     * Rules given as they are, equal if their patterns are, so they can be part of {@link #getTypeId()}.
+     */
+    private static final class FixedRules implements Supplier<MaskingRules> {
+        private final MaskingRules rules;
+
+        private FixedRules(final MaskingRules rules) {
+            this.rules = rules;
+        }
+
+        @Override
+        public MaskingRules get() {
+            return this.rules;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            return o instanceof FixedRules && this.rules.getPatterns().equals(((FixedRules) o).rules.getPatterns());
+        }
+
+        @Override
+        public int hashCode() {
+            return this.rules.getPatterns().hashCode();
+        }
+    }
+
+    /**
+     * Builder of {@link MaskerModule} with rules for classes that cannot be annotated.
+     */
+    public static class Builder {
+        private final Map<Class<?>, Map<String, MaskSpec>> rules = new HashMap<>();
+        private final Map<Class<?>, Class<?>> mixIns = new LinkedHashMap<>();
+        private Supplier<MaskingRules> namedRules = NO_NAMED_RULES;
+
+        protected Builder() { }
+
+        /**
+         * Mask the given property of {@code type} (and its subclasses) with {@code spec}. Annotations take precedence
+         * over rules.
+         * @param type class declaring the property
+         * @param property property name, as written on the json output
+         * @param spec masking parameters
+         * @return this builder
+         */
+        public Builder rule(final Class<?> type, final String property, final MaskSpec spec) {
+            this.rules.computeIfAbsent(type, key -> new HashMap<>()).put(property, spec);
+            return this;
+        }
+
+        /**
+         * Register a mix-in, so {@link io.github.javiercanillas.jackson.masker.annotation.MaskString} annotations
+         * declared on {@code mixIn} apply to {@code target}.
+         * @param target class to add annotations to
+         * @param mixIn class declaring the annotations
+         * @return this builder
+         */
+        public Builder mixIn(final Class<?> target, final Class<?> mixIn) {
+            this.mixIns.put(target, mixIn);
+            return this;
+        }
+
+        /**
+         * Mask properties matching the given name or path rules, whatever class declares them. Annotations and class
+         * rules take precedence over them.
+         * @param rules rules by property name or path
+         * @return this builder
+         */
+        public Builder rules(final MaskingRules rules) {
+            this.namedRules = new FixedRules(Objects.requireNonNull(rules));
+            return this;
+        }
+
+        /**
+         * Same as {@link #rules(MaskingRules)}, with rules that might be reloaded: serializers look at the current
+         * rules for every value, and apply new ones as soon as they are reloaded.
+         * @param rules reloadable rules by property name or path
+         * @return this builder
+         */
+        public Builder rules(final ReloadableMaskingRules rules) {
+            this.namedRules = Objects.requireNonNull(rules);
+            return this;
+        }
+
+        public MaskerModule build() {
+            final Map<Class<?>, Map<String, MaskSpec>> copy = new HashMap<>();
+            this.rules.forEach((type, properties) -> copy.put(type, Map.copyOf(properties)));
+            return new MaskerModule(Map.copyOf(copy), Collections.unmodifiableMap(new LinkedHashMap<>(this.mixIns)),
+                    this.namedRules, true);
+        }
+    }
+}
@@ -0,0 +1,273 @@
+package io.github.javiercanillas.jackson.masker.module;
+
+import com.fasterxml.jackson.databind.BeanDescription;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationConfig;
+import com.fasterxml.jackson.databind.introspect.BeanPropertyDefinition;
+import com.fasterxml.jackson.databind.ser.DefaultSerializerProvider;
+import io.github.javiercanillas.jackson.masker.view.Masked;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Modifier;
+import java.net.JarURLConnection;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Enumeration;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.stream.Stream;
+
+/**
+ * Resolves serializers ahead of traffic, so the first masked requests after a deploy don't pay for
+ * {@code createContextual}, {@code findValueSerializer} and masking wrappers of every annotated property.
+ * <p>
+ * Starting from the given root types (or every class found in the given packages), bean properties are walked
+ * recursively, including element, key and value types of containers, and their serializers resolved both with no
+ * active view and with {@link Masked}. Serializers end up in the shared cache of the mapper, so later
+ * {@code writeValueAsString} and {@code writerWithView(Masked.class)} calls find them there.
+ * <pre>
+ * MaskerWarmup.Report report = MaskerWarmup.warmUp(mapper, Order.class, Customer.class);
+ * log.info("serializers warmed up: {}", report);
+ * </pre>
+ * Types resolved at runtime from the actual value, like properties declared as {@code Object} or as an interface, can
+ * only be warmed up if listed as root types as well.
+ */
+public final class MaskerWarmup {
+
+    private static final String CLASS_SUFFIX = ".class";
+
+    private MaskerWarmup() { }
+
+    /**
+     * Warm up serializers of the given root types.
+     * @param mapper mapper to warm up
+     * @param types root types
+     * @return figures about the warm-up
+     */
+    public static Report warmUp(final ObjectMapper mapper, final Class<?>... types) {
+        return warmUp(mapper, Arrays.asList(types));
+    }
+
+    /**
+     * Warm up serializers of the given root types.
+     * @param mapper mapper to warm up
+     * @param types root types
+     * @return figures about the warm-up
+     */
+    public static Report warmUp(final ObjectMapper mapper, final Collection<Class<?>> types) {
+        final long start = System.nanoTime();
+        final DefaultSerializerProvider unmasked = provider(mapper, mapper.getSerializationConfig().withView(null));
+        final DefaultSerializerProvider masked = provider(mapper, mapper.getSerializationConfig().withView(Masked.class));
+        final int cachedBefore = unmasked.cachedSerializersCount();
+
+        final Set<JavaType> visited = new LinkedHashSet<>();
+        final Map<JavaType, String> failures = new LinkedHashMap<>();
+        final Deque<JavaType> pending = new ArrayDeque<>();
+        types.forEach(type -> pending.add(mapper.constructType(type)));
+        while (!pending.isEmpty()) {
+            final JavaType type = pending.poll();
+            if (!visited.add(type)) {
+                continue;
+            }
+            try {
+                unmasked.findTypedValueSerializer(type, true, null);
+                masked.findTypedValueSerializer(type, true, null);
+            } catch (JsonMappingException | RuntimeException e) {
+                failures.put(type, e.getMessage());
+                continue;
+            }
+            pending.addAll(referencedTypes(mapper.getSerializationConfig(), type));
+        }
+
+        return new Report(visited.size(), unmasked.cachedSerializersCount() - cachedBefore, System.nanoTime() - start,
+                failures);
+    }
+
+    /**
+     * Warm up serializers of every concrete class found on the given packages (and their sub-packages) with the
+     * context class loader.
+     * @param mapper mapper to warm up
+     * @param packageNames packages to scan, like {@code com.example.dto}
+     * @return figures about the warm-up
+     */
+    public static Report warmUpPackages(final ObjectMapper mapper, final String... packageNames) {
+        ClassLoader loader = Thread.currentThread().getContextClassLoader();
+        if (loader == null) {
+            loader = MaskerWarmup.class.getClassLoader();
+        }
+        final List<Class<?>> types = new ArrayList<>();
+        for (final String packageName : packageNames) {
+            types.addAll(scan(loader, packageName));
+        }
+        return warmUp(mapper, types);
+    }
+
+    private static DefaultSerializerProvider provider(final ObjectMapper mapper, final SerializationConfig config) {
+        return ((DefaultSerializerProvider) mapper.getSerializerProvider())
+                .createInstance(config, mapper.getSerializerFactory());
+    }
+
+    private static List<JavaType> referencedTypes(final SerializationConfig config, final JavaType type) {
+        if (type.isContainerType() || type.isReferenceType()) {
+            final List<JavaType> types = new ArrayList<>(2);
+            if (type.getKeyType() != null) {
+                types.add(type.getKeyType());
+            }
+            if (type.getContentType() != null) {
+                types.add(type.getContentType());
+            }
+            return types;
+        }
+        if (!isBean(type)) {
+            return Collections.emptyList();
+        }
+        final BeanDescription description = config.introspect(type);
+        final List<JavaType> types = new ArrayList<>();
+        for (final BeanPropertyDefinition property : description.findProperties()) {
+            if (property.couldSerialize()) {
+                types.add(property.getPrimaryType());
+            }
+        }
+        return types;
+    }
+
+    private static boolean isBean(final JavaType type) {
+        final Class<?> raw = type.getRawClass();
+        return !raw.isPrimitive() && !raw.isEnum() && !raw.isArray() && raw != Object.class
+                && !raw.getName().startsWith("java.") && !raw.getName().startsWith("javax.");
+    }
+
+    private static List<Class<?>> scan(final ClassLoader loader, final String packageName) {
+        final String path = packageName.replace('.', '/');
+        final List<String> classNames = new ArrayList<>();
+        try {
+            final Enumeration<URL> resources = loader.getResources(path);
+            while (resources.hasMoreElements()) {
+                final URL resource = resources.nextElement();
+                if ("file".equals(resource.getProtocol())) {
+                    scanDirectory(Paths.get(resource.toURI()), packageName, classNames);
+                } else if ("jar".equals(resource.getProtocol())) {
+                    scanJar((JarURLConnection) resource.openConnection(), path, classNames);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (URISyntaxException e) {
+            throw new IllegalArgumentException("Cannot scan package " + packageName, e);
+        }
+
+        final List<Class<?>> types = new ArrayList<>(classNames.size());
+        for (final String className : classNames) {
+            try {
+                final Class<?> type = Class.forName(className, false, loader);
+                if (!type.isInterface() && !type.isAnnotation() && !type.isAnonymousClass()
+                        && !Modifier.isAbstract(type.getModifiers())) {
+                    types.add(type);
+                }
+            } catch (ClassNotFoundException | LinkageError e) {
+                // not loadable on its own, e.g. missing optional dependencies
+            }
+        }
+        return types;
+    }
+
+    private static void scanDirectory(final Path directory, final String packageName, final List<String> classNames)
+            throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.filter(file -> file.toString().endsWith(CLASS_SUFFIX))
+                    .map(file -> directory.relativize(file).toString().replace(File.separatorChar, '.'))
+                    .map(name -> packageName + '.' + name.substring(0, name.length() - CLASS_SUFFIX.length()))
+                    .filter(MaskerWarmup::isCandidate)
+                    .forEach(classNames::add);
+        }
+    }
+
+    private static void scanJar(final JarURLConnection connection, final String path, final List<String> classNames)
+            throws IOException {
+        connection.setUseCaches(false);
+        try (JarFile jar = connection.getJarFile()) {
+            final Enumeration<JarEntry> entries = jar.entries();
+            while (entries.hasMoreElements()) {
+                final String name = entries.nextElement().getName();
+                if (name.startsWith(path + '/') && name.endsWith(CLASS_SUFFIX)) {
+                    final String className = name.substring(0, name.length() - CLASS_SUFFIX.length()).replace('/', '.');
+                    if (isCandidate(className)) {
+                        classNames.add(className);
+                    }
+                }
+            }
+        }
+    }
+
+    private static boolean isCandidate(final String className) {
+        return !className.endsWith("package-info") && !className.endsWith("module-info");
+    }
+
+    /**
+     * Figures about a warm-up.
+     */
+    public static final class Report {
+        private final int types;
+        private final int serializersCreated;
+        private final long elapsedNanos;
+        private final Map<JavaType, String> failures;
+
+        private Report(final int types, final int serializersCreated, final long elapsedNanos,
+                       final Map<JavaType, String> failures) {
+            this.types = types;
+            this.serializersCreated = serializersCreated;
+            this.elapsedNanos = elapsedNanos;
+            this.failures = Collections.unmodifiableMap(failures);
+        }
+
+        /**
+         * @return types walked, root ones included
+         */
+        public int getTypes() {
+            return this.types;
+        }
+
+        /**
+         * @return serializers added to the shared cache of the mapper
+         */
+        public int getSerializersCreated() {
+            return this.serializersCreated;
+        }
+
+        public long getElapsedNanos() {
+            return this.elapsedNanos;
+        }
+
+        /**
+         * @return types whose serializer could not be resolved, with the reason
+         */
+        public Map<JavaType, String> getFailures() {
+            return this.failures;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT, "%d types walked, %d serializers created in %.3f ms, %d failures",
+                    this.types, this.serializersCreated, this.elapsedNanos / 1e6d, this.failures.size());
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package io.github.javiercanillas.jackson.masker.module;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.PropertyName;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.BeanPropertyWriter;
+import com.fasterxml.jackson.databind.ser.impl.PropertySerializerMap;
+import com.fasterxml.jackson.databind.util.NameTransformer;
+import io.github.javiercanillas.jackson.masker.MaskSpec;
+import io.github.javiercanillas.jackson.masker.metrics.MaskingMetrics;
+import io.github.javiercanillas.jackson.masker.ser.MaskStringSerializer;
+import io.github.javiercanillas.jackson.masker.view.Masked;
+
+/**
+ * Property writer that always masks its values with a {@link MaskStringSerializer} wrapping the property serializer,
+ * whether it is known upfront, assigned when the bean serializer is resolved, or found for each runtime type.
+ * <p>
+ * When built with an unmasked writer, it is meant to be used only while a view is active, and it writes through the
+ * unmasked one unless that view is {@link Masked}.
+ */
+class MaskingPropertyWriter extends BeanPropertyWriter {
+    private static final long serialVersionUID = 1L;
+
+    private final MaskSpec spec;
+    private final BeanPropertyWriter unmasked;
+
+    MaskingPropertyWriter(final BeanPropertyWriter base, final MaskSpec spec, final BeanPropertyWriter unmasked) {
+        super(base);
+        this.spec = spec;
+        this.unmasked = unmasked;
+        this._serializer = base.getSerializer() == null ? null : masking(base.getSerializer());
+    }
+
+    private MaskingPropertyWriter(final MaskingPropertyWriter base, final PropertyName name) {
+        super(base, name);
+        this.spec = base.spec;
+        this.unmasked = base.unmasked == null ? null : base.unmasked.rename(new NameTransformer() {
+            @Override
+            public String transform(final String original) {
+                return name.getSimpleName();
+            }
+
+            @Override
+            public String reverse(final String transformed) {
+                return null;
+            }
+        });
+    }
+
+    @Override
+    protected BeanPropertyWriter _new(final PropertyName newName) {
+        return new MaskingPropertyWriter(this, newName);
+    }
+
+    @Override
+    public void assignSerializer(final JsonSerializer<Object> ser) {
+        super.assignSerializer(ser == null ? null : masking(ser));
+    }
+
+    @Override
+    public void serializeAsField(final Object bean, final JsonGenerator gen, final SerializerProvider prov) throws Exception {
+        if (this.unmasked != null && !Masked.isEnabled(prov)) {
+            this.unmasked.serializeAsField(bean, gen, prov);
+        } else {
+            super.serializeAsField(bean, gen, prov);
+        }
+    }
+
+    @Override
+    public void serializeAsElement(final Object bean, final JsonGenerator gen, final SerializerProvider prov) throws Exception {
+        if (this.unmasked != null && !Masked.isEnabled(prov)) {
+            this.unmasked.serializeAsElement(bean, gen, prov);
+        } else {
+            super.serializeAsElement(bean, gen, prov);
+        }
+    }
+
+    @Override
+    protected JsonSerializer<Object> _findAndAddDynamic(final PropertySerializerMap map, final Class<?> type,
+                                                        final SerializerProvider provider) throws JsonMappingException {
+        final JavaType valueType = this._nonTrivialBaseType != null
+                ? provider.constructSpecializedType(this._nonTrivialBaseType, type)
+                : provider.constructType(type);
+        final JsonSerializer<Object> serializer = masking(provider.findPrimaryPropertySerializer(valueType, this));
+        this._dynamicSerializers = map.newWith(type, serializer);
+        return serializer;
+    }
+
+    private JsonSerializer<Object> masking(final JsonSerializer<Object> serializer) {
+        if (serializer instanceof MaskStringSerializer) {
+            final MaskStringSerializer maskStringSerializer = (MaskStringSerializer) serializer;
+            return maskStringSerializer.isViewDependent()
+                    ? new MaskStringSerializer(maskStringSerializer.getNonMaskerSerializer(), this.spec, false,
+                            MaskingMetrics.recorderFor(this))
+                    : maskStringSerializer;
+        }
+        return new MaskStringSerializer(serializer, this.spec, false, MaskingMetrics.recorderFor(this));
+    }
+}
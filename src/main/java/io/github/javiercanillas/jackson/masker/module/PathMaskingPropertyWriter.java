@@ -0,0 +1,112 @@
+package io.github.javiercanillas.jackson.masker.module;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.PropertyName;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.BeanPropertyWriter;
+import com.fasterxml.jackson.databind.util.NameTransformer;
+import io.github.javiercanillas.jackson.masker.MaskSpec;
+import io.github.javiercanillas.jackson.masker.rules.MaskingRules;
+import io.github.javiercanillas.jackson.masker.view.Masked;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Property writer for properties whose {@link MaskingRules} depend on the path they are written at, like
+ * {@code customer.email}. The path is taken from the output context of the generator for every value, and values are
+ * written through a {@link MaskingPropertyWriter} per matching spec, or through the plain writer if no rule matches.
+ */
+class PathMaskingPropertyWriter extends BeanPropertyWriter {
+    private static final long serialVersionUID = 1L;
+
+    private final transient MaskingRules rules;
+    private final BeanPropertyWriter plain;
+    private final boolean viewDependent;
+    private final transient ConcurrentMap<MaskSpec, MaskingPropertyWriter> masking = new ConcurrentHashMap<>();
+
+    /**
+     * @param base plain writer of the property
+     * @param rules rules to look the spec up
+     * @param viewDependent if true, values are only masked while the {@link Masked} view is active
+     */
+    PathMaskingPropertyWriter(final BeanPropertyWriter base, final MaskingRules rules, final boolean viewDependent) {
+        super(base);
+        this.rules = rules;
+        this.plain = base;
+        this.viewDependent = viewDependent;
+    }
+
+    private PathMaskingPropertyWriter(final PathMaskingPropertyWriter base, final PropertyName name) {
+        super(base, name);
+        this.rules = base.rules;
+        this.viewDependent = base.viewDependent;
+        this.plain = base.plain.rename(new NameTransformer() {
+            @Override
+            public String transform(final String original) {
+                return name.getSimpleName();
+            }
+
+            @Override
+            public String reverse(final String transformed) {
+                return null;
+            }
+        });
+    }
+
+    @Override
+    protected BeanPropertyWriter _new(final PropertyName newName) {
+        return new PathMaskingPropertyWriter(this, newName);
+    }
+
+    @Override
+    public void assignSerializer(final JsonSerializer<Object> ser) {
+        super.assignSerializer(ser);
+        // when not view dependent, the plain writer is only reachable through this one
+        if (!this.plain.hasSerializer()) {
+            this.plain.assignSerializer(ser);
+        }
+    }
+
+    @Override
+    public void assignNullSerializer(final JsonSerializer<Object> nullSer) {
+        super.assignNullSerializer(nullSer);
+        if (!this.plain.hasNullSerializer()) {
+            this.plain.assignNullSerializer(nullSer);
+        }
+    }
+
+    @Override
+    public void serializeAsField(final Object bean, final JsonGenerator gen, final SerializerProvider prov) throws Exception {
+        final MaskSpec spec = specFor(gen, prov);
+        if (spec == null) {
+            this.plain.serializeAsField(bean, gen, prov);
+        } else {
+            masking(spec).serializeAsField(bean, gen, prov);
+        }
+    }
+
+    @Override
+    public void serializeAsElement(final Object bean, final JsonGenerator gen, final SerializerProvider prov) throws Exception {
+        final MaskSpec spec = specFor(gen, prov);
+        if (spec == null) {
+            this.plain.serializeAsElement(bean, gen, prov);
+        } else {
+            masking(spec).serializeAsElement(bean, gen, prov);
+        }
+    }
+
+    private MaskSpec specFor(final JsonGenerator gen, final SerializerProvider prov) {
+        if (this.viewDependent && !Masked.isEnabled(prov)) {
+            return null;
+        }
+        return this.rules.find(getName(), gen.getOutputContext());
+    }
+
+    private MaskingPropertyWriter masking(final MaskSpec spec) {
+        final MaskingPropertyWriter writer = this.masking.get(spec);
+        return writer != null ? writer
+                : this.masking.computeIfAbsent(spec, key -> new MaskingPropertyWriter(this.plain, key, null));
+    }
+}
@@ -0,0 +1,116 @@
+package io.github.javiercanillas.jackson.masker.module;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.PropertyName;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.BeanPropertyWriter;
+import com.fasterxml.jackson.databind.util.NameTransformer;
+import io.github.javiercanillas.jackson.masker.rules.MaskingRules;
+
+import java.util.function.Supplier;
+
+/**
+ * Property writer for properties that might be matched by {@link MaskingRules} that are reloaded. The writer built for
+ * a rules snapshot is kept along with it, and built again as soon as the snapshot changes, so every bean serializer
+ * applies reloaded rules, whatever mapper (or copy of it) cached it.
+ */
+class ReloadingPropertyWriter extends BeanPropertyWriter {
+    private static final long serialVersionUID = 1L;
+
+    private final transient Supplier<MaskingRules> rules;
+    private final BeanPropertyWriter plain;
+    private final boolean viewDependent;
+    private transient volatile Resolved resolved;
+
+    /**
+     * @param base plain writer of the property
+     * @param rules current rules, looked at for every value
+     * @param viewDependent if true, values are only masked while the
+     *                      {@link io.github.javiercanillas.jackson.masker.view.Masked} view is active
+     */
+    ReloadingPropertyWriter(final BeanPropertyWriter base, final Supplier<MaskingRules> rules,
+                            final boolean viewDependent) {
+        super(base);
+        this.rules = rules;
+        this.plain = base;
+        this.viewDependent = viewDependent;
+    }
+
+    private ReloadingPropertyWriter(final ReloadingPropertyWriter base, final PropertyName name) {
+        super(base, name);
+        this.rules = base.rules;
+        this.viewDependent = base.viewDependent;
+        this.plain = base.plain.rename(new NameTransformer() {
+            @Override
+            public String transform(final String original) {
+                return name.getSimpleName();
+            }
+
+            @Override
+            public String reverse(final String transformed) {
+                return null;
+            }
+        });
+    }
+
+    @Override
+    protected BeanPropertyWriter _new(final PropertyName newName) {
+        return new ReloadingPropertyWriter(this, newName);
+    }
+
+    @Override
+    public void assignSerializer(final JsonSerializer<Object> ser) {
+        super.assignSerializer(ser);
+        // when not view dependent, the plain writer is only reachable through this one
+        if (!this.plain.hasSerializer()) {
+            this.plain.assignSerializer(ser);
+        }
+        this.resolved = null;
+    }
+
+    @Override
+    public void assignNullSerializer(final JsonSerializer<Object> nullSer) {
+        super.assignNullSerializer(nullSer);
+        if (!this.plain.hasNullSerializer()) {
+            this.plain.assignNullSerializer(nullSer);
+        }
+        this.resolved = null;
+    }
+
+    @Override
+    public void serializeAsField(final Object bean, final JsonGenerator gen, final SerializerProvider prov) throws Exception {
+        current().serializeAsField(bean, gen, prov);
+    }
+
+    @Override
+    public void serializeAsElement(final Object bean, final JsonGenerator gen, final SerializerProvider prov) throws Exception {
+        current().serializeAsElement(bean, gen, prov);
+    }
+
+    private BeanPropertyWriter current() {
+        final MaskingRules snapshot = this.rules.get();
+        Resolved current = this.resolved;
+        if (current == null || current.rules != snapshot) {
+            // racing threads build equal writers, any of them can be kept
+            final BeanPropertyWriter writer = MaskerBeanSerializerModifier.namedWriter(this.plain, snapshot,
+                    this.viewDependent);
+            current = new Resolved(snapshot, writer == null ? this.plain : writer);
+            this.resolved = current;
+        }
+        return current.writer;
+    }
+
+    /**
+     * Writer built for a rules snapshot.
+     */
+    private static final class Resolved {
+        private final MaskingRules rules;
+        private final BeanPropertyWriter writer;
+
+        private Resolved(final MaskingRules rules, final BeanPropertyWriter writer) {
+            this.rules = rules;
+            this.writer = writer;
+        }
+    }
+}
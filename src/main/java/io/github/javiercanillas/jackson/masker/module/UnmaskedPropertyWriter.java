@@ -0,0 +1,27 @@
+package io.github.javiercanillas.jackson.masker.module;
+
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.PropertyName;
+import com.fasterxml.jackson.databind.ser.BeanPropertyWriter;
+
+/**
+ * Copy of a property writer using another serializer: the plain one a masking serializer wraps. It doesn't override
+ * any write method, so it costs the same as the writer Jackson would have built without masking.
+ */
+class UnmaskedPropertyWriter extends BeanPropertyWriter {
+    private static final long serialVersionUID = 1L;
+
+    UnmaskedPropertyWriter(final BeanPropertyWriter base, final JsonSerializer<Object> serializer) {
+        super(base);
+        this._serializer = serializer;
+    }
+
+    private UnmaskedPropertyWriter(final UnmaskedPropertyWriter base, final PropertyName name) {
+        super(base, name);
+    }
+
+    @Override
+    protected BeanPropertyWriter _new(final PropertyName newName) {
+        return new UnmaskedPropertyWriter(this, newName);
+    }
+}
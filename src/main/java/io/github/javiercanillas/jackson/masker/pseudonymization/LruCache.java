@@ -0,0 +1,95 @@
+package io.github.javiercanillas.jackson.masker.pseudonymization;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Bounded LRU cache split in segments, each one an access ordered {@link LinkedHashMap} with its own lock, so threads
+ * looking up different keys seldom contend. Values are computed outside locks: two threads missing the same key may
+ * both compute it, which is fine for deterministic values.
+ */
+final class LruCache<K, V> {
+    private static final int MAX_SEGMENTS = 64;
+
+    private final Segment<K, V>[] segments;
+    private final int mask;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    @SuppressWarnings("unchecked")
+    LruCache(final int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Parameter capacity cannot be less than One.");
+        }
+        // power of two segments, never smaller than 16 entries each
+        int count = 1;
+        while (count < MAX_SEGMENTS && count * 2 * 16 <= capacity) {
+            count *= 2;
+        }
+        this.segments = new Segment[count];
+        for (int i = 0; i < count; i++) {
+            this.segments[i] = new Segment<>(Math.max(1, capacity / count));
+        }
+        this.mask = count - 1;
+    }
+
+    V get(final K key, final Function<? super K, ? extends V> loader) {
+        final Segment<K, V> segment = segmentFor(key);
+        V value;
+        synchronized (segment) {
+            value = segment.get(key);
+        }
+        if (value != null) {
+            this.hits.increment();
+            return value;
+        }
+
+        this.misses.increment();
+        value = loader.apply(key);
+        synchronized (segment) {
+            segment.put(key, value);
+        }
+        return value;
+    }
+
+    long hits() {
+        return this.hits.sum();
+    }
+
+    long misses() {
+        return this.misses.sum();
+    }
+
+    int size() {
+        int size = 0;
+        for (final Segment<K, V> segment : this.segments) {
+            synchronized (segment) {
+                size += segment.size();
+            }
+        }
+        return size;
+    }
+
+    private Segment<K, V> segmentFor(final K key) {
+        final int hash = key.hashCode();
+        // spread high bits, as HashMap does
+        return this.segments[(hash ^ (hash >>> 16)) & this.mask];
+    }
+
+    private static final class Segment<K, V> extends LinkedHashMap<K, V> {
+        private static final long serialVersionUID = 1L;
+        private final int capacity;
+
+        private Segment(final int capacity) {
+            super(16, 0.75f, true);
+            this.capacity = capacity;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(final Map.Entry<K, V> eldest) {
+            return size() > this.capacity;
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package io.github.javiercanillas.jackson.masker.pseudonymization;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.util.Arrays;
+import java.util.Base64;
+
+/**
+ * Replaces values with deterministic, opaque tokens: the first 128 bits of their HMAC-SHA256, url safe base64 encoded
+ * ({@value #TOKEN_LENGTH} characters). The same value and key always give the same token, so pseudonymized output
+ * keeps being joinable across services sharing the key, while values cannot be recovered without it.
+ * <p>
+ * Recent value to token results are kept in a bounded LRU cache, since hot values (i.e. customer ids) repeat a lot;
+ * see {@link #getHitRate()}. Instances are thread safe.
+ * <p>
+ * {@link io.github.javiercanillas.jackson.masker.annotation.MaskString.Mode#PSEUDONYMIZE} uses the
+ * {@link #getDefault() default} instance, which takes its key from {@link #setDefault(Pseudonymizer)} or, if not set,
+ * from the {@value #KEY_PROPERTY} system property (base64 encoded).
+ */
+public final class Pseudonymizer {
+    public static final String KEY_PROPERTY = "jackson.masker.pseudonymization.key";
+    public static final int TOKEN_LENGTH = 22;
+    public static final int DEFAULT_CACHE_SIZE = 16 * 1024;
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final int TOKEN_BYTES = 16;
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+
+    private static volatile Pseudonymizer defaultInstance;
+
+    private final SecretKeySpec key;
+    private final ThreadLocal<Mac> macs;
+    private final LruCache<String, String> cache;
+
+    /**
+     * Build a pseudonymizer with a {@link #DEFAULT_CACHE_SIZE} cache.
+     * @param key secret key, it should be at least 32 bytes long
+     * @throws IllegalArgumentException if key is empty.
+     */
+    public Pseudonymizer(final byte[] key) {
+        this(key, DEFAULT_CACHE_SIZE);
+    }
+
+    /**
+     * Build a pseudonymizer.
+     * @param key secret key, it should be at least 32 bytes long
+     * @param cacheSize maximum quantity of value to token results to keep
+     * @throws IllegalArgumentException if key is empty or {@code cacheSize} is less than 1.
+     */
+    public Pseudonymizer(final byte[] key, final int cacheSize) {
+        if (key == null || key.length == 0) {
+            throw new IllegalArgumentException("Parameter key cannot be empty.");
+        }
+        this.key = new SecretKeySpec(Arrays.copyOf(key, key.length), ALGORITHM);
+        this.macs = ThreadLocal.withInitial(this::newMac);
+        this.cache = new LruCache<>(cacheSize);
+        // fail fast if the platform has no HMAC-SHA256
+        newMac();
+    }
+
+    /**
+     * @return the pseudonymizer used by {@link io.github.javiercanillas.jackson.masker.annotation.MaskString.Mode#PSEUDONYMIZE}
+     * @throws IllegalStateException if none was set and the {@value #KEY_PROPERTY} system property is missing.
+     */
+    public static Pseudonymizer getDefault() {
+        Pseudonymizer instance = defaultInstance;
+        if (instance == null) {
+            synchronized (Pseudonymizer.class) {
+                instance = defaultInstance;
+                if (instance == null) {
+                    final String key = System.getProperty(KEY_PROPERTY);
+                    if (key == null || key.isEmpty()) {
+                        throw new IllegalStateException("No pseudonymization key configured, set one through "
+                                + "Pseudonymizer.setDefault or the " + KEY_PROPERTY + " system property.");
+                    }
+                    instance = new Pseudonymizer(Base64.getDecoder().decode(key));
+                    defaultInstance = instance;
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Set the pseudonymizer used by {@link io.github.javiercanillas.jackson.masker.annotation.MaskString.Mode#PSEUDONYMIZE}.
+     * @param pseudonymizer pseudonymizer to use, or null to take it again from the {@value #KEY_PROPERTY} system
+     *                      property.
+     */
+    public static void setDefault(final Pseudonymizer pseudonymizer) {
+        defaultInstance = pseudonymizer;
+    }
+
+    /**
+     * @param value value to pseudonymize
+     * @return if value is null, it will return null, otherwise its token.
+     */
+    public String pseudonymize(final String value) {
+        if (value == null) {
+            return null;
+        }
+        return this.cache.get(value, this::token);
+    }
+
+    /**
+     * Write the token of {@code value} into {@code destination} starting at {@code offset}.
+     * @param value value to pseudonymize
+     * @param destination array where the token is written, with room for {@value #TOKEN_LENGTH} characters
+     * @param offset position of {@code destination} where to start writing
+     * @return quantity of characters written into {@code destination}. If value is null, nothing is written and
+     * zero is returned.
+     */
+    public int pseudonymize(final CharSequence value, final char[] destination, final int offset) {
+        if (value == null) {
+            return 0;
+        }
+        final String token = pseudonymize(value.toString());
+        token.getChars(0, TOKEN_LENGTH, destination, offset);
+        return TOKEN_LENGTH;
+    }
+
+    /**
+     * @return quantity of lookups found on cache
+     */
+    public long getHits() {
+        return this.cache.hits();
+    }
+
+    /**
+     * @return quantity of lookups that had to compute the token
+     */
+    public long getMisses() {
+        return this.cache.misses();
+    }
+
+    /**
+     * @return ratio, between 0 and 1, of lookups found on cache
+     */
+    public double getHitRate() {
+        final long hits = getHits();
+        final long total = hits + getMisses();
+        return total == 0 ? 0d : (double) hits / total;
+    }
+
+    /**
+     * @return quantity of results currently cached
+     */
+    public int getCacheSize() {
+        return this.cache.size();
+    }
+
+    private String token(final String value) {
+        final byte[] digest = this.macs.get().doFinal(value.getBytes(StandardCharsets.UTF_8));
+        return ENCODER.encodeToString(Arrays.copyOf(digest, TOKEN_BYTES));
+    }
+
+    private Mac newMac() {
+        try {
+            final Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(this.key);
+            return mac;
+        } catch (final GeneralSecurityException e) {
+            throw new IllegalStateException("Cannot initialize " + ALGORITHM, e);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "Pseudonymizer(cacheSize=" + getCacheSize() + ", hitRate=" + getHitRate() + ")";
+    }
+}
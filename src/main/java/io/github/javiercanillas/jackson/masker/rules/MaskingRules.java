@@ -0,0 +1,278 @@
+package io.github.javiercanillas.jackson.masker.rules;
+
+import com.fasterxml.jackson.core.JsonStreamContext;
+import io.github.javiercanillas.jackson.masker.MaskSpec;
+import io.github.javiercanillas.jackson.masker.MaskUtils;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Immutable set of masking rules by property name or dotted path, for classes that cannot be annotated (generated
+ * dtos, third party classes...). Install them with {@link io.github.javiercanillas.jackson.masker.module.MaskerModule}.
+ * <p>
+ * A rule pattern is matched against the end of the path of a property, made of the names of the properties holding
+ * it (array elements are transparent):
+ * <ul>
+ *     <li>{@code email} masks every property named {@code email}, at any depth.</li>
+ *     <li>{@code customer.email} masks {@code email} properties of objects held by a {@code customer} property.</li>
+ *     <li>{@code *} matches any single name, so {@code *.cardNumber} masks {@code cardNumber} properties of any
+ *     nested object, but not of the root one.</li>
+ * </ul>
+ * When many rules match, the longest one wins, and names win over {@code *} on the same position.
+ * <p>
+ * Patterns are compiled into a trie of reversed segments, so properties are looked up by their own name first. Most
+ * lookups happen once per property, when the bean serializer is built: only properties whose name ends a multi
+ * segment pattern have their parents looked at, and only up to the longest pattern.
+ * <p>
+ * Rules can be loaded from a file with one rule per line, with the same parameters as {@code NdjsonMasker} fields;
+ * blank lines and lines starting with {@code #} are ignored:
+ * <pre>
+ * # pattern[=keepInitial,keepLast[,maskChar]]
+ * email=1,12
+ * ssn
+ * *.cardNumber=0,4,X
+ * </pre>
+ */
+public final class MaskingRules {
+
+    /**
+     * Rules masking nothing.
+     */
+    public static final MaskingRules EMPTY = new MaskingRules(Collections.emptyMap());
+
+    private static final String WILDCARD = "*";
+
+    private final Map<String, MaskSpec> patterns;
+    private final Node root;
+
+    private MaskingRules(final Map<String, MaskSpec> patterns) {
+        this.patterns = patterns;
+        this.root = new Node();
+        patterns.forEach((pattern, spec) -> {
+            final String[] segments = pattern.split("\\.", -1);
+            Node node = this.root;
+            for (int i = segments.length - 1; i >= 0; i--) {
+                node = node.child(segments[i]);
+            }
+            node.spec = spec;
+        });
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Parse rules, one per line.
+     * @param reader reader of the rules
+     * @return the rules
+     * @throws IOException if reading fails
+     * @throws IllegalArgumentException if a line is not a valid rule.
+     */
+    public static MaskingRules parse(final Reader reader) throws IOException {
+        final Builder builder = builder();
+        final BufferedReader lines = reader instanceof BufferedReader ? (BufferedReader) reader : new BufferedReader(reader);
+        int number = 0;
+        for (String line = lines.readLine(); line != null; line = lines.readLine()) {
+            number++;
+            line = line.trim();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            try {
+                final int separator = line.indexOf('=');
+                if (separator < 0) {
+                    builder.rule(line, MaskSpec.DEFAULTS);
+                } else {
+                    builder.rule(line.substring(0, separator).trim(), parseSpec(line.substring(separator + 1).trim()));
+                }
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Invalid rule on line " + number + ": " + e.getMessage(), e);
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * Load rules from a UTF-8 file, see {@link #parse(Reader)}.
+     * @param file rules file
+     * @return the rules
+     * @throws IOException if reading fails
+     * @throws IllegalArgumentException if a line is not a valid rule.
+     */
+    public static MaskingRules load(final Path file) throws IOException {
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            return parse(reader);
+        }
+    }
+
+    private static MaskSpec parseSpec(final String spec) {
+        final String[] parts = spec.split(",", 3);
+        if (parts.length < 2 || (parts.length == 3 && parts[2].length() != 1)) {
+            throw new IllegalArgumentException("Invalid mask parameters " + spec);
+        }
+        return MaskSpec.of(Integer.parseInt(parts[0].trim()), Integer.parseInt(parts[1].trim()),
+                parts.length == 3 ? parts[2].charAt(0) : MaskUtils.DEFAULT_MASK_CHARACTER);
+    }
+
+    /**
+     * @return rules by pattern, in the order they were given
+     */
+    public Map<String, MaskSpec> getPatterns() {
+        return this.patterns;
+    }
+
+    public boolean isEmpty() {
+        return this.patterns.isEmpty();
+    }
+
+    /**
+     * @param property property name
+     * @return true if any rule might mask properties with this name, depending on their path or not
+     */
+    public boolean mightMatch(final String property) {
+        return this.root.children.containsKey(property) || this.root.wildcard != null;
+    }
+
+    /**
+     * @param property property name
+     * @return true if rules for properties with this name depend on the path, so it has to be looked at for every value
+     */
+    public boolean isPathDependent(final String property) {
+        final Node leaf = this.root.children.get(property);
+        return this.root.wildcard != null || (leaf != null && (!leaf.children.isEmpty() || leaf.wildcard != null));
+    }
+
+    /**
+     * Find the spec for a property.
+     * @param property property name
+     * @param parent context of the object holding the property, like {@link com.fasterxml.jackson.core.JsonGenerator#getOutputContext()}
+     *               while writing it. If null, only single name rules are looked at.
+     * @return the spec of the best matching rule, or null if none matches
+     */
+    public MaskSpec find(final String property, final JsonStreamContext parent) {
+        final JsonStreamContext holder = parent == null ? null : parent.getParent();
+        MaskSpec spec = find(this.root.children.get(property), holder);
+        if (spec == null) {
+            spec = find(this.root.wildcard, holder);
+        }
+        return spec;
+    }
+
+    /**
+     * Find the spec for a property given its full path, i.e. {@code customer.address.street}.
+     * @param path dotted property path
+     * @return the spec of the best matching rule, or null if none matches
+     */
+    public MaskSpec find(final String path) {
+        final String[] segments = path.split("\\.", -1);
+        return find(this.root, segments, segments.length - 1);
+    }
+
+    /**
+     * @param node node matching a segment, or null
+     * @param context context whose name is the next segment to match, going up
+     */
+    private static MaskSpec find(final Node node, final JsonStreamContext context) {
+        if (node == null) {
+            return null;
+        }
+        if (!node.children.isEmpty() || node.wildcard != null) {
+            JsonStreamContext holder = context;
+            // array elements are transparent
+            while (holder != null && !holder.inObject()) {
+                holder = holder.getParent();
+            }
+            final String name = holder == null ? null : holder.getCurrentName();
+            if (name != null) {
+                MaskSpec spec = find(node.children.get(name), holder.getParent());
+                if (spec == null) {
+                    spec = find(node.wildcard, holder.getParent());
+                }
+                if (spec != null) {
+                    return spec;
+                }
+            }
+        }
+        return node.spec;
+    }
+
+    private static MaskSpec find(final Node node, final String[] segments, final int index) {
+        if (node == null) {
+            return null;
+        }
+        if (index >= 0) {
+            MaskSpec spec = find(node.children.get(segments[index]), segments, index - 1);
+            if (spec == null) {
+                spec = find(node.wildcard, segments, index - 1);
+            }
+            if (spec != null) {
+                return spec;
+            }
+        }
+        return node.spec;
+    }
+
+    @Override
+    public String toString() {
+        return "MaskingRules" + this.patterns;
+    }
+
+    /**
+     * Trie node of a reversed pattern segment.
+     */
+    private static final class Node {
+        private final Map<String, Node> children = new HashMap<>();
+        private Node wildcard;
+        private MaskSpec spec;
+
+        private Node child(final String segment) {
+            if (WILDCARD.equals(segment)) {
+                if (this.wildcard == null) {
+                    this.wildcard = new Node();
+                }
+                return this.wildcard;
+            }
+            return this.children.computeIfAbsent(segment, key -> new Node());
+        }
+    }
+
+    /**
+     * Builder of {@link MaskingRules}.
+     */
+    public static class Builder {
+        private final Map<String, MaskSpec> patterns = new LinkedHashMap<>();
+
+        protected Builder() { }
+
+        /**
+         * Mask properties matching {@code pattern} with {@code spec}. A pattern given twice keeps the last spec.
+         * @param pattern property name or dotted path, {@code *} matching any name
+         * @param spec masking parameters
+         * @return this builder
+         * @throws IllegalArgumentException if {@code pattern} has empty segments.
+         */
+        public Builder rule(final String pattern, final MaskSpec spec) {
+            for (final String segment : pattern.split("\\.", -1)) {
+                if (segment.isEmpty()) {
+                    throw new IllegalArgumentException("Invalid pattern " + pattern);
+                }
+            }
+            this.patterns.put(pattern, spec);
+            return this;
+        }
+
+        public MaskingRules build() {
+            return new MaskingRules(Collections.unmodifiableMap(new LinkedHashMap<>(this.patterns)));
+        }
+    }
+}
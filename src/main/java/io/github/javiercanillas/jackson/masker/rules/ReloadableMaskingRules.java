@@ -0,0 +1,155 @@
+package io.github.javiercanillas.jackson.masker.rules;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * {@link MaskingRules} loaded from a local file and reloaded when it changes.
+ * <p>
+ * Rules are kept as an immutable snapshot swapped atomically, so readers never lock and always see a whole rule set.
+ * A file that cannot be parsed is not applied: the previous snapshot stays and the error is kept, see
+ * {@link #getLastError()}. Listeners are called after every swap.
+ * {@link io.github.javiercanillas.jackson.masker.module.MaskerModule} needs none: its serializers compare the snapshot
+ * they were set up with to the current one.
+ * <pre>
+ * ReloadableMaskingRules rules = ReloadableMaskingRules.watch(Paths.get("/etc/app/masking.rules"));
+ * ObjectMapper mapper = new ObjectMapper().registerModule(MaskerModule.builder().rules(rules).build());
+ * </pre>
+ */
+public final class ReloadableMaskingRules implements Supplier<MaskingRules>, AutoCloseable {
+
+    private final Path file;
+    private final AtomicReference<MaskingRules> current;
+    private final List<Consumer<MaskingRules>> listeners = new CopyOnWriteArrayList<>();
+    private volatile Exception lastError;
+    private volatile WatchService watchService;
+
+    private ReloadableMaskingRules(final Path file, final MaskingRules rules) {
+        this.file = file;
+        this.current = new AtomicReference<>(rules);
+    }
+
+    /**
+     * Load rules from {@code file}, without watching it: call {@link #reload()} to apply changes.
+     * @param file rules file, see {@link MaskingRules#load(Path)}
+     * @return the rules
+     * @throws IOException if reading fails
+     * @throws IllegalArgumentException if the file has invalid rules.
+     */
+    public static ReloadableMaskingRules load(final Path file) throws IOException {
+        final Path absolute = file.toAbsolutePath();
+        return new ReloadableMaskingRules(absolute, MaskingRules.load(absolute));
+    }
+
+    /**
+     * Load rules from {@code file}, and reload them from a daemon thread every time it changes.
+     * @param file rules file, see {@link MaskingRules#load(Path)}
+     * @return the rules
+     * @throws IOException if reading fails or the file cannot be watched
+     * @throws IllegalArgumentException if the file has invalid rules.
+     */
+    public static ReloadableMaskingRules watch(final Path file) throws IOException {
+        final ReloadableMaskingRules rules = load(file);
+        rules.startWatching();
+        return rules;
+    }
+
+    /**
+     * @return the current snapshot
+     */
+    @Override
+    public MaskingRules get() {
+        return this.current.get();
+    }
+
+    /**
+     * Read the file again and swap the snapshot if it is valid. Reloads are serialized, readers are never blocked.
+     * @return true if the file was valid and rules were swapped
+     */
+    public synchronized boolean reload() {
+        final MaskingRules rules;
+        try {
+            rules = MaskingRules.load(this.file);
+        } catch (IOException | UncheckedIOException | IllegalArgumentException e) {
+            this.lastError = e;
+            return false;
+        }
+        this.lastError = null;
+        this.current.set(rules);
+        this.listeners.forEach(listener -> listener.accept(rules));
+        return true;
+    }
+
+    /**
+     * @param listener called with the new snapshot after every swap
+     */
+    public void addListener(final Consumer<MaskingRules> listener) {
+        this.listeners.add(Objects.requireNonNull(listener));
+    }
+
+    /**
+     * @return why the last reload failed, or null if it succeeded
+     */
+    public Exception getLastError() {
+        return this.lastError;
+    }
+
+    /**
+     * Stop watching the file, if watched.
+     * @throws IOException if the watch service fails to close
+     */
+    @Override
+    public void close() throws IOException {
+        final WatchService service = this.watchService;
+        if (service != null) {
+            service.close();
+        }
+    }
+
+    private void startWatching() throws IOException {
+        final Path directory = this.file.getParent();
+        final WatchService service = FileSystems.getDefault().newWatchService();
+        directory.register(service, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+        this.watchService = service;
+        final Thread watcher = new Thread(() -> watchLoop(service), "masking-rules-watcher");
+        watcher.setDaemon(true);
+        watcher.start();
+    }
+
+    private void watchLoop(final WatchService service) {
+        final Path name = this.file.getFileName();
+        try {
+            while (true) {
+                final WatchKey key = service.take();
+                boolean changed = false;
+                for (final WatchEvent<?> event : key.pollEvents()) {
+                    // overflow events carry no context: the file might have changed
+                    changed |= event.context() == null || name.equals(event.context());
+                }
+                if (changed) {
+                    reload();
+                }
+                if (!key.reset()) {
+                    return;
+                }
+            }
+        } catch (ClosedWatchServiceException e) {
+            // closed
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package io.github.javiercanillas.jackson.masker.scan;
+
+/**
+ * <a href="https://en.wikipedia.org/wiki/Luhn_algorithm">Luhn</a> checksum, used by payment card numbers.
+ */
+public final class Luhn {
+
+    private Luhn() { }
+
+    /**
+     * Check the digits between {@code start} and {@code end}, ignoring any other character (like separators).
+     * @param value value to check
+     * @param start position where to start
+     * @param end position after the last character to check
+     * @return true if digits pass the checksum, otherwise false.
+     */
+    public static boolean isValid(final CharSequence value, final int start, final int end) {
+        int sum = 0;
+        boolean doubled = false;
+        for (int i = end - 1; i >= start; i--) {
+            final char c = value.charAt(i);
+            if (c < '0' || c > '9') {
+                continue;
+            }
+            int digit = c - '0';
+            if (doubled) {
+                digit *= 2;
+                if (digit > 9) {
+                    digit -= 9;
+                }
+            }
+            sum += digit;
+            doubled = !doubled;
+        }
+        return sum % 10 == 0;
+    }
+}
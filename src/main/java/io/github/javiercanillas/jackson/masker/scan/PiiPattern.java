@@ -0,0 +1,20 @@
+package io.github.javiercanillas.jackson.masker.scan;
+
+/**
+ * Kinds of personal data {@link PiiScanner} finds embedded on free text.
+ */
+public enum PiiPattern {
+    /**
+     * E-mail addresses, like {@code john.doe@example.com}.
+     */
+    EMAIL,
+    /**
+     * Payment card numbers: 13 to 19 digits, optionally grouped by spaces or dashes, passing the Luhn check.
+     */
+    CARD_NUMBER,
+    /**
+     * Phone numbers: 7 to 15 digits, either starting with {@code +} or grouped by spaces, dashes or parenthesis, with
+     * a last group of at least 3 digits (so dates like {@code 2020-01-31} are not taken as phones).
+     */
+    PHONE_NUMBER
+}
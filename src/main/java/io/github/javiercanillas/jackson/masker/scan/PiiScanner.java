@@ -0,0 +1,301 @@
+package io.github.javiercanillas.jackson.masker.scan;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Finds personal data embedded on free text (notes, error messages, urls...) in a single linear pass over the
+ * characters: built-in {@link PiiPattern}s are recognized by character class state machines, and literal terms by an
+ * Aho-Corasick automaton, so cost does not grow with the quantity of terms.
+ * <p>
+ * Matches are reported in the order they are confirmed, which is not always the order they start on; scanning
+ * resumes after the end of the last match, so matches never overlap. Among overlapping terms, the one starting first
+ * is taken, and the longest of those starting there, so {@code password123} wins over {@code word}. Instances are
+ * immutable and can be shared across threads.
+ */
+public final class PiiScanner {
+    private static final long NO_MATCH = -1L;
+    private static final int CARD_MIN_DIGITS = 13;
+    private static final int CARD_MAX_DIGITS = 19;
+    private static final int PHONE_MIN_DIGITS = 7;
+    private static final int PHONE_MAX_DIGITS = 15;
+    private static final int PHONE_MIN_LAST_GROUP = 3;
+    private static final int MIN_TOP_LEVEL_DOMAIN = 2;
+    // a run of digits allows up to 2 separators in a row, like in "(555) 123"
+    private static final int MAX_SEPARATORS = 2;
+    // longest group of digits a space joins to others, like in "4111 1111 1111 1111"
+    private static final int MAX_SPACED_GROUP = 4;
+    // run states besides its start position
+    private static final int NO_RUN = -1;
+    private static final int IGNORED_RUN = -2;
+
+    private final Set<PiiPattern> patterns;
+    private final Set<String> terms;
+    private final boolean emails;
+    private final boolean cards;
+    private final boolean phones;
+    private final TermAutomaton automaton;
+
+    private PiiScanner(final Set<PiiPattern> patterns, final Set<String> terms) {
+        this.patterns = patterns;
+        this.terms = terms;
+        this.emails = patterns.contains(PiiPattern.EMAIL);
+        this.cards = patterns.contains(PiiPattern.CARD_NUMBER);
+        this.phones = patterns.contains(PiiPattern.PHONE_NUMBER);
+        this.automaton = terms.isEmpty() ? null : new TermAutomaton(terms);
+    }
+
+    /**
+     * Build a scanner finding the given patterns.
+     * @param patterns patterns to find
+     * @return the scanner
+     */
+    public static PiiScanner of(final PiiPattern... patterns) {
+        return of(Arrays.asList(patterns), Collections.emptySet());
+    }
+
+    /**
+     * Build a scanner finding the given patterns and literal terms (case sensitive).
+     * @param patterns patterns to find
+     * @param terms literal terms to find, like known names or account ids
+     * @return the scanner
+     * @throws IllegalArgumentException if any term is empty.
+     */
+    public static PiiScanner of(final Collection<PiiPattern> patterns, final Collection<String> terms) {
+        final Set<String> copy = new LinkedHashSet<>(terms);
+        if (copy.contains("")) {
+            throw new IllegalArgumentException("Parameter terms cannot contain empty values.");
+        }
+        return new PiiScanner(Collections.unmodifiableSet(patterns.isEmpty()
+                ? EnumSet.noneOf(PiiPattern.class) : EnumSet.copyOf(patterns)), Collections.unmodifiableSet(copy));
+    }
+
+    public Set<PiiPattern> getPatterns() {
+        return this.patterns;
+    }
+
+    public Set<String> getTerms() {
+        return this.terms;
+    }
+
+    /**
+     * Find the next match on {@code value}, starting at {@code from}.
+     * @param value value to scan
+     * @param from position where to start
+     * @return the match, packed into a long to avoid allocation (see {@link #start(long)} and {@link #end(long)}), or
+     * a negative value if there is none.
+     */
+    @SuppressWarnings("java:S3776")
+    public long find(final CharSequence value, final int from) {
+        final int length = value.length();
+        int state = 0;
+        int localStart = NO_RUN;
+        int runStart = NO_RUN;
+        int groupStart = 0;
+        int groupDigits = 0;
+        int lastDigit = 0;
+        boolean spacedGroup = false;
+        int termStart = NO_RUN;
+        int termEnd = 0;
+        for (int i = from; i < length; i++) {
+            final char c = value.charAt(i);
+            if (this.automaton != null) {
+                state = this.automaton.next(state, c);
+                final int termLength = this.automaton.matchLength(state);
+                // a term starting at the same place or before is longer, as it ends later
+                if (termLength > 0 && (termStart == NO_RUN || i + 1 - termLength <= termStart)) {
+                    termStart = i + 1 - termLength;
+                    termEnd = i + 1;
+                }
+                // taken once no longer term starting at the same place or before can match
+                if (termStart != NO_RUN && i + 1 - this.automaton.depth(state) > termStart) {
+                    return match(termStart, termEnd);
+                }
+            }
+
+            if (this.emails) {
+                if (c == '@' && localStart >= 0) {
+                    final int end = domainEnd(value, i + 1, length);
+                    if (end > 0) {
+                        return first(termStart, termEnd, match(localStart, end));
+                    }
+                }
+                if (!isLocalPart(c)) {
+                    localStart = NO_RUN;
+                } else if (localStart < 0) {
+                    localStart = i;
+                }
+            }
+
+            if (this.cards || this.phones) {
+                if (c >= '0' && c <= '9') {
+                    if (runStart == NO_RUN) {
+                        final char previous = i > 0 ? value.charAt(i - 1) : ' ';
+                        runStart = Character.isLetterOrDigit(previous) ? IGNORED_RUN : (previous == '+' ? i - 1 : i);
+                        groupStart = i;
+                        groupDigits = 0;
+                        spacedGroup = false;
+                    } else if (i != lastDigit + 1) {
+                        spacedGroup = contains(value, lastDigit + 1, i, ' ');
+                        groupStart = i;
+                        groupDigits = 0;
+                    }
+                    lastDigit = i;
+                    if (++groupDigits > MAX_SPACED_GROUP && spacedGroup) {
+                        // only short groups are joined by spaces, so "555-1234 4111111111111111" are two numbers
+                        if (runStart >= 0) {
+                            final long match = numberMatch(value, runStart, trimSeparators(value, groupStart));
+                            if (match >= 0) {
+                                return first(termStart, termEnd, match);
+                            }
+                        }
+                        runStart = groupStart;
+                        spacedGroup = false;
+                    }
+                } else if (runStart != NO_RUN && isSeparator(c) && i - lastDigit <= MAX_SEPARATORS
+                        && !(c == ' ' && groupDigits > MAX_SPACED_GROUP)) {
+                    continue;
+                } else if (runStart != NO_RUN) {
+                    // digits glued to a word, like "abc123" or "123abc", are not taken
+                    if (runStart >= 0 && !(i == lastDigit + 1 && Character.isLetter(c))) {
+                        final long match = numberMatch(value, runStart, lastDigit + 1);
+                        if (match >= 0) {
+                            return first(termStart, termEnd, match);
+                        }
+                    }
+                    runStart = NO_RUN;
+                }
+            }
+        }
+
+        final long match = runStart >= 0 ? numberMatch(value, runStart, lastDigit + 1) : NO_MATCH;
+        if (termStart == NO_RUN) {
+            return match;
+        }
+        return match >= 0 ? first(termStart, termEnd, match) : match(termStart, termEnd);
+    }
+
+    /**
+     * @param match value returned by {@link #find(CharSequence, int)}
+     * @return position where the match starts
+     */
+    public static int start(final long match) {
+        return (int) (match >>> Integer.SIZE);
+    }
+
+    /**
+     * @param match value returned by {@link #find(CharSequence, int)}
+     * @return position after the last character of the match
+     */
+    public static int end(final long match) {
+        return (int) match;
+    }
+
+    private static long match(final int start, final int end) {
+        return ((long) start << Integer.SIZE) | end;
+    }
+
+    /**
+     * @return the term match still waiting for longer ones, if any and if it starts before {@code match}, otherwise
+     * {@code match}
+     */
+    private static long first(final int termStart, final int termEnd, final long match) {
+        return termStart != NO_RUN && termStart <= start(match) ? match(termStart, termEnd) : match;
+    }
+
+    private long numberMatch(final CharSequence value, final int start, final int end) {
+        int digits = 0;
+        int lastGroup = 0;
+        boolean grouped = value.charAt(start) == '+';
+        for (int i = start; i < end; i++) {
+            final char c = value.charAt(i);
+            if (c >= '0' && c <= '9') {
+                digits++;
+                lastGroup++;
+            } else if (c != '+') {
+                grouped = true;
+                lastGroup = 0;
+            }
+        }
+        if (this.cards && digits >= CARD_MIN_DIGITS && digits <= CARD_MAX_DIGITS && Luhn.isValid(value, start, end)) {
+            return match(start, end);
+        }
+        if (this.phones && digits >= PHONE_MIN_DIGITS && digits <= PHONE_MAX_DIGITS && grouped
+                && lastGroup >= PHONE_MIN_LAST_GROUP) {
+            return match(start, end);
+        }
+        return NO_MATCH;
+    }
+
+    private static int trimSeparators(final CharSequence value, final int end) {
+        int trimmed = end;
+        while (isSeparator(value.charAt(trimmed - 1))) {
+            trimmed--;
+        }
+        return trimmed;
+    }
+
+    private static boolean contains(final CharSequence value, final int start, final int end, final char c) {
+        for (int i = start; i < end; i++) {
+            if (value.charAt(i) == c) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int domainEnd(final CharSequence value, final int start, final int length) {
+        int end = start;
+        while (end < length && isDomain(value.charAt(end))
+                && !(value.charAt(end) == '.' && (end == start || value.charAt(end - 1) == '.'))) {
+            end++;
+        }
+        while (end > start && (value.charAt(end - 1) == '.' || value.charAt(end - 1) == '-')) {
+            end--;
+        }
+        for (int i = end - 1; i > start; i--) {
+            if (value.charAt(i) == '.') {
+                return end - i - 1 >= MIN_TOP_LEVEL_DOMAIN ? end : -1;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean isLocalPart(final char c) {
+        return Character.isLetterOrDigit(c) || c == '.' || c == '_' || c == '%' || c == '+' || c == '-';
+    }
+
+    private static boolean isDomain(final char c) {
+        return Character.isLetterOrDigit(c) || c == '.' || c == '-';
+    }
+
+    private static boolean isSeparator(final char c) {
+        return c == ' ' || c == '-' || c == '(' || c == ')';
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof PiiScanner)) {
+            return false;
+        }
+        final PiiScanner other = (PiiScanner) o;
+        return this.patterns.equals(other.patterns) && this.terms.equals(other.terms);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * this.patterns.hashCode() + this.terms.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return "PiiScanner(patterns=" + this.patterns + ", terms=" + this.terms.size() + ")";
+    }
+}
@@ -0,0 +1,117 @@
+package io.github.javiercanillas.jackson.masker.scan;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.TreeMap;
+
+/**
+ * Aho-Corasick automaton over literal terms. Feeding it one character at a time finds every term in a single pass,
+ * whatever the quantity of terms is.
+ */
+final class TermAutomaton {
+    private static final char[] NO_LABELS = new char[0];
+    private static final int[] NO_TARGETS = new int[0];
+
+    private final char[][] labels;
+    private final int[][] targets;
+    private final int[] failures;
+    private final int[] matchLengths;
+    private final int[] depths;
+
+    TermAutomaton(final Collection<String> terms) {
+        final List<Map<Character, Integer>> trie = new ArrayList<>();
+        final List<Integer> lengths = new ArrayList<>();
+        final List<Integer> depths = new ArrayList<>();
+        trie.add(new TreeMap<>());
+        lengths.add(0);
+        depths.add(0);
+        for (final String term : terms) {
+            int state = 0;
+            for (int i = 0; i < term.length(); i++) {
+                final Integer next = trie.get(state).get(term.charAt(i));
+                if (next == null) {
+                    trie.add(new TreeMap<>());
+                    lengths.add(0);
+                    depths.add(i + 1);
+                    trie.get(state).put(term.charAt(i), trie.size() - 1);
+                    state = trie.size() - 1;
+                } else {
+                    state = next;
+                }
+            }
+            lengths.set(state, term.length());
+        }
+
+        final int states = trie.size();
+        this.labels = new char[states][];
+        this.targets = new int[states][];
+        this.failures = new int[states];
+        this.matchLengths = new int[states];
+        this.depths = new int[states];
+        for (int state = 0; state < states; state++) {
+            final Map<Character, Integer> edges = trie.get(state);
+            this.labels[state] = edges.isEmpty() ? NO_LABELS : new char[edges.size()];
+            this.targets[state] = edges.isEmpty() ? NO_TARGETS : new int[edges.size()];
+            int i = 0;
+            // TreeMap iterates sorted, as binary search needs
+            for (final Map.Entry<Character, Integer> edge : edges.entrySet()) {
+                this.labels[state][i] = edge.getKey();
+                this.targets[state][i++] = edge.getValue();
+            }
+            this.matchLengths[state] = lengths.get(state);
+            this.depths[state] = depths.get(state);
+        }
+
+        // breadth first, so failures of shorter prefixes are ready first
+        final Queue<Integer> pending = new ArrayDeque<>();
+        for (final int child : this.targets[0]) {
+            pending.add(child);
+        }
+        while (!pending.isEmpty()) {
+            final int state = pending.poll();
+            for (int i = 0; i < this.labels[state].length; i++) {
+                final int child = this.targets[state][i];
+                this.failures[child] = next(this.failures[state], this.labels[state][i]);
+                this.matchLengths[child] = Math.max(this.matchLengths[child], this.matchLengths[this.failures[child]]);
+                pending.add(child);
+            }
+        }
+    }
+
+    /**
+     * @return state reached from {@code state} reading {@code c}
+     */
+    int next(final int state, final char c) {
+        int current = state;
+        while (true) {
+            final int index = Arrays.binarySearch(this.labels[current], c);
+            if (index >= 0) {
+                return this.targets[current][index];
+            }
+            if (current == 0) {
+                return 0;
+            }
+            current = this.failures[current];
+        }
+    }
+
+    /**
+     * @return length of the longest term ending on {@code state}, or zero if none.
+     */
+    int matchLength(final int state) {
+        return this.matchLengths[state];
+    }
+
+    /**
+     * @return length of the prefix of a term {@code state} stands for, so matches yet to come cannot start before
+     * that many characters back.
+     */
+    int depth(final int state) {
+        return this.depths[state];
+    }
+}
@@ -0,0 +1,71 @@
+package io.github.javiercanillas.jackson.masker.ser;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.jsontype.TypeSerializer;
+import com.fasterxml.jackson.databind.ser.BeanSerializerFactory;
+import com.fasterxml.jackson.databind.ser.ContextualSerializer;
+import com.fasterxml.jackson.databind.ser.ResolvableSerializer;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Serializer used by {@link MaskStringSerializer} when it is contextualized without a property (e.g. when registered
+ * as the serializer of a type through a module), so there is no declared type to find a serializer for.
+ * <p>
+ * The serializer the mapper has for the runtime class of each value is used, so modules and serializer modifiers
+ * apply. When that is a {@link MaskStringSerializer} (it might be the one registered for that class), the Jackson
+ * default serializer for the class is used instead, as asking the mapper again would only find the same one.
+ */
+final class DynamicValueSerializer extends StdSerializer<Object> {
+    private static final long serialVersionUID = 1L;
+
+    private final transient ConcurrentMap<Class<?>, JsonSerializer<Object>> serializers = new ConcurrentHashMap<>();
+
+    DynamicValueSerializer() {
+        super(Object.class);
+    }
+
+    @Override
+    public void serialize(final Object value, final JsonGenerator gen, final SerializerProvider provider) throws IOException {
+        serializerFor(value.getClass(), provider).serialize(value, gen, provider);
+    }
+
+    @Override
+    public void serializeWithType(final Object value, final JsonGenerator gen, final SerializerProvider provider,
+                                  final TypeSerializer typeSer) throws IOException {
+        serializerFor(value.getClass(), provider).serializeWithType(value, gen, provider, typeSer);
+    }
+
+    private JsonSerializer<Object> serializerFor(final Class<?> type, final SerializerProvider provider)
+            throws JsonMappingException {
+        JsonSerializer<Object> serializer = this.serializers.get(type);
+        if (serializer == null) {
+            serializer = provider.findValueSerializer(type, null);
+            if (serializer instanceof MaskStringSerializer) {
+                serializer = defaultSerializer(type, provider);
+            }
+            this.serializers.put(type, serializer);
+        }
+        return serializer;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static JsonSerializer<Object> defaultSerializer(final Class<?> type, final SerializerProvider provider)
+            throws JsonMappingException {
+        JsonSerializer<Object> serializer = BeanSerializerFactory.instance.createSerializer(provider,
+                provider.constructType(type));
+        if (serializer instanceof ResolvableSerializer) {
+            ((ResolvableSerializer) serializer).resolve(provider);
+        }
+        if (serializer instanceof ContextualSerializer) {
+            serializer = (JsonSerializer<Object>) ((ContextualSerializer) serializer).createContextual(provider, null);
+        }
+        return serializer;
+    }
+}
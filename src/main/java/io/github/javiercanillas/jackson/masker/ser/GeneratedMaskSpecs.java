@@ -0,0 +1,68 @@
+package io.github.javiercanillas.jackson.masker.ser;
+
+import io.github.javiercanillas.jackson.masker.MaskSpec;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.ServiceLoader;
+
+/**
+ * Lookup of specs given by the {@link MaskSpecProvider}s found on the class path, by declaring class. Providers are
+ * looked up on the class loader of this library and on the context class loader of the thread initializing it.
+ */
+final class GeneratedMaskSpecs {
+
+    private static final List<MaskSpecProvider> PROVIDERS = load();
+
+    private static final ClassValue<MaskSpecProvider> BY_TYPE = new ClassValue<>() {
+        @Override
+        protected MaskSpecProvider computeValue(final Class<?> type) {
+            for (final MaskSpecProvider provider : PROVIDERS) {
+                if (provider.getTypes().contains(type)) {
+                    return provider;
+                }
+            }
+            return null;
+        }
+    };
+
+    private GeneratedMaskSpecs() { }
+
+    /**
+     * @param type class declaring the member
+     * @param member name of the field or method
+     * @return the generated spec of the member, or null if there is none
+     */
+    static MaskSpec find(final Class<?> type, final String member) {
+        if (PROVIDERS.isEmpty()) {
+            return null;
+        }
+        final MaskSpecProvider provider = BY_TYPE.get(type);
+        return provider == null ? null : provider.forMember(type, member);
+    }
+
+    private static List<MaskSpecProvider> load() {
+        // the library might be loaded by a parent of the application class loader (shared lib folders, app servers)
+        return load(MaskSpecProvider.class.getClassLoader(), Thread.currentThread().getContextClassLoader());
+    }
+
+    /**
+     * @param loaders class loaders to look providers on, in order. Null ones are skipped.
+     * @return providers found, only the first one of each class, as a loader also sees the ones of its parents
+     */
+    static List<MaskSpecProvider> load(final ClassLoader... loaders) {
+        final Map<Class<?>, MaskSpecProvider> providers = new LinkedHashMap<>();
+        for (final ClassLoader loader : loaders) {
+            if (loader != null) {
+                ServiceLoader.load(MaskSpecProvider.class, loader)
+                        .forEach(provider -> providers.putIfAbsent(provider.getClass(), provider));
+            }
+        }
+        return providers.isEmpty()
+                ? Collections.emptyList()
+                : Collections.unmodifiableList(new ArrayList<>(providers.values()));
+    }
+}
@@ -0,0 +1,130 @@
+package io.github.javiercanillas.jackson.masker.ser;
+
+import com.fasterxml.jackson.databind.BeanProperty;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.cfg.MapperConfig;
+import com.fasterxml.jackson.databind.cfg.MapperConfigBase;
+import com.fasterxml.jackson.databind.introspect.AnnotatedMember;
+import io.github.javiercanillas.jackson.masker.MaskSpec;
+import io.github.javiercanillas.jackson.masker.annotation.MaskString;
+import io.github.javiercanillas.jackson.masker.jfr.MaskingEvents;
+
+import java.lang.ref.WeakReference;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * JVM wide cache of {@link MaskSpec}s and {@link MaskStringSerializer}s, shared by every
+ * {@link com.fasterxml.jackson.databind.ObjectMapper} (and its copies), so contextualizing a masked property is a
+ * lookup once its declaring class has been seen.
+ * <p>
+ * Specs are kept per declaring class on a {@link ClassValue}, so they go away with the class. Serializers are shared
+ * between equal specs wrapping the same delegate, and both specs and serializers are only weakly held here, so specs
+ * referencing application strategies or scanners don't keep their class loader alive.
+ */
+public final class MaskSpecCache {
+
+    private static final ClassValue<ConcurrentMap<String, CachedSpec>> SPECS = new ClassValue<>() {
+        @Override
+        protected ConcurrentMap<String, CachedSpec> computeValue(final Class<?> type) {
+            return new ConcurrentHashMap<>();
+        }
+    };
+
+    private static final Map<MaskSpec, Map<JsonSerializer<?>, WeakReference<MaskStringSerializer>>> SERIALIZERS =
+            new WeakHashMap<>();
+
+    private MaskSpecCache() { }
+
+    /**
+     * Find the spec declared for the given property, as {@link #forProperty(BeanProperty, MapperConfig)} does but
+     * without a mapper config, so mix-in annotations can't be told apart and the generated spec is used if any.
+     * @param property property to look the {@link MaskString} annotation on. It might be null.
+     * @return the spec or null if property is null or not annotated.
+     */
+    public static MaskSpec forProperty(final BeanProperty property) {
+        return forProperty(property, null);
+    }
+
+    /**
+     * Find the spec declared for the given property. A mix-in annotation wins, as does a getter's own annotation over
+     * the one of its field; otherwise the spec generated at compile time (see {@link MaskSpecProvider}) is used, and
+     * only without one the annotation is parsed. Generated specs already carry a getter's own annotation, so only
+     * mix-ins need to be checked here: when the mapper has any and the annotation found is not the one declared on
+     * the member.
+     * @param property property to look the {@link MaskString} annotation on. It might be null.
+     * @param config config of the mapper the property is serialized with, to look for mix-ins. It might be null.
+     * @return the spec or null if property is null or not annotated.
+     */
+    public static MaskSpec forProperty(final BeanProperty property, final MapperConfig<?> config) {
+        if (property == null) {
+            return null;
+        }
+        final AnnotatedMember member = property.getMember();
+        final MaskString annotation = property.getAnnotation(MaskString.class);
+        if (member != null && !isMixedIn(member, annotation, config)) {
+            final MaskSpec generated = GeneratedMaskSpecs.find(member.getDeclaringClass(), member.getName());
+            if (generated != null) {
+                return generated;
+            }
+        }
+        if (annotation == null) {
+            return null;
+        }
+        if (member == null) {
+            return MaskSpec.from(annotation);
+        }
+
+        final ConcurrentMap<String, CachedSpec> specs = SPECS.get(member.getDeclaringClass());
+        final CachedSpec cached = specs.get(member.getName());
+        // annotations are compared by identity: a mix-in annotation on another mapper is a different instance
+        if (cached != null && cached.annotation == annotation) {
+            return cached.spec;
+        }
+        final MaskSpec spec = MaskSpec.from(annotation);
+        specs.put(member.getName(), new CachedSpec(annotation, spec));
+        return spec;
+    }
+
+    private static boolean isMixedIn(final AnnotatedMember member, final MaskString annotation,
+                                     final MapperConfig<?> config) {
+        // without mix-ins there is no need to look at the member, annotations can only come from the class
+        return annotation != null && config instanceof MapperConfigBase
+                && ((MapperConfigBase<?, ?>) config).mixInCount() > 0
+                && !annotation.equals(member.getAnnotated().getAnnotation(MaskString.class));
+    }
+
+    /**
+     * Return a serializer masking with {@code spec} and wrapping {@code delegate}, reusing the one already built for an
+     * equal spec and the same delegate if any.
+     * @param spec masking spec
+     * @param delegate serializer used to write values when not masking
+     * @return the serializer
+     */
+    static MaskStringSerializer serializer(final MaskSpec spec, final JsonSerializer<Object> delegate) {
+        synchronized (SERIALIZERS) {
+            final Map<JsonSerializer<?>, WeakReference<MaskStringSerializer>> serializers =
+                    SERIALIZERS.computeIfAbsent(spec, key -> new WeakHashMap<>());
+            final WeakReference<MaskStringSerializer> reference = serializers.get(delegate);
+            MaskStringSerializer serializer = reference == null ? null : reference.get();
+            MaskingEvents.contextualized(serializer != null);
+            if (serializer == null) {
+                serializer = new MaskStringSerializer(delegate, spec);
+                serializers.put(delegate, new WeakReference<>(serializer));
+            }
+            return serializer;
+        }
+    }
+
+    private static final class CachedSpec {
+        private final MaskString annotation;
+        private final MaskSpec spec;
+
+        private CachedSpec(final MaskString annotation, final MaskSpec spec) {
+            this.annotation = annotation;
+            this.spec = spec;
+        }
+    }
+}
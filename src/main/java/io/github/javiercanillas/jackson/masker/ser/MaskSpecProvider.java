@@ -0,0 +1,28 @@
+package io.github.javiercanillas.jackson.masker.ser;
+
+import io.github.javiercanillas.jackson.masker.MaskSpec;
+
+import java.util.Set;
+
+/**
+ * Provides precompiled specs of {@link io.github.javiercanillas.jackson.masker.annotation.MaskString} members, so
+ * contextualizing them needs no annotation parsing. Implementations are found through {@link java.util.ServiceLoader},
+ * and are meant to be generated at compile time by the {@code jackson-masker-processor} annotation processor.
+ * <p>
+ * Provided specs take precedence over the annotations found on runtime, but for mix-in annotations, which win over
+ * them. A getter's own annotation wins over the one of its field.
+ */
+public interface MaskSpecProvider {
+
+    /**
+     * @return classes declaring the members this provider has specs for
+     */
+    Set<Class<?>> getTypes();
+
+    /**
+     * @param type class declaring the member, one of {@link #getTypes()}
+     * @param member name of the field or method, as declared
+     * @return the spec of the member, or null if it has none
+     */
+    MaskSpec forMember(Class<?> type, String member);
+}
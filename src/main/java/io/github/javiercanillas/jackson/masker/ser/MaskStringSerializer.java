@@ -1,27 +1,42 @@
 package io.github.javiercanillas.jackson.masker.ser;
 
 import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.json.UTF8JsonGenerator;
+import com.fasterxml.jackson.core.type.WritableTypeId;
 import com.fasterxml.jackson.databind.BeanProperty;
 import com.fasterxml.jackson.databind.JavaType;
 import com.fasterxml.jackson.databind.JsonMappingException;
 import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.databind.SerializerProvider;
 import com.fasterxml.jackson.databind.jsonFormatVisitors.JsonFormatVisitorWrapper;
 import com.fasterxml.jackson.databind.jsontype.TypeSerializer;
+import com.fasterxml.jackson.databind.ser.ContainerSerializer;
 import com.fasterxml.jackson.databind.ser.ContextualSerializer;
 import com.fasterxml.jackson.databind.ser.PropertyWriter;
+import com.fasterxml.jackson.databind.util.ClassUtil;
 import com.fasterxml.jackson.databind.util.NameTransformer;
+import io.github.javiercanillas.jackson.masker.MaskSpec;
 import io.github.javiercanillas.jackson.masker.MaskUtils;
-import io.github.javiercanillas.jackson.masker.annotation.MaskString;
+import io.github.javiercanillas.jackson.masker.jfr.MaskingEvents;
+import io.github.javiercanillas.jackson.masker.metrics.MaskingMetrics;
 import io.github.javiercanillas.jackson.masker.view.Masked;
 import lombok.Getter;
 
 import java.io.IOException;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
-import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.UUID;
 import java.util.function.Supplier;
 
 /**
@@ -29,29 +44,88 @@ import java.util.function.Supplier;
  */
 public class MaskStringSerializer extends JsonSerializer<Object> implements ContextualSerializer {
 
+    private static final String JACKSON_SERIALIZERS_PACKAGE = "com.fasterxml.jackson.databind.ser.";
+
     @Getter
     private final JsonSerializer<Object> nonMaskerSerializer;
     @Getter
-    private final int keepInitialCharacters;
-    @Getter
-    private final int keepLastCharacters;
+    private final MaskSpec spec;
+    /**
+     * Whether masked {@link String} values can be written directly into the generator. This is only the case when
+     * {@link #nonMaskerSerializer} is a Jackson standard implementation, since a custom one might write them differently.
+     */
+    private final boolean streaming;
+    /**
+     * Whether values are only masked when the {@link Masked} view is active. When false, values are always masked,
+     * which is used when the decision has already been taken by whoever picked this serializer.
+     */
     @Getter
-    private final char maskCharacter;
+    private final boolean viewDependent;
+    /**
+     * Whether masked {@link String} values are only made of {@link MaskSpec#getMaskCharacter()}s which need no json
+     * escaping, so their UTF-8 bytes can be written raw.
+     */
+    private final boolean rawUtf8;
+    /**
+     * Metrics of the property this serializer was contextualized for, null if not recording.
+     */
+    private final MaskingMetrics.Recorder recorder;
 
     /**
      * Jackson requires me to have a non-argument constructor but this instance seems never used directly for
      * serialization.
      */
     public MaskStringSerializer() {
-        this(null, MaskString.DEFAULTS_KEEP_INITIAL_CHARACTERS, MaskString.DEFAULTS_KEEP_LAST_CHARACTERS, MaskString.DEFAULTS_MASK_CHARACTER);
+        this(null, MaskSpec.DEFAULTS);
     }
 
     public MaskStringSerializer(final JsonSerializer<Object> nonMaskerSerializer, final int keepInitialCharacters,
                                 final int keepLastCharacters, final char maskCharacter) {
+        this(nonMaskerSerializer, MaskSpec.of(keepInitialCharacters, keepLastCharacters, maskCharacter));
+    }
+
+    public MaskStringSerializer(final JsonSerializer<Object> nonMaskerSerializer, final MaskSpec spec) {
+        this(nonMaskerSerializer, spec, true);
+    }
+
+    public MaskStringSerializer(final JsonSerializer<Object> nonMaskerSerializer, final MaskSpec spec,
+                                final boolean viewDependent) {
+        this(nonMaskerSerializer, spec, viewDependent, null);
+    }
+
+    public MaskStringSerializer(final JsonSerializer<Object> nonMaskerSerializer, final MaskSpec spec,
+                                final boolean viewDependent, final MaskingMetrics.Recorder recorder) {
         this.nonMaskerSerializer = nonMaskerSerializer;
-        this.keepInitialCharacters = keepInitialCharacters;
-        this.keepLastCharacters = keepLastCharacters;
-        this.maskCharacter = maskCharacter;
+        this.recorder = recorder;
+        this.spec = spec;
+        this.viewDependent = viewDependent;
+        this.streaming = nonMaskerSerializer instanceof DynamicValueSerializer
+                || (nonMaskerSerializer != null && isJacksonSerializer(nonMaskerSerializer));
+        final char maskCharacter = spec.getMaskCharacter();
+        this.rawUtf8 = spec.isPositional() && spec.getKeepInitialCharacters() == 0 && spec.getKeepLastCharacters() == 0
+                && maskCharacter >= ' ' && maskCharacter < 0x7F && maskCharacter != '"' && maskCharacter != '\\';
+    }
+
+    /**
+     * Jackson container serializers (e.g. for {@code List<Long>}) are not flagged as standard implementations, but
+     * they are Jackson's own too.
+     */
+    private static boolean isJacksonSerializer(final JsonSerializer<?> serializer) {
+        return ClassUtil.isJacksonStdImpl(serializer)
+                || (serializer instanceof ContainerSerializer
+                    && serializer.getClass().getName().startsWith(JACKSON_SERIALIZERS_PACKAGE));
+    }
+
+    public int getKeepInitialCharacters() {
+        return this.spec.getKeepInitialCharacters();
+    }
+
+    public int getKeepLastCharacters() {
+        return this.spec.getKeepLastCharacters();
+    }
+
+    public char getMaskCharacter() {
+        return this.spec.getMaskCharacter();
     }
 
     @Override
@@ -71,13 +145,60 @@ public class MaskStringSerializer extends JsonSerializer<Object> implements Cont
 
     @Override
     public void serialize(final Object value, final JsonGenerator gen, final SerializerProvider serializers) throws IOException {
-        this.nonMaskerSerializer.serialize(mask(value, serializers), gen, serializers);
+        if (this.viewDependent && !Masked.isEnabled(serializers)) {
+            this.nonMaskerSerializer.serialize(value, gen, serializers);
+        } else {
+            final Object event = MaskingEvents.beginValue();
+            serializeRecorded(value, gen, serializers);
+            if (event != null && MaskingEvents.endValue(event)) {
+                MaskingEvents.commitValue(event, value, characters(value), gen);
+            }
+        }
+    }
+
+    private void serializeRecorded(final Object value, final JsonGenerator gen, final SerializerProvider serializers)
+            throws IOException {
+        if (this.recorder == null) {
+            serializeMasked(value, gen, serializers);
+        } else {
+            final long start = System.nanoTime();
+            if (serializeMasked(value, gen, serializers)) {
+                this.recorder.masked(characters(value), System.nanoTime() - start);
+            } else {
+                this.recorder.passedThrough();
+            }
+        }
+    }
+
+    /**
+     * @return false if the value type is not supported, so it was written as it is.
+     */
+    private boolean serializeMasked(final Object value, final JsonGenerator gen, final SerializerProvider serializers)
+            throws IOException {
+        if ((value instanceof String || !writeMaskedScalar(value, gen, serializers))
+                && (!this.streaming || !writeMasked(value, gen, serializers))) {
+            final Object masked = mask(value);
+            this.nonMaskerSerializer.serialize(masked, gen, serializers);
+            return masked != value || value instanceof String;
+        }
+        return true;
     }
 
     @Override
     public void serializeWithType(Object value, JsonGenerator gen, SerializerProvider serializers,
                                   TypeSerializer typeSer) throws IOException {
-        this.nonMaskerSerializer.serializeWithType(mask(value, serializers), gen, serializers, typeSer);
+        if (this.viewDependent && !Masked.isEnabled(serializers)) {
+            this.nonMaskerSerializer.serializeWithType(value, gen, serializers, typeSer);
+            return;
+        }
+        final JsonToken shape = value instanceof String ? null : MaskedScalars.shapeOf(value);
+        if (shape == null) {
+            this.nonMaskerSerializer.serializeWithType(mask(value), gen, serializers, typeSer);
+        } else {
+            final WritableTypeId typeId = typeSer.writeTypePrefix(gen, typeSer.typeId(value, shape));
+            writeMaskedScalar(value, gen, serializers);
+            typeSer.writeTypeSuffix(gen, typeId);
+        }
     }
 
     @Override
@@ -117,40 +238,223 @@ public class MaskStringSerializer extends JsonSerializer<Object> implements Cont
 
     @Override
     public JsonSerializer<?> createContextual(final SerializerProvider serializers, final BeanProperty property) throws JsonMappingException {
-        var annotation = Optional.ofNullable(property).map(prop -> prop.getAnnotation(MaskString.class));
-        return new MaskStringSerializer(serializers.findValueSerializer(property.getType(), property),
-                Math.max(0, annotation.map(MaskString::keepInitialCharacters).orElse(MaskString.DEFAULTS_KEEP_INITIAL_CHARACTERS)),
-                Math.max(0, annotation.map(MaskString::keepLastCharacters).orElse(MaskString.DEFAULTS_KEEP_LAST_CHARACTERS)),
-                annotation.map(MaskString::maskCharacter).orElse(MaskString.DEFAULTS_MASK_CHARACTER));
-    }
-
-    private Object mask(Object value, SerializerProvider serializers) {
-        Object newValue;
-        if (Masked.isEnabled(serializers)) {
-            if (value instanceof String) {
-                newValue = MaskUtils.mask((String) value, this.keepInitialCharacters, this.keepLastCharacters, this.maskCharacter);
-            } else if (value.getClass().isArray()) {
-                newValue = MaskUtils.mask((String[]) value, this.keepInitialCharacters, this.keepLastCharacters, this.maskCharacter);
-            } else if (value instanceof List) {
-                newValue = MaskUtils.mask((List<String>) value, this.keepInitialCharacters, this.keepLastCharacters, this.maskCharacter);
-            } else if (value instanceof Set) {
-                newValue = MaskUtils.mask((Set<String>) value, this.keepInitialCharacters, this.keepLastCharacters, this.maskCharacter);
-            } else if (value instanceof Map) {
-                newValue = MaskUtils.maskMapValues((Map<?, String>) value, this.keepInitialCharacters, this.keepLastCharacters, this.maskCharacter);
+        if (property == null) {
+            return new MaskStringSerializer(new DynamicValueSerializer(), this.spec, this.viewDependent);
+        }
+        final MaskSpec propertySpec = MaskSpecCache.forProperty(property, serializers.getConfig());
+        final MaskSpec resolvedSpec = propertySpec == null ? MaskSpec.DEFAULTS : propertySpec;
+        final JsonSerializer<Object> delegate = serializers.findValueSerializer(property.getType(), property);
+        final MaskingMetrics.Recorder propertyRecorder = MaskingMetrics.recorderFor(property);
+        if (this.viewDependent && propertyRecorder == null) {
+            return MaskSpecCache.serializer(resolvedSpec, delegate);
+        }
+        MaskingEvents.contextualized(false);
+        return new MaskStringSerializer(delegate, resolvedSpec, this.viewDependent, propertyRecorder);
+    }
+
+    /**
+     * Write the masked value directly into the generator, element by element for arrays, collections and maps, so no
+     * masked copy of the value is ever built.
+     * @return false if the value cannot be streamed and should go through {@link #nonMaskerSerializer}.
+     */
+    private boolean writeMasked(final Object value, final JsonGenerator gen, final SerializerProvider serializers)
+            throws IOException {
+        if (value instanceof String) {
+            writeMasked((String) value, gen);
+        } else if (value instanceof Object[]) {
+            writeMaskedElements(value, Arrays.asList((Object[]) value), gen, serializers);
+        } else if (value instanceof Collection) {
+            writeMaskedElements(value, (Collection<?>) value, gen, serializers);
+        } else if (value instanceof Map) {
+            writeMasked((Map<?, ?>) value, gen, serializers);
+        } else {
+            return false;
+        }
+        return true;
+    }
+
+    private void writeMaskedElements(final Object container, final Collection<?> elements, final JsonGenerator gen,
+                                     final SerializerProvider serializers) throws IOException {
+        if (unwrapsSingleElementArrays(serializers, elements.size())) {
+            writeMaskedElement(elements.iterator().next(), gen, serializers);
+            return;
+        }
+        gen.writeStartArray(container, elements.size());
+        for (final Object element : elements) {
+            writeMaskedElement(element, gen, serializers);
+        }
+        gen.writeEndArray();
+    }
+
+    /**
+     * Write the map with masked values, with its entries sorted by key (the null one first) when
+     * {@link SerializationFeature#ORDER_MAP_ENTRIES_BY_KEYS} is enabled, as Jackson does.
+     */
+    private void writeMasked(final Map<?, ?> map, final JsonGenerator gen, final SerializerProvider serializers)
+            throws IOException {
+        gen.writeStartObject(map);
+        if (!serializers.isEnabled(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS) || map instanceof SortedMap) {
+            writeMaskedEntries(map.entrySet(), gen, serializers);
+        } else {
+            final Map<Object, Object> sorted = new TreeMap<>();
+            for (final Map.Entry<?, ?> entry : map.entrySet()) {
+                if (entry.getKey() == null) {
+                    writeMaskedEntries(List.of(entry), gen, serializers);
+                } else {
+                    sorted.put(entry.getKey(), entry.getValue());
+                }
+            }
+            writeMaskedEntries(sorted.entrySet(), gen, serializers);
+        }
+        gen.writeEndObject();
+    }
+
+    private void writeMaskedEntries(final Collection<? extends Map.Entry<?, ?>> entries, final JsonGenerator gen,
+                                    final SerializerProvider serializers) throws IOException {
+        Class<?> keyClass = null;
+        JsonSerializer<Object> keySerializer = null;
+        for (final Map.Entry<?, ?> entry : entries) {
+            final Object key = entry.getKey();
+            if (key == null) {
+                serializers.getDefaultNullKeySerializer().serialize(null, gen, serializers);
             } else {
-                // ups!! value type is not supported :(
-                newValue = value;
+                if (key.getClass() != keyClass) {
+                    keyClass = key.getClass();
+                    keySerializer = serializers.findKeySerializer(keyClass, null);
+                }
+                keySerializer.serialize(key, gen, serializers);
             }
-        } else {
-            newValue = value;
+            writeMaskedElement(entry.getValue(), gen, serializers);
+        }
+    }
+
+    private void writeMaskedElement(final Object element, final JsonGenerator gen, final SerializerProvider serializers)
+            throws IOException {
+        if (element == null) {
+            gen.writeNull();
+        } else if (element instanceof String) {
+            writeMasked((String) element, gen);
+        } else if (!writeMaskedScalar(element, gen, serializers)) {
+            // element type is not supported, same as with values it goes as it is
+            serializers.defaultSerializeValue(element, gen);
+        }
+    }
+
+    private static boolean unwrapsSingleElementArrays(final SerializerProvider serializers, final int size) {
+        return size == 1 && serializers.isEnabled(SerializationFeature.WRITE_SINGLE_ELEM_ARRAYS_UNWRAPPED);
+    }
+
+    /**
+     * Write numbers, {@link java.util.UUID}s, characters, optionals and primitive arrays masked without turning them
+     * into {@link String}s first. These are written directly even when {@link #nonMaskerSerializer} is a custom one,
+     * since it would not be able to handle the masked value anyway.
+     * @return false if the value is not a supported scalar.
+     */
+    private boolean writeMaskedScalar(final Object value, final JsonGenerator gen,
+                                      final SerializerProvider serializers) throws IOException {
+        return MaskedScalars.write(value, this.spec, gen,
+                serializers.isEnabled(SerializationFeature.WRITE_SINGLE_ELEM_ARRAYS_UNWRAPPED));
+    }
+
+    private void writeMasked(final String value, final JsonGenerator gen) throws IOException {
+        if (this.spec.isPositional() && writesUtf8(gen)) {
+            final byte[] buffer = MaskingBuffers.bytes(MaskUtils.maxUtf8Length(value.length()));
+            final int length = MaskUtils.maskUtf8(value, this.spec.getKeepInitialCharacters(),
+                    this.spec.getKeepLastCharacters(), this.spec.getMaskCharacter(), buffer, 0);
+            if (this.rawUtf8) {
+                gen.writeRawUTF8String(buffer, 0, length);
+            } else {
+                gen.writeUTF8String(buffer, 0, length);
+            }
+            return;
+        }
+        final char[] buffer = MaskingBuffers.chars(this.spec.maxMaskedLength(value.length()));
+        final int length = this.spec.mask(value, buffer, 0);
+        gen.writeString(buffer, 0, length);
+    }
+
+    /**
+     * Byte oriented generators take UTF-8 encoded values as they are, unless they escape characters beyond what json
+     * requires (custom escapes or non ASCII ones), which is only done for {@code char} based values.
+     */
+    private static boolean writesUtf8(final JsonGenerator gen) {
+        return gen instanceof UTF8JsonGenerator && gen.getCharacterEscapes() == null
+                && gen.getHighestEscapedChar() == 0;
+    }
+
+    /**
+     * @return quantity of characters of text values, zero for other ones
+     */
+    private static int characters(final Object value) {
+        if (value instanceof CharSequence) {
+            return ((CharSequence) value).length();
+        } else if (value instanceof char[]) {
+            return ((char[]) value).length;
+        } else if (value instanceof Object[]) {
+            return characters(Arrays.asList((Object[]) value));
+        } else if (value instanceof Map) {
+            return characters(((Map<?, ?>) value).values());
+        } else if (value instanceof Collection) {
+            int characters = 0;
+            for (final Object element : (Collection<?>) value) {
+                characters += element instanceof CharSequence ? ((CharSequence) element).length() : 0;
+            }
+            return characters;
+        }
+        return 0;
+    }
+
+    /**
+     * Masked copy of {@code value}, for serializers that cannot be bypassed. Containers are copied element by element,
+     * with every supported element turned into a masked {@link String}; sets become lists, so masked elements that
+     * end up equal are not collapsed.
+     */
+    private Object mask(final Object value) {
+        if (value instanceof String) {
+            return this.spec.mask((String) value);
+        } else if (value instanceof Object[]) {
+            final Object[] array = (Object[]) value;
+            final Object[] masked = value instanceof String[] ? new String[array.length] : new Object[array.length];
+            for (int i = 0; i < array.length; i++) {
+                masked[i] = maskElement(array[i]);
+            }
+            return masked;
+        } else if (value instanceof Collection) {
+            final List<Object> masked = new ArrayList<>(((Collection<?>) value).size());
+            for (final Object element : (Collection<?>) value) {
+                masked.add(maskElement(element));
+            }
+            return masked;
+        } else if (value instanceof Map) {
+            final Map<Object, Object> masked = new LinkedHashMap<>();
+            for (final Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                masked.put(entry.getKey(), maskElement(entry.getValue()));
+            }
+            return masked;
+        }
+        // ups!! value type is not supported :(
+        return value;
+    }
+
+    /**
+     * @return masked text of strings, integral numbers, {@link UUID}s and characters, or {@code element} itself if it
+     * is not supported.
+     */
+    private Object maskElement(final Object element) {
+        if (element instanceof char[]) {
+            return this.spec.mask(new String((char[]) element));
+        } else if (element instanceof CharSequence || element instanceof Long || element instanceof Integer
+                || element instanceof Short || element instanceof Byte || element instanceof BigInteger
+                || element instanceof UUID) {
+            return this.spec.mask(element.toString());
         }
-        return newValue;
+        return element;
     }
 
     private JsonSerializer<Object> wrappedResultOrElseNull(final Supplier<JsonSerializer<?>> supplier) {
         return Optional.ofNullable(supplier.get())
                 .map(JsonSerializer.class::cast)
-                .map(ser -> new MaskStringSerializer(ser, this.keepInitialCharacters, this.keepLastCharacters, this.maskCharacter))
+                .map(ser -> new MaskStringSerializer(ser, this.spec, this.viewDependent, this.recorder))
                 .orElse(null);
     }
 }
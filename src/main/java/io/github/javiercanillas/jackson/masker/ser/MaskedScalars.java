@@ -0,0 +1,244 @@
+package io.github.javiercanillas.jackson.masker.ser;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonToken;
+import io.github.javiercanillas.jackson.masker.MaskSpec;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Optional;
+import java.util.OptionalInt;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+/**
+ * Writes masked non {@link String} scalars: integral numbers and {@link UUID}s are rendered (digits or hex) straight
+ * into a {@link MaskingBuffers} buffer and masked there, {@code char[]} and {@link CharSequence} are masked from their
+ * own characters, so no intermediate {@link String} is built. Masked values are always written as json strings.
+ * <p>
+ * {@link BigInteger}s not fitting on a long, floating point numbers ({@link Double}, {@link Float},
+ * {@link BigDecimal}, and elements of primitive arrays) and boolean elements of primitive arrays, still go through
+ * their {@code toString()}.
+ */
+final class MaskedScalars {
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+    private static final String LONG_MIN_VALUE = Long.toString(Long.MIN_VALUE);
+    private static final int MAX_LONG_LENGTH = LONG_MIN_VALUE.length();
+    private static final int UUID_LENGTH = 36;
+    private static final int LONG_BITS = 64;
+
+    private MaskedScalars() { }
+
+    /**
+     * Write {@code value} masked, if it is a supported scalar.
+     * @return false if {@code value} is not supported (nothing was written).
+     */
+    static boolean write(final Object value, final MaskSpec spec, final JsonGenerator gen, final boolean unwrapSingle)
+            throws IOException {
+        if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            writeLong(((Number) value).longValue(), spec, gen);
+        } else if (value instanceof BigInteger) {
+            final BigInteger number = (BigInteger) value;
+            if (number.bitLength() < LONG_BITS) {
+                writeLong(number.longValue(), spec, gen);
+            } else {
+                writeChars(number.toString(), spec, gen);
+            }
+        } else if (value instanceof Double || value instanceof Float || value instanceof BigDecimal) {
+            writeChars(value.toString(), spec, gen);
+        } else if (value instanceof UUID) {
+            writeUuid((UUID) value, spec, gen);
+        } else if (value instanceof char[]) {
+            final char[] chars = (char[]) value;
+            final char[] buffer = MaskingBuffers.chars(spec.maxMaskedLength(chars.length));
+            gen.writeString(buffer, 0, spec.mask(chars, 0, chars.length, buffer, 0));
+        } else if (value instanceof CharSequence) {
+            writeChars((CharSequence) value, spec, gen);
+        } else if (value instanceof Optional || value instanceof OptionalLong || value instanceof OptionalInt) {
+            return writeOptional(value, spec, gen, unwrapSingle);
+        } else if (value instanceof long[]) {
+            final long[] array = (long[]) value;
+            startArray(array, array.length, gen, unwrapSingle);
+            for (final long element : array) {
+                writeLong(element, spec, gen);
+            }
+            endArray(array.length, gen, unwrapSingle);
+        } else if (value instanceof int[]) {
+            final int[] array = (int[]) value;
+            startArray(array, array.length, gen, unwrapSingle);
+            for (final int element : array) {
+                writeLong(element, spec, gen);
+            }
+            endArray(array.length, gen, unwrapSingle);
+        } else if (value instanceof short[]) {
+            final short[] array = (short[]) value;
+            startArray(array, array.length, gen, unwrapSingle);
+            for (final short element : array) {
+                writeLong(element, spec, gen);
+            }
+            endArray(array.length, gen, unwrapSingle);
+        } else if (value instanceof double[]) {
+            final double[] array = (double[]) value;
+            startArray(array, array.length, gen, unwrapSingle);
+            for (final double element : array) {
+                writeChars(Double.toString(element), spec, gen);
+            }
+            endArray(array.length, gen, unwrapSingle);
+        } else if (value instanceof float[]) {
+            final float[] array = (float[]) value;
+            startArray(array, array.length, gen, unwrapSingle);
+            for (final float element : array) {
+                writeChars(Float.toString(element), spec, gen);
+            }
+            endArray(array.length, gen, unwrapSingle);
+        } else if (value instanceof boolean[]) {
+            final boolean[] array = (boolean[]) value;
+            startArray(array, array.length, gen, unwrapSingle);
+            for (final boolean element : array) {
+                writeChars(Boolean.toString(element), spec, gen);
+            }
+            endArray(array.length, gen, unwrapSingle);
+        } else {
+            // byte[] goes base64 encoded by Jackson, there is nothing sensible to mask on it
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Json shape {@code value} is written with by {@link #write}, used to write type ids around it.
+     * @return null if {@code value} is not supported, or it is an empty optional.
+     */
+    static JsonToken shapeOf(final Object value) {
+        if (value instanceof Optional) {
+            final Object content = ((Optional<?>) value).orElse(null);
+            return content == null ? null : shapeOf(content);
+        } else if (value instanceof OptionalLong) {
+            return ((OptionalLong) value).isPresent() ? JsonToken.VALUE_STRING : null;
+        } else if (value instanceof OptionalInt) {
+            return ((OptionalInt) value).isPresent() ? JsonToken.VALUE_STRING : null;
+        } else if (value instanceof Long || value instanceof Integer || value instanceof Short
+                || value instanceof Byte || value instanceof BigInteger || value instanceof Double
+                || value instanceof Float || value instanceof BigDecimal || value instanceof UUID
+                || value instanceof char[] || value instanceof CharSequence) {
+            return JsonToken.VALUE_STRING;
+        } else if (value instanceof long[] || value instanceof int[] || value instanceof short[]
+                || value instanceof double[] || value instanceof float[] || value instanceof boolean[]) {
+            return JsonToken.START_ARRAY;
+        }
+        return null;
+    }
+
+    private static boolean writeOptional(final Object value, final MaskSpec spec, final JsonGenerator gen,
+                                         final boolean unwrapSingle) throws IOException {
+        if (value instanceof OptionalLong) {
+            final OptionalLong optional = (OptionalLong) value;
+            if (optional.isPresent()) {
+                writeLong(optional.getAsLong(), spec, gen);
+            } else {
+                gen.writeNull();
+            }
+            return true;
+        }
+        if (value instanceof OptionalInt) {
+            final OptionalInt optional = (OptionalInt) value;
+            if (optional.isPresent()) {
+                writeLong(optional.getAsInt(), spec, gen);
+            } else {
+                gen.writeNull();
+            }
+            return true;
+        }
+
+        final Object content = ((Optional<?>) value).orElse(null);
+        if (content == null) {
+            gen.writeNull();
+            return true;
+        }
+        return write(content, spec, gen, unwrapSingle);
+    }
+
+    private static void writeLong(final long value, final MaskSpec spec, final JsonGenerator gen) throws IOException {
+        final char[] buffer = MaskingBuffers.chars(MAX_LONG_LENGTH + spec.maxMaskedLength(MAX_LONG_LENGTH));
+        final int length = renderLong(value, buffer);
+        gen.writeString(buffer, MAX_LONG_LENGTH, spec.mask(buffer, 0, length, buffer, MAX_LONG_LENGTH));
+    }
+
+    private static void writeUuid(final UUID value, final MaskSpec spec, final JsonGenerator gen) throws IOException {
+        final char[] buffer = MaskingBuffers.chars(UUID_LENGTH + spec.maxMaskedLength(UUID_LENGTH));
+        renderUuid(value, buffer);
+        gen.writeString(buffer, UUID_LENGTH, spec.mask(buffer, 0, UUID_LENGTH, buffer, UUID_LENGTH));
+    }
+
+    private static void writeChars(final CharSequence value, final MaskSpec spec, final JsonGenerator gen)
+            throws IOException {
+        final char[] buffer = MaskingBuffers.chars(spec.maxMaskedLength(value.length()));
+        gen.writeString(buffer, 0, spec.mask(value, buffer, 0));
+    }
+
+    private static void startArray(final Object array, final int length, final JsonGenerator gen,
+                                   final boolean unwrapSingle) throws IOException {
+        if (length != 1 || !unwrapSingle) {
+            gen.writeStartArray(array, length);
+        }
+    }
+
+    private static void endArray(final int length, final JsonGenerator gen, final boolean unwrapSingle)
+            throws IOException {
+        if (length != 1 || !unwrapSingle) {
+            gen.writeEndArray();
+        }
+    }
+
+    /**
+     * Render the decimal digits of {@code value} at the beginning of {@code buffer}.
+     * @return quantity of characters rendered
+     */
+    static int renderLong(final long value, final char[] buffer) {
+        if (value == Long.MIN_VALUE) {
+            LONG_MIN_VALUE.getChars(0, MAX_LONG_LENGTH, buffer, 0);
+            return MAX_LONG_LENGTH;
+        }
+
+        long remaining = Math.abs(value);
+        int length = value < 0 ? 2 : 1;
+        for (long rest = remaining / 10; rest != 0; rest /= 10) {
+            length++;
+        }
+        int position = length;
+        do {
+            buffer[--position] = (char) ('0' + remaining % 10);
+            remaining /= 10;
+        } while (remaining != 0);
+        if (value < 0) {
+            buffer[0] = '-';
+        }
+        return length;
+    }
+
+    /**
+     * Render {@code value} in its canonical form (like {@link UUID#toString()}) at the beginning of {@code buffer}.
+     */
+    static void renderUuid(final UUID value, final char[] buffer) {
+        final long most = value.getMostSignificantBits();
+        final long least = value.getLeastSignificantBits();
+        renderHex(most >>> 32, 8, buffer, 0);
+        buffer[8] = '-';
+        renderHex(most >>> 16, 4, buffer, 9);
+        buffer[13] = '-';
+        renderHex(most, 4, buffer, 14);
+        buffer[18] = '-';
+        renderHex(least >>> 48, 4, buffer, 19);
+        buffer[23] = '-';
+        renderHex(least, 12, buffer, 24);
+    }
+
+    private static void renderHex(final long value, final int digits, final char[] buffer, final int offset) {
+        long remaining = value;
+        for (int i = offset + digits - 1; i >= offset; i--) {
+            buffer[i] = HEX[(int) (remaining & 0xF)];
+            remaining >>>= 4;
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package io.github.javiercanillas.jackson.masker.ser;
+
+/**
+ * Thread local scratch buffers used to write masked values straight into a
+ * {@link com.fasterxml.jackson.core.JsonGenerator} without building intermediate {@link String}s.
+ * <p>
+ * Buffers are only borrowed between masking a value and handing it to the generator, which copies them right away,
+ * so they are never shared across values. Buffers bigger than {@link #MAX_RETAINED_LENGTH} are not retained by the
+ * thread.
+ */
+final class MaskingBuffers {
+    static final int INITIAL_LENGTH = 256;
+    static final int MAX_RETAINED_LENGTH = 16 * 1024;
+
+    private static final ThreadLocal<char[]> CHARS = ThreadLocal.withInitial(() -> new char[INITIAL_LENGTH]);
+    private static final ThreadLocal<byte[]> BYTES = ThreadLocal.withInitial(() -> new byte[INITIAL_LENGTH]);
+
+    private MaskingBuffers() { }
+
+    /**
+     * Borrow a char buffer for the current thread.
+     * @param minLength minimum length required
+     * @return a buffer with, at least, {@code minLength} positions
+     */
+    static char[] chars(final int minLength) {
+        char[] buffer = CHARS.get();
+        if (buffer.length < minLength) {
+            buffer = new char[Math.max(minLength, buffer.length << 1)];
+            if (buffer.length <= MAX_RETAINED_LENGTH) {
+                CHARS.set(buffer);
+            }
+        }
+        return buffer;
+    }
+
+    /**
+     * Borrow a byte buffer for the current thread, used for UTF-8 encoded masked values.
+     * @param minLength minimum length required
+     * @return a buffer with, at least, {@code minLength} positions
+     */
+    static byte[] bytes(final int minLength) {
+        byte[] buffer = BYTES.get();
+        if (buffer.length < minLength) {
+            buffer = new byte[Math.max(minLength, buffer.length << 1)];
+            if (buffer.length <= MAX_RETAINED_LENGTH) {
+                BYTES.set(buffer);
+            }
+        }
+        return buffer;
+    }
+}
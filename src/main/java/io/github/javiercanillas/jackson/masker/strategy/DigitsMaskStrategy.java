@@ -0,0 +1,43 @@
+package io.github.javiercanillas.jackson.masker.strategy;
+
+import io.github.javiercanillas.jackson.masker.MaskSpec;
+
+/**
+ * Base for strategies masking digits only, keeping their format (separators, signs...).
+ */
+abstract class DigitsMaskStrategy implements MaskStrategy {
+
+    static int countDigits(final CharSequence value, final int start, final int end) {
+        int digits = 0;
+        for (int i = start; i < end; i++) {
+            if (isDigit(value.charAt(i))) {
+                digits++;
+            }
+        }
+        return digits;
+    }
+
+    /**
+     * Mask digits but the first {@code keepInitial} and the last {@code keepLast} ones, keeping any other character.
+     */
+    static int maskDigits(final CharSequence value, final int start, final int end, final int digits,
+                          final int keepInitial, final int keepLast, final MaskSpec spec, final char[] destination,
+                          final int offset) {
+        final int maskEnd = digits - keepLast;
+        int digit = 0;
+        for (int i = start; i < end; i++) {
+            final char c = value.charAt(i);
+            if (isDigit(c)) {
+                destination[offset + i - start] = (digit >= keepInitial && digit < maskEnd) ? spec.getMaskCharacter() : c;
+                digit++;
+            } else {
+                destination[offset + i - start] = c;
+            }
+        }
+        return end - start;
+    }
+
+    static boolean isDigit(final char c) {
+        return c >= '0' && c <= '9';
+    }
+}
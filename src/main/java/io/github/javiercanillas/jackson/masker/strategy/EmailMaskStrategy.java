@@ -0,0 +1,27 @@
+package io.github.javiercanillas.jackson.masker.strategy;
+
+import io.github.javiercanillas.jackson.masker.MaskSpec;
+
+/**
+ * Masks the local part of e-mail addresses, keeping the domain: {@code john@example.com} becomes
+ * {@code ****@example.com}. Quantities to keep apply to the local part. Values without {@code @} are masked as a
+ * whole, like {@link PositionMaskStrategy} does.
+ */
+public class EmailMaskStrategy extends PositionMaskStrategy {
+
+    @Override
+    public int mask(final CharSequence value, final int start, final int end, final MaskSpec spec,
+                    final char[] destination, final int offset) {
+        int at = end - 1;
+        while (at >= start && value.charAt(at) != '@') {
+            at--;
+        }
+        if (at < start) {
+            return super.mask(value, start, end, spec, destination, offset);
+        }
+
+        final int written = super.mask(value, start, at, spec, destination, offset);
+        MaskStrategies.copy(value, at, end, destination, offset + written);
+        return written + end - at;
+    }
+}
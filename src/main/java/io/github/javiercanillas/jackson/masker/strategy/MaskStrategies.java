@@ -0,0 +1,44 @@
+package io.github.javiercanillas.jackson.masker.strategy;
+
+import java.lang.reflect.InvocationTargetException;
+
+/**
+ * Shared {@link MaskStrategy} instances, one per class.
+ */
+public final class MaskStrategies {
+
+    private static final ClassValue<MaskStrategy> INSTANCES = new ClassValue<>() {
+        @Override
+        protected MaskStrategy computeValue(final Class<?> type) {
+            try {
+                return (MaskStrategy) type.getConstructor().newInstance();
+            } catch (final InstantiationException | IllegalAccessException | InvocationTargetException
+                           | NoSuchMethodException e) {
+                throw new IllegalArgumentException("Strategy " + type.getName()
+                        + " cannot be instantiated, it requires a public no arguments constructor.", e);
+            }
+        }
+    };
+
+    private MaskStrategies() { }
+
+    /**
+     * @param type strategy class
+     * @return the instance of the given strategy class
+     * @throws IllegalArgumentException if it cannot be instantiated.
+     */
+    public static MaskStrategy instance(final Class<? extends MaskStrategy> type) {
+        return INSTANCES.get(type);
+    }
+
+    static void copy(final CharSequence source, final int start, final int end, final char[] destination,
+                     final int offset) {
+        if (source instanceof String) {
+            ((String) source).getChars(start, end, destination, offset);
+        } else {
+            for (int i = start; i < end; i++) {
+                destination[offset + i - start] = source.charAt(i);
+            }
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package io.github.javiercanillas.jackson.masker.strategy;
+
+import io.github.javiercanillas.jackson.masker.MaskSpec;
+
+/**
+ * How a value is masked. Implementations must be stateless and thread safe, and, to be referenced from
+ * {@link io.github.javiercanillas.jackson.masker.annotation.MaskString#strategy()}, have a public no arguments
+ * constructor: a single instance per class is used, see {@link MaskStrategies#instance(Class)}.
+ * <p>
+ * Strategies write straight into a char buffer, so masking allocates nothing but the buffer.
+ */
+public interface MaskStrategy {
+
+    /**
+     * Mask characters between {@code start} and {@code end} of {@code value}, writing the result into
+     * {@code destination} starting at {@code offset}.
+     * @param value value holding the characters to mask
+     * @param start position of {@code value} where to start
+     * @param end position after the last character to mask
+     * @param spec masking parameters (quantities to keep, mask character)
+     * @param destination array where masked characters are written
+     * @param offset position of {@code destination} where to start writing
+     * @return quantity of characters written into {@code destination}, never more than {@code end - start}.
+     */
+    int mask(CharSequence value, int start, int end, MaskSpec spec, char[] destination, int offset);
+}
@@ -0,0 +1,32 @@
+package io.github.javiercanillas.jackson.masker.strategy;
+
+import io.github.javiercanillas.jackson.masker.MaskSpec;
+import io.github.javiercanillas.jackson.masker.scan.Luhn;
+
+/**
+ * Masks payment card numbers (PAN) keeping its last 4 digits, and at most its first 6 ones if
+ * {@link MaskSpec#getKeepInitialCharacters()} says so, as PCI DSS allows. Separators are kept:
+ * {@code 4111 1111 1111 1111} becomes {@code **** **** **** 1111}.
+ * <p>
+ * Values not looking like a PAN (13 to 19 digits passing the Luhn check) are masked as a whole, like
+ * {@link PositionMaskStrategy} does.
+ */
+public class PanMaskStrategy extends DigitsMaskStrategy {
+    private static final int MIN_DIGITS = 13;
+    private static final int MAX_DIGITS = 19;
+    private static final int MAX_KEEP_INITIAL = 6;
+    private static final int KEEP_LAST = 4;
+
+    private final PositionMaskStrategy fallback = new PositionMaskStrategy();
+
+    @Override
+    public int mask(final CharSequence value, final int start, final int end, final MaskSpec spec,
+                    final char[] destination, final int offset) {
+        final int digits = countDigits(value, start, end);
+        if (digits < MIN_DIGITS || digits > MAX_DIGITS || !Luhn.isValid(value, start, end)) {
+            return this.fallback.mask(value, start, end, spec, destination, offset);
+        }
+        return maskDigits(value, start, end, digits, Math.min(spec.getKeepInitialCharacters(), MAX_KEEP_INITIAL),
+                KEEP_LAST, spec, destination, offset);
+    }
+}
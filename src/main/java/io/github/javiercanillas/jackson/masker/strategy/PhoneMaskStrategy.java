@@ -0,0 +1,18 @@
+package io.github.javiercanillas.jackson.masker.strategy;
+
+import io.github.javiercanillas.jackson.masker.MaskSpec;
+
+/**
+ * Masks phone numbers digits, keeping their format: quantities to keep count digits only, so
+ * {@code +1 (555) 123-4567} with {@code keepInitialCharacters = 1} and {@code keepLastCharacters = 2} becomes
+ * {@code +1 (***) ***-**67}.
+ */
+public class PhoneMaskStrategy extends DigitsMaskStrategy {
+
+    @Override
+    public int mask(final CharSequence value, final int start, final int end, final MaskSpec spec,
+                    final char[] destination, final int offset) {
+        return maskDigits(value, start, end, countDigits(value, start, end), spec.getKeepInitialCharacters(),
+                spec.getKeepLastCharacters(), spec, destination, offset);
+    }
+}
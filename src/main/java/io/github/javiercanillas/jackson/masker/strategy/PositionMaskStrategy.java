@@ -0,0 +1,19 @@
+package io.github.javiercanillas.jackson.masker.strategy;
+
+import io.github.javiercanillas.jackson.masker.MaskSpec;
+import io.github.javiercanillas.jackson.masker.MaskUtils;
+
+/**
+ * Default strategy: keeps the first {@link MaskSpec#getKeepInitialCharacters()} and the last
+ * {@link MaskSpec#getKeepLastCharacters()} characters, as
+ * {@link MaskUtils#mask(String, int, int, char)} does.
+ */
+public class PositionMaskStrategy implements MaskStrategy {
+
+    @Override
+    public int mask(final CharSequence value, final int start, final int end, final MaskSpec spec,
+                    final char[] destination, final int offset) {
+        return MaskUtils.mask(value, start, end, spec.getKeepInitialCharacters(), spec.getKeepLastCharacters(),
+                spec.getMaskCharacter(), destination, offset);
+    }
+}
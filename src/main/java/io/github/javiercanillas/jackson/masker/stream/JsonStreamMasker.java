@@ -0,0 +1,246 @@
+package io.github.javiercanillas.jackson.masker.stream;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonPointer;
+import com.fasterxml.jackson.core.JsonStreamContext;
+import com.fasterxml.jackson.core.JsonToken;
+import io.github.javiercanillas.jackson.masker.MaskSpec;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Masks string values of existing json documents, token by token, without binding them to objects. Values are chosen
+ * by field name or by <a href="https://datatracker.ietf.org/doc/html/rfc6901">json pointer</a>, and masked with the
+ * same semantics as {@link io.github.javiercanillas.jackson.masker.MaskUtils#mask(String, int, int, char)}. Strings
+ * inside arrays are masked as the array itself, so <code>{"phones": ["1234", "5678"]}</code> is fully masked by a
+ * {@code phones} rule. Non string values are copied as they are.
+ * <p>
+ * Memory used is constant regardless of the document size: only the current token is held. Instances are immutable
+ * and can be shared across threads.
+ */
+public final class JsonStreamMasker {
+
+    private static final int INITIAL_BUFFER_LENGTH = 256;
+
+    private final JsonFactory factory;
+    private final Map<String, MaskSpec> fields;
+    private final PointerRule[] pointers;
+
+    private JsonStreamMasker(final JsonFactory factory, final Map<String, MaskSpec> fields,
+                             final PointerRule[] pointers) {
+        this.factory = factory;
+        this.fields = fields;
+        this.pointers = pointers;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Copy every remaining token of {@code parser} into {@code generator}, masking string values matching any rule.
+     * Neither of them is closed nor flushed.
+     * @param parser source of tokens
+     * @param generator destination of tokens
+     * @throws IOException if reading or writing fails
+     */
+    public void mask(final JsonParser parser, final JsonGenerator generator) throws IOException {
+        final boolean hasRules = !this.fields.isEmpty() || this.pointers.length > 0;
+        char[] buffer = null;
+        JsonToken token;
+        while ((token = parser.nextToken()) != null) {
+            final MaskSpec spec = (hasRules && token == JsonToken.VALUE_STRING)
+                    ? specFor(parser.getParsingContext()) : null;
+            if (spec == null) {
+                if (token == JsonToken.VALUE_NUMBER_INT || token == JsonToken.VALUE_NUMBER_FLOAT) {
+                    // copied as text, as copying the parsed value loses trailing zeros and digits of big decimals
+                    generator.writeNumber(parser.getTextCharacters(), parser.getTextOffset(), parser.getTextLength());
+                } else {
+                    generator.copyCurrentEvent(parser);
+                }
+                continue;
+            }
+
+            final int length = parser.getTextLength();
+            final int maxLength = spec.maxMaskedLength(length);
+            if (buffer == null || buffer.length < maxLength) {
+                buffer = new char[Math.max(maxLength, INITIAL_BUFFER_LENGTH)];
+            }
+            final int written = spec.mask(parser.getTextCharacters(), parser.getTextOffset(), length, buffer, 0);
+            generator.writeString(buffer, 0, written);
+        }
+    }
+
+    /**
+     * Mask the json document (or sequence of root values) read from {@code input} into {@code output}. Neither of
+     * them is closed, but {@code output} is flushed.
+     * @param input source
+     * @param output destination
+     * @throws IOException if reading or writing fails
+     */
+    public void mask(final InputStream input, final OutputStream output) throws IOException {
+        try (JsonParser parser = this.factory.createParser(input);
+             JsonGenerator generator = this.factory.createGenerator(output)) {
+            mask(configure(parser), configure(generator));
+        }
+    }
+
+    /**
+     * Mask the json document (or sequence of root values) read from {@code reader} into {@code writer}. Neither of
+     * them is closed, but {@code writer} is flushed.
+     * @param reader source
+     * @param writer destination
+     * @throws IOException if reading or writing fails
+     */
+    public void mask(final Reader reader, final Writer writer) throws IOException {
+        try (JsonParser parser = this.factory.createParser(reader);
+             JsonGenerator generator = this.factory.createGenerator(writer)) {
+            mask(configure(parser), configure(generator));
+        }
+    }
+
+    /**
+     * Mask the given json.
+     * @param json json to be masked
+     * @return if json is null, it will return null, otherwise the masked json.
+     * @throws IOException if json is malformed
+     */
+    public String mask(final String json) throws IOException {
+        if (json == null) {
+            return null;
+        }
+        final StringWriter writer = new StringWriter(json.length());
+        try (JsonParser parser = this.factory.createParser(json);
+             JsonGenerator generator = this.factory.createGenerator(writer)) {
+            mask(parser, generator);
+        }
+        return writer.toString();
+    }
+
+    private static JsonParser configure(final JsonParser parser) {
+        return parser.disable(JsonParser.Feature.AUTO_CLOSE_SOURCE);
+    }
+
+    private static JsonGenerator configure(final JsonGenerator generator) {
+        return generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+    }
+
+    private MaskSpec specFor(final JsonStreamContext valueContext) {
+        JsonStreamContext context = valueContext;
+        while (true) {
+            for (final PointerRule pointer : this.pointers) {
+                if (pointer.matches(context)) {
+                    return pointer.spec;
+                }
+            }
+            if (context.inObject()) {
+                return this.fields.get(context.getCurrentName());
+            }
+            if (!context.inArray()) {
+                return null;
+            }
+            context = context.getParent();
+        }
+    }
+
+    /**
+     * Json pointer split in segments, matched from the value up to the root, so no path is built per value.
+     */
+    private static final class PointerRule {
+        private final String[] properties;
+        private final int[] indexes;
+        private final MaskSpec spec;
+
+        private PointerRule(final JsonPointer pointer, final MaskSpec spec) {
+            final List<JsonPointer> segments = new ArrayList<>();
+            for (JsonPointer segment = pointer; !segment.matches(); segment = segment.tail()) {
+                segments.add(segment);
+            }
+            this.properties = new String[segments.size()];
+            this.indexes = new int[segments.size()];
+            for (int i = 0; i < this.properties.length; i++) {
+                this.properties[i] = segments.get(i).getMatchingProperty();
+                this.indexes[i] = segments.get(i).getMatchingIndex();
+            }
+            this.spec = spec;
+        }
+
+        private boolean matches(final JsonStreamContext valueContext) {
+            int i = this.properties.length - 1;
+            for (JsonStreamContext context = valueContext; !context.inRoot(); context = context.getParent(), i--) {
+                if (i < 0) {
+                    return false;
+                }
+                if (context.inObject()) {
+                    if (!this.properties[i].equals(context.getCurrentName())) {
+                        return false;
+                    }
+                } else if (this.indexes[i] != context.getCurrentIndex()) {
+                    return false;
+                }
+            }
+            return i < 0;
+        }
+    }
+
+    /**
+     * Builder of {@link JsonStreamMasker}.
+     */
+    public static class Builder {
+        private final Map<String, MaskSpec> fields = new HashMap<>();
+        private final Map<String, PointerRule> pointers = new HashMap<>();
+        private JsonFactory factory;
+
+        protected Builder() { }
+
+        /**
+         * Mask string values of fields named {@code name}, at any depth, with {@code spec}.
+         * @param name field name
+         * @param spec masking parameters
+         * @return this builder
+         */
+        public Builder field(final String name, final MaskSpec spec) {
+            this.fields.put(name, spec);
+            return this;
+        }
+
+        /**
+         * Mask string values at the given json pointer, like {@code /customer/document} or {@code /cards/0/number},
+         * with {@code spec}. Pointer rules take precedence over field rules.
+         * @param pointer json pointer expression
+         * @param spec masking parameters
+         * @return this builder
+         * @throws IllegalArgumentException if {@code pointer} is not a valid json pointer.
+         */
+        public Builder pointer(final String pointer, final MaskSpec spec) {
+            this.pointers.put(pointer, new PointerRule(JsonPointer.compile(pointer), spec));
+            return this;
+        }
+
+        /**
+         * Factory used to create parsers and generators, when not given. Defaults to a plain {@link JsonFactory}.
+         * @param factory json factory
+         * @return this builder
+         */
+        public Builder factory(final JsonFactory factory) {
+            this.factory = factory;
+            return this;
+        }
+
+        public JsonStreamMasker build() {
+            return new JsonStreamMasker(this.factory == null ? new JsonFactory() : this.factory,
+                    Map.copyOf(this.fields), this.pointers.values().toArray(new PointerRule[0]));
+        }
+    }
+}
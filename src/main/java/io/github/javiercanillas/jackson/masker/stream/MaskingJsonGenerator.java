@@ -0,0 +1,424 @@
+package io.github.javiercanillas.jackson.masker.stream;
+
+import com.fasterxml.jackson.core.Base64Variant;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerationException;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonStreamContext;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.util.JsonGeneratorDelegate;
+import io.github.javiercanillas.jackson.masker.MaskSpec;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * Generator masking string and number values of fields with the given names, whatever writes them: custom
+ * serializers, {@code @JsonAnyGetter} maps, {@code JsonNode} trees or plain jackson-core code.
+ * <p>
+ * Values are matched by the name of the field holding them, taken from the output context, the same way as field
+ * rules of {@link JsonStreamMasker}: values inside arrays are masked as the array itself, and objects nested in a
+ * masked field are matched by their own field names. Numbers of masked fields are written as masked strings, as their
+ * digits would leak otherwise. Raw values (i.e. {@code @JsonRawValue}) are masked on their text, unescaped if they are
+ * json strings, and binary values on their base64 text. Raw text other than values cannot be masked, so it is rejected
+ * on masked fields. Other values are written as they come.
+ * <pre>
+ * Map&lt;String, MaskSpec&gt; fields = Map.of("document", MaskSpec.of(0, 2, '*')); // build once, share
+ * try (JsonGenerator generator = new MaskingJsonGenerator(factory.createGenerator(out), fields)) {
+ *     mapper.writeValue(generator, payload);
+ * }
+ * </pre>
+ * The names map is neither copied nor checked, so it is cheap to wrap a generator per document; pass an immutable
+ * map shared by all of them. Instances are not thread safe, as any generator.
+ */
+public class MaskingJsonGenerator extends JsonGeneratorDelegate {
+
+    private static final int INITIAL_BUFFER_LENGTH = 256;
+    private static final JsonFactory RAW_VALUES = new JsonFactory();
+
+    private final Map<String, MaskSpec> fields;
+    private char[] buffer;
+
+    /**
+     * @param delegate generator to write to
+     * @param fields masking parameters by field name
+     */
+    public MaskingJsonGenerator(final JsonGenerator delegate, final Map<String, MaskSpec> fields) {
+        // copy methods are not delegated, so copied and tree values go through this generator too
+        super(delegate, false);
+        this.fields = fields;
+    }
+
+    @Override
+    public void writeString(final String text) throws IOException {
+        final MaskSpec spec = text == null ? null : currentSpec();
+        if (spec == null) {
+            super.writeString(text);
+        } else {
+            writeMasked(spec, text);
+        }
+    }
+
+    @Override
+    public void writeString(final char[] text, final int offset, final int len) throws IOException {
+        final MaskSpec spec = currentSpec();
+        if (spec == null) {
+            super.writeString(text, offset, len);
+        } else {
+            final char[] masked = buffer(spec.maxMaskedLength(len));
+            this.delegate.writeString(masked, 0, spec.mask(text, offset, len, masked, 0));
+        }
+    }
+
+    @Override
+    public void writeString(final SerializableString text) throws IOException {
+        final MaskSpec spec = currentSpec();
+        if (spec == null) {
+            super.writeString(text);
+        } else {
+            writeMasked(spec, text.getValue());
+        }
+    }
+
+    @Override
+    public void writeString(final Reader reader, final int len) throws IOException {
+        final MaskSpec spec = currentSpec();
+        if (spec == null) {
+            super.writeString(reader, len);
+            return;
+        }
+        final StringBuilder text = new StringBuilder(len < 0 ? INITIAL_BUFFER_LENGTH : len);
+        final char[] chunk = new char[INITIAL_BUFFER_LENGTH];
+        int remaining = len < 0 ? Integer.MAX_VALUE : len;
+        int read;
+        while (remaining > 0 && (read = reader.read(chunk, 0, Math.min(chunk.length, remaining))) >= 0) {
+            text.append(chunk, 0, read);
+            remaining -= read;
+        }
+        writeMasked(spec, text);
+    }
+
+    @Override
+    public void writeRawUTF8String(final byte[] text, final int offset, final int length) throws IOException {
+        final MaskSpec spec = currentSpec();
+        if (spec == null) {
+            super.writeRawUTF8String(text, offset, length);
+        } else {
+            // raw text comes escaped, masked once unescaped so kept characters don't show escape sequences
+            writeMaskedRawValue(spec, '"' + new String(text, offset, length, StandardCharsets.UTF_8) + '"');
+        }
+    }
+
+    @Override
+    public void writeUTF8String(final byte[] text, final int offset, final int length) throws IOException {
+        final MaskSpec spec = currentSpec();
+        if (spec == null) {
+            super.writeUTF8String(text, offset, length);
+        } else {
+            writeMasked(spec, new String(text, offset, length, StandardCharsets.UTF_8));
+        }
+    }
+
+    @Override
+    public void writeNumber(final short v) throws IOException {
+        final MaskSpec spec = currentSpec();
+        if (spec == null) {
+            super.writeNumber(v);
+        } else {
+            writeMasked(spec, Short.toString(v));
+        }
+    }
+
+    @Override
+    public void writeNumber(final int v) throws IOException {
+        final MaskSpec spec = currentSpec();
+        if (spec == null) {
+            super.writeNumber(v);
+        } else {
+            writeMasked(spec, Integer.toString(v));
+        }
+    }
+
+    @Override
+    public void writeNumber(final long v) throws IOException {
+        final MaskSpec spec = currentSpec();
+        if (spec == null) {
+            super.writeNumber(v);
+        } else {
+            writeMasked(spec, Long.toString(v));
+        }
+    }
+
+    @Override
+    public void writeNumber(final BigInteger v) throws IOException {
+        final MaskSpec spec = v == null ? null : currentSpec();
+        if (spec == null) {
+            super.writeNumber(v);
+        } else {
+            writeMasked(spec, v.toString());
+        }
+    }
+
+    @Override
+    public void writeNumber(final double v) throws IOException {
+        final MaskSpec spec = currentSpec();
+        if (spec == null) {
+            super.writeNumber(v);
+        } else {
+            writeMasked(spec, Double.toString(v));
+        }
+    }
+
+    @Override
+    public void writeNumber(final float v) throws IOException {
+        final MaskSpec spec = currentSpec();
+        if (spec == null) {
+            super.writeNumber(v);
+        } else {
+            writeMasked(spec, Float.toString(v));
+        }
+    }
+
+    @Override
+    public void writeNumber(final BigDecimal v) throws IOException {
+        final MaskSpec spec = v == null ? null : currentSpec();
+        if (spec == null) {
+            super.writeNumber(v);
+        } else {
+            writeMasked(spec, v.toPlainString());
+        }
+    }
+
+    @Override
+    public void writeNumber(final String encodedValue) throws IOException {
+        final MaskSpec spec = encodedValue == null ? null : currentSpec();
+        if (spec == null) {
+            super.writeNumber(encodedValue);
+        } else {
+            writeMasked(spec, encodedValue);
+        }
+    }
+
+    @Override
+    public void writeNumber(final char[] encodedValueBuffer, final int offset, final int len) throws IOException {
+        final MaskSpec spec = currentSpec();
+        if (spec == null) {
+            super.writeNumber(encodedValueBuffer, offset, len);
+        } else {
+            final char[] masked = buffer(spec.maxMaskedLength(len));
+            this.delegate.writeString(masked, 0, spec.mask(encodedValueBuffer, offset, len, masked, 0));
+        }
+    }
+
+    @Override
+    public void writeArray(final int[] array, final int offset, final int length) throws IOException {
+        if (currentSpec() == null) {
+            super.writeArray(array, offset, length);
+            return;
+        }
+        writeStartArray(array, length);
+        for (int i = offset, end = offset + length; i < end; i++) {
+            writeNumber(array[i]);
+        }
+        writeEndArray();
+    }
+
+    @Override
+    public void writeArray(final long[] array, final int offset, final int length) throws IOException {
+        if (currentSpec() == null) {
+            super.writeArray(array, offset, length);
+            return;
+        }
+        writeStartArray(array, length);
+        for (int i = offset, end = offset + length; i < end; i++) {
+            writeNumber(array[i]);
+        }
+        writeEndArray();
+    }
+
+    @Override
+    public void writeArray(final double[] array, final int offset, final int length) throws IOException {
+        if (currentSpec() == null) {
+            super.writeArray(array, offset, length);
+            return;
+        }
+        writeStartArray(array, length);
+        for (int i = offset, end = offset + length; i < end; i++) {
+            writeNumber(array[i]);
+        }
+        writeEndArray();
+    }
+
+    @Override
+    public void writeArray(final String[] array, final int offset, final int length) throws IOException {
+        if (currentSpec() == null) {
+            super.writeArray(array, offset, length);
+            return;
+        }
+        writeStartArray(array, length);
+        for (int i = offset, end = offset + length; i < end; i++) {
+            writeString(array[i]);
+        }
+        writeEndArray();
+    }
+
+    @Override
+    public void writeRawValue(final String text) throws IOException {
+        final MaskSpec spec = currentSpec();
+        if (spec == null) {
+            super.writeRawValue(text);
+        } else {
+            writeMaskedRawValue(spec, text);
+        }
+    }
+
+    @Override
+    public void writeRawValue(final String text, final int offset, final int len) throws IOException {
+        final MaskSpec spec = currentSpec();
+        if (spec == null) {
+            super.writeRawValue(text, offset, len);
+        } else {
+            writeMaskedRawValue(spec, text.substring(offset, offset + len));
+        }
+    }
+
+    @Override
+    public void writeRawValue(final char[] text, final int offset, final int len) throws IOException {
+        final MaskSpec spec = currentSpec();
+        if (spec == null) {
+            super.writeRawValue(text, offset, len);
+        } else {
+            writeMaskedRawValue(spec, new String(text, offset, len));
+        }
+    }
+
+    @Override
+    public void writeRaw(final String text) throws IOException {
+        checkNotMasked();
+        super.writeRaw(text);
+    }
+
+    @Override
+    public void writeRaw(final String text, final int offset, final int len) throws IOException {
+        checkNotMasked();
+        super.writeRaw(text, offset, len);
+    }
+
+    @Override
+    public void writeRaw(final SerializableString raw) throws IOException {
+        checkNotMasked();
+        super.writeRaw(raw);
+    }
+
+    @Override
+    public void writeRaw(final char[] text, final int offset, final int len) throws IOException {
+        checkNotMasked();
+        super.writeRaw(text, offset, len);
+    }
+
+    @Override
+    public void writeRaw(final char c) throws IOException {
+        checkNotMasked();
+        super.writeRaw(c);
+    }
+
+    @Override
+    public void writeBinary(final Base64Variant variant, final byte[] data, final int offset, final int len)
+            throws IOException {
+        final MaskSpec spec = currentSpec();
+        if (spec == null) {
+            super.writeBinary(variant, data, offset, len);
+        } else {
+            writeMasked(spec, variant.encode(Arrays.copyOfRange(data, offset, offset + len)));
+        }
+    }
+
+    @Override
+    public int writeBinary(final Base64Variant variant, final InputStream data, final int dataLength)
+            throws IOException {
+        final MaskSpec spec = currentSpec();
+        if (spec == null) {
+            return super.writeBinary(variant, data, dataLength);
+        }
+        final byte[] bytes = dataLength < 0 ? data.readAllBytes() : data.readNBytes(dataLength);
+        writeMasked(spec, variant.encode(bytes));
+        return bytes.length;
+    }
+
+    @Override
+    public void writeEmbeddedObject(final Object object) throws IOException {
+        // the delegate would write binary values straight away
+        if (object instanceof byte[] && currentSpec() != null) {
+            writeBinary((byte[]) object);
+        } else {
+            super.writeEmbeddedObject(object);
+        }
+    }
+
+    /**
+     * @return the spec of the field the next value belongs to, or null if it is not masked
+     */
+    private MaskSpec currentSpec() {
+        if (this.fields.isEmpty()) {
+            return null;
+        }
+        JsonStreamContext context = this.delegate.getOutputContext();
+        // array elements are transparent
+        while (context != null && context.inArray()) {
+            context = context.getParent();
+        }
+        return context != null && context.inObject() ? this.fields.get(context.getCurrentName()) : null;
+    }
+
+    private void checkNotMasked() throws IOException {
+        if (currentSpec() != null) {
+            throw new JsonGenerationException("Raw text cannot be masked, masked fields must be written as values",
+                    this);
+        }
+    }
+
+    /**
+     * Mask the text of a raw json value: the unescaped text of strings, the text of other scalars, or the raw value
+     * itself if it is not a scalar (or not json).
+     */
+    private void writeMaskedRawValue(final MaskSpec spec, final String raw) throws IOException {
+        String text = raw;
+        try (JsonParser parser = RAW_VALUES.createParser(raw)) {
+            final JsonToken token = parser.nextToken();
+            if (token == JsonToken.VALUE_NULL && parser.nextToken() == null) {
+                this.delegate.writeNull();
+                return;
+            }
+            if (token != null && token.isScalarValue()) {
+                final String scalar = parser.getText();
+                if (parser.nextToken() == null) {
+                    text = scalar;
+                }
+            }
+        } catch (final JsonProcessingException e) {
+            // masked as it comes
+        }
+        writeMasked(spec, text);
+    }
+
+    private void writeMasked(final MaskSpec spec, final CharSequence value) throws IOException {
+        final char[] masked = buffer(spec.maxMaskedLength(value.length()));
+        this.delegate.writeString(masked, 0, spec.mask(value, masked, 0));
+    }
+
+    private char[] buffer(final int minLength) {
+        if (this.buffer == null || this.buffer.length < minLength) {
+            this.buffer = new char[Math.max(minLength, INITIAL_BUFFER_LENGTH)];
+        }
+        return this.buffer;
+    }
+}
@@ -0,0 +1,398 @@
+package io.github.javiercanillas.jackson.masker.tool;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.io.SerializedString;
+import io.github.javiercanillas.jackson.masker.MaskSpec;
+import io.github.javiercanillas.jackson.masker.MaskUtils;
+import io.github.javiercanillas.jackson.masker.stream.JsonStreamMasker;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Batch masking of newline delimited json files (one document per line), i.e. to retro-mask log archives.
+ * <p>
+ * The input is split in line aligned chunks that are masked by a {@link JsonStreamMasker} across a
+ * {@link ForkJoinPool}, while the calling thread writes the results in the original order. Plain input files are
+ * memory mapped chunk by chunk, so reading is spread across workers too; {@code .gz} input is decompressed by the
+ * calling thread. Output files ending with {@code .gz} are compressed. Blank lines are dropped.
+ * <p>
+ * It can also be run from command line, see {@link #main(String[])}.
+ */
+public final class NdjsonMasker {
+
+    public static final int DEFAULT_CHUNK_SIZE = 4 * 1024 * 1024;
+
+    private static final String GZIP_EXTENSION = ".gz";
+    private static final int IO_BUFFER_SIZE = 64 * 1024;
+    private static final byte NEW_LINE = '\n';
+
+    private final JsonStreamMasker masker;
+    private final JsonFactory factory;
+    private final ForkJoinPool pool;
+    private final int chunkSize;
+    private final int maxInFlight;
+
+    /**
+     * Build a masker running on the common {@link ForkJoinPool} with {@link #DEFAULT_CHUNK_SIZE} chunks.
+     * @param masker masker applied to every line
+     */
+    public NdjsonMasker(final JsonStreamMasker masker) {
+        this(masker, ForkJoinPool.commonPool(), DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * Build a masker.
+     * @param masker masker applied to every line
+     * @param pool pool where chunks are masked
+     * @param chunkSize approximated size, in bytes, of every chunk. Lines are never split, so chunks holding longer
+     *                  lines are bigger.
+     * @throws IllegalArgumentException if {@code chunkSize} is less than 1.
+     */
+    public NdjsonMasker(final JsonStreamMasker masker, final ForkJoinPool pool, final int chunkSize) {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("Parameter chunkSize cannot be less than One.");
+        }
+        this.masker = masker;
+        this.factory = new JsonFactory();
+        this.pool = pool;
+        this.chunkSize = chunkSize;
+        // bounds memory: at most this many chunks (and their results) are held at once
+        this.maxInFlight = Math.max(2, pool.getParallelism() * 2);
+    }
+
+    /**
+     * Mask {@code input} into {@code output}, replacing it if exists.
+     * @param input newline delimited json file, compressed if its name ends with {@code .gz}
+     * @param output destination file, compressed if its name ends with {@code .gz}
+     * @return figures about the run
+     * @throws IOException if reading, parsing or writing fails
+     */
+    public Report mask(final Path input, final Path output) throws IOException {
+        final long start = System.nanoTime();
+        final long bytesRead;
+        final Pipeline pipeline;
+        try (OutputStream out = open(output)) {
+            pipeline = new Pipeline(out);
+            bytesRead = isGzip(input) ? readCompressed(input, pipeline) : readMapped(input, pipeline);
+            pipeline.finish();
+        } catch (final UncheckedIOException e) {
+            throw e.getCause();
+        }
+        return new Report(bytesRead, pipeline.bytesWritten, System.nanoTime() - start);
+    }
+
+    private long readMapped(final Path input, final Pipeline pipeline) throws IOException {
+        try (FileChannel channel = FileChannel.open(input, StandardOpenOption.READ)) {
+            final long size = channel.size();
+            long position = 0;
+            while (position < size) {
+                long window = Math.min(this.chunkSize, size - position);
+                ByteBuffer chunk = null;
+                while (chunk == null) {
+                    final ByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, position, window);
+                    final int end = (position + window == size) ? (int) window : lastLineEnd(mapped, (int) window);
+                    if (end > 0) {
+                        chunk = mapped.limit(end);
+                    } else {
+                        // a single line longer than the window
+                        window = Math.min(Math.min(window * 2, Integer.MAX_VALUE), size - position);
+                    }
+                }
+                pipeline.submit(chunk);
+                position += chunk.limit();
+            }
+            return size;
+        }
+    }
+
+    private long readCompressed(final Path input, final Pipeline pipeline) throws IOException {
+        long total = 0;
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(input), IO_BUFFER_SIZE)) {
+            byte[] buffer = new byte[this.chunkSize];
+            int length = 0;
+            int read;
+            while ((read = in.readNBytes(buffer, length, buffer.length - length)) > 0) {
+                length += read;
+                total += read;
+                final int end = lastLineEnd(ByteBuffer.wrap(buffer), length);
+                if (end == 0) {
+                    if (length == buffer.length) {
+                        buffer = Arrays.copyOf(buffer, buffer.length * 2);
+                    }
+                    continue;
+                }
+                pipeline.submit(ByteBuffer.wrap(Arrays.copyOf(buffer, end)));
+                System.arraycopy(buffer, end, buffer, 0, length - end);
+                length -= end;
+            }
+            if (length > 0) {
+                pipeline.submit(ByteBuffer.wrap(Arrays.copyOf(buffer, length)));
+            }
+        }
+        return total;
+    }
+
+    private static int lastLineEnd(final ByteBuffer buffer, final int length) {
+        for (int i = length - 1; i >= 0; i--) {
+            if (buffer.get(i) == NEW_LINE) {
+                return i + 1;
+            }
+        }
+        return 0;
+    }
+
+    private ByteArrayOutputStream maskChunk(final ByteBuffer chunk) {
+        final int length = chunk.remaining();
+        final ByteArrayOutputStream out = new ByteArrayOutputStream(length + 1);
+        // mapped chunks are read in place, instead of copied to the heap first
+        try (JsonParser parser = chunk.hasArray()
+                ? this.factory.createParser(chunk.array(), chunk.arrayOffset() + chunk.position(), length)
+                : this.factory.createParser(new ByteBufferInputStream(chunk));
+             JsonGenerator generator = this.factory.createGenerator(out)) {
+            generator.setRootValueSeparator(new SerializedString("\n"));
+            this.masker.mask(parser, generator);
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        if (out.size() > 0) {
+            out.write(NEW_LINE);
+        }
+        return out;
+    }
+
+    private static boolean isGzip(final Path path) {
+        return path.getFileName().toString().endsWith(GZIP_EXTENSION);
+    }
+
+    private static OutputStream open(final Path output) throws IOException {
+        final OutputStream out = Files.newOutputStream(output);
+        return isGzip(output) ? new GZIPOutputStream(out, IO_BUFFER_SIZE) : new BufferedOutputStream(out, IO_BUFFER_SIZE);
+    }
+
+    /**
+     * Chunks being masked, in submission order. Only the calling thread uses it.
+     */
+    private final class Pipeline {
+        private final ArrayDeque<ForkJoinTask<ByteArrayOutputStream>> inFlight = new ArrayDeque<>();
+        private final OutputStream out;
+        private long bytesWritten;
+
+        private Pipeline(final OutputStream out) {
+            this.out = out;
+        }
+
+        private void submit(final ByteBuffer chunk) throws IOException {
+            while (this.inFlight.size() >= maxInFlight) {
+                writeNext();
+            }
+            this.inFlight.add(pool.submit(() -> maskChunk(chunk)));
+        }
+
+        private void finish() throws IOException {
+            while (!this.inFlight.isEmpty()) {
+                writeNext();
+            }
+        }
+
+        private void writeNext() throws IOException {
+            final ByteArrayOutputStream masked = this.inFlight.poll().join();
+            masked.writeTo(this.out);
+            this.bytesWritten += masked.size();
+        }
+    }
+
+    /**
+     * Figures about a run.
+     */
+    public static final class Report {
+        private final long bytesRead;
+        private final long bytesWritten;
+        private final long elapsedNanos;
+
+        private Report(final long bytesRead, final long bytesWritten, final long elapsedNanos) {
+            this.bytesRead = bytesRead;
+            this.bytesWritten = bytesWritten;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        /**
+         * @return uncompressed bytes read
+         */
+        public long getBytesRead() {
+            return this.bytesRead;
+        }
+
+        /**
+         * @return uncompressed bytes written
+         */
+        public long getBytesWritten() {
+            return this.bytesWritten;
+        }
+
+        public long getElapsedNanos() {
+            return this.elapsedNanos;
+        }
+
+        /**
+         * @return uncompressed megabytes read per second
+         */
+        public double getMegabytesPerSecond() {
+            return this.elapsedNanos == 0 ? 0 : (this.bytesRead / (1024d * 1024d)) / (this.elapsedNanos / 1e9d);
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT, "%d bytes read, %d bytes written in %.3f s (%.1f MB/s)",
+                    this.bytesRead, this.bytesWritten, this.elapsedNanos / 1e9d, getMegabytesPerSecond());
+        }
+    }
+
+    /**
+     * Command line entry point:
+     * <pre>
+     * NdjsonMasker [--field name[=keepInitial,keepLast[,maskChar]]]... [--pointer /json/pointer[=...]]...
+     *              [--threads n] [--chunk-size bytes] input output
+     * </pre>
+     * At least one field or pointer is required. Fields and pointers without parameters are masked with
+     * {@link MaskUtils} defaults.
+     * @param args arguments
+     * @throws IOException if reading, parsing or writing fails
+     */
+    public static void main(final String[] args) throws IOException {
+        final JsonStreamMasker.Builder builder = JsonStreamMasker.builder();
+        int threads = ForkJoinPool.getCommonPoolParallelism();
+        int chunkSize = DEFAULT_CHUNK_SIZE;
+        boolean hasRules = false;
+        int i = 0;
+        try {
+            for (; i < args.length && args[i].startsWith("--"); i++) {
+                switch (args[i]) {
+                    case "--field":
+                        final String[] field = splitRule(args[++i]);
+                        builder.field(field[0], parseSpec(field[1]));
+                        hasRules = true;
+                        break;
+                    case "--pointer":
+                        final String[] pointer = splitRule(args[++i]);
+                        builder.pointer(pointer[0], parseSpec(pointer[1]));
+                        hasRules = true;
+                        break;
+                    case "--threads":
+                        threads = parsePositive("threads", args[++i]);
+                        break;
+                    case "--chunk-size":
+                        chunkSize = parsePositive("chunk-size", args[++i]);
+                        break;
+                    default:
+                        throw new IllegalArgumentException("Unknown option " + args[i]);
+                }
+            }
+        } catch (final IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+            usage(e.getMessage());
+            return;
+        }
+        if (!hasRules || args.length - i != 2) {
+            usage(null);
+            return;
+        }
+
+        final ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            final Report report = new NdjsonMasker(builder.build(), pool, chunkSize)
+                    .mask(Paths.get(args[i]), Paths.get(args[i + 1]));
+            System.err.println(report);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private static String[] splitRule(final String rule) {
+        final int separator = rule.lastIndexOf('=');
+        return separator < 0
+                ? new String[] { rule, null }
+                : new String[] { rule.substring(0, separator), rule.substring(separator + 1) };
+    }
+
+    private static int parsePositive(final String name, final String value) {
+        final int number = Integer.parseInt(value);
+        if (number < 1) {
+            throw new IllegalArgumentException("Parameter " + name + " cannot be less than One.");
+        }
+        return number;
+    }
+
+    private static MaskSpec parseSpec(final String spec) {
+        if (spec == null) {
+            return MaskSpec.DEFAULTS;
+        }
+        final String[] parts = spec.split(",", 3);
+        if (parts.length < 2 || (parts.length == 3 && parts[2].length() != 1)) {
+            throw new IllegalArgumentException("Invalid mask parameters " + spec);
+        }
+        return MaskSpec.of(Integer.parseInt(parts[0]), Integer.parseInt(parts[1]),
+                parts.length == 3 ? parts[2].charAt(0) : MaskUtils.DEFAULT_MASK_CHARACTER);
+    }
+
+    private static void usage(final String error) {
+        if (error != null) {
+            System.err.println(error);
+        }
+        System.err.println("Usage: NdjsonMasker [--field name[=keepInitial,keepLast[,maskChar]]]... "
+                + "[--pointer /json/pointer[=keepInitial,keepLast[,maskChar]]]... [--threads n] [--chunk-size bytes] "
+                + "input output");
+    }
+
+    /**
+     * Stream reading the remaining bytes of a buffer, moving its position.
+     */
+    private static final class ByteBufferInputStream extends InputStream {
+        private final ByteBuffer buffer;
+
+        private ByteBufferInputStream(final ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return this.buffer.hasRemaining() ? this.buffer.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(final byte[] bytes, final int offset, final int length) {
+            if (length == 0) {
+                return 0;
+            }
+            if (!this.buffer.hasRemaining()) {
+                return -1;
+            }
+            final int read = Math.min(length, this.buffer.remaining());
+            this.buffer.get(bytes, offset, read);
+            return read;
+        }
+
+        @Override
+        public int available() {
+            return this.buffer.remaining();
+        }
+    }
+}
@@ -20,6 +20,7 @@ public class Masked {
      * @return true if {@link Masked} view is found active, otherwise false.
      */
     public static boolean isEnabled(final SerializerProvider provider) {
-        return (null != provider.getActiveView() && Masked.class.isAssignableFrom(provider.getActiveView()));
+        final Class<?> activeView = provider.getActiveView();
+        return (null != activeView && (activeView == Masked.class || Masked.class.isAssignableFrom(activeView)));
     }
 }
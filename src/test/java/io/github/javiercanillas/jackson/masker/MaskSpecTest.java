@@ -0,0 +1,113 @@
+package io.github.javiercanillas.jackson.masker;
+
+import io.github.javiercanillas.jackson.masker.annotation.MaskString;
+import io.github.javiercanillas.jackson.masker.pseudonymization.Pseudonymizer;
+import io.github.javiercanillas.jackson.masker.scan.PiiPattern;
+import io.github.javiercanillas.jackson.masker.scan.PiiScanner;
+import io.github.javiercanillas.jackson.masker.strategy.EmailMaskStrategy;
+import io.github.javiercanillas.jackson.masker.strategy.MaskStrategies;
+import io.github.javiercanillas.jackson.masker.strategy.PositionMaskStrategy;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MaskSpecTest {
+
+    @MaskString(keepInitialCharacters = 1, keepLastCharacters = 2, maskCharacter = '#')
+    private String annotated;
+    @MaskString(keepInitialCharacters = 1, keepLastCharacters = 2, maskCharacter = '#')
+    private String sameAnnotated;
+    @MaskString(keepInitialCharacters = -1, keepLastCharacters = -2)
+    private String negativeAnnotated;
+    @MaskString(mode = MaskString.Mode.SCAN, scanFor = PiiPattern.EMAIL, keepInitialCharacters = 1)
+    private String scanAnnotated;
+    @MaskString(strategy = EmailMaskStrategy.class)
+    private String strategyAnnotated;
+    @MaskString(mode = MaskString.Mode.PSEUDONYMIZE, keepLastCharacters = 2)
+    private String pseudonymizeAnnotated;
+
+    private static MaskString annotationOf(String field) throws NoSuchFieldException {
+        return MaskSpecTest.class.getDeclaredField(field).getAnnotation(MaskString.class);
+    }
+
+    @Test
+    void of() {
+        final MaskSpec spec = MaskSpec.of(1, 2, '#');
+        assertEquals(1, spec.getKeepInitialCharacters());
+        assertEquals(2, spec.getKeepLastCharacters());
+        assertEquals('#', spec.getMaskCharacter());
+        assertEquals(MaskSpec.of(1, 2, '#'), spec);
+        assertEquals(MaskSpec.of(1, 2, '#').hashCode(), spec.hashCode());
+        assertNotEquals(MaskSpec.of(1, 2, '*'), spec);
+        assertThrows(IllegalArgumentException.class, () -> MaskSpec.of(-1, 0, '*'));
+        assertThrows(IllegalArgumentException.class, () -> MaskSpec.of(0, -1, '*'));
+    }
+
+    @Test
+    void from() throws NoSuchFieldException {
+        final MaskSpec spec = MaskSpec.from(annotationOf("annotated"));
+        assertEquals(MaskSpec.of(1, 2, '#'), spec);
+        assertSame(spec, MaskSpec.from(annotationOf("sameAnnotated")));
+        assertEquals(MaskSpec.DEFAULTS, MaskSpec.from(annotationOf("negativeAnnotated")));
+        assertNull(spec.getScanner());
+        assertEquals(MaskSpec.scanning(PiiScanner.of(PiiPattern.EMAIL), 1, 0, '*'),
+                MaskSpec.from(annotationOf("scanAnnotated")));
+    }
+
+    @Test
+    void withStrategy() throws NoSuchFieldException {
+        final MaskSpec spec = MaskSpec.from(annotationOf("strategyAnnotated"));
+        assertSame(MaskStrategies.instance(EmailMaskStrategy.class), spec.getStrategy());
+        assertFalse(spec.isPositional());
+        assertEquals(MaskSpec.DEFAULTS.withStrategy(new EmailMaskStrategy()).toString(), spec.toString());
+        assertEquals("****@b.com", spec.mask("john@b.com"));
+        final char[] destination = new char[10];
+        assertEquals(10, spec.mask("<john@b.com>".toCharArray(), 1, 10, destination, 0));
+        assertEquals("****@b.com", new String(destination));
+        assertEquals(MaskSpec.DEFAULTS, MaskSpec.DEFAULTS.withStrategy(new PositionMaskStrategy()));
+        assertTrue(MaskSpec.DEFAULTS.isPositional());
+    }
+
+    @Test
+    void pseudonymizing() throws NoSuchFieldException, IOException {
+        assertEquals(MaskSpec.pseudonymizing(null), MaskSpec.from(annotationOf("pseudonymizeAnnotated")));
+        final Pseudonymizer pseudonymizer = new Pseudonymizer(new byte[] { 1, 2, 3 });
+        final MaskSpec spec = MaskSpec.pseudonymizing(pseudonymizer);
+        assertTrue(spec.isPseudonymizing());
+        assertFalse(spec.isPositional());
+        assertSame(pseudonymizer, spec.getPseudonymizer());
+        assertNull(MaskSpec.DEFAULTS.getPseudonymizer());
+        assertEquals(Pseudonymizer.TOKEN_LENGTH, spec.maxMaskedLength(2));
+        assertEquals(2, MaskSpec.DEFAULTS.maxMaskedLength(2));
+
+        final String token = pseudonymizer.pseudonymize("42");
+        assertEquals(token, spec.mask("42"));
+        final char[] destination = new char[spec.maxMaskedLength(2)];
+        assertEquals(token, new String(destination, 0, spec.mask("42".toCharArray(), 0, 2, destination, 0)));
+        assertEquals(token, spec.mask("42", new StringBuilder()).toString());
+    }
+
+    @Test
+    void scanning() throws IOException {
+        final MaskSpec spec = MaskSpec.scanning(PiiScanner.of(PiiPattern.EMAIL), 1, 0, '#');
+        assertNotEquals(MaskSpec.of(1, 0, '#'), spec);
+        assertEquals("to j#######", spec.mask("to jo@b.com"));
+        final char[] destination = new char[11];
+        assertEquals(11, spec.mask("to jo@b.com", destination, 0));
+        assertEquals("to j#######", new String(destination));
+        assertEquals("to j#######", spec.mask("to jo@b.com", new StringBuilder()).toString());
+        assertThrows(IllegalArgumentException.class, () -> MaskSpec.scanning(null, 0, 0, '*'));
+    }
+
+    @Test
+    void mask() throws IOException {
+        final MaskSpec spec = MaskSpec.of(1, 2, '#');
+        assertEquals("a##de", spec.mask("abcde"));
+        final char[] destination = new char[5];
+        assertEquals(5, spec.mask("abcde", destination, 0));
+        assertEquals("a##de", new String(destination));
+        assertEquals("a##de", spec.mask("abcde", new StringBuilder()).toString());
+    }
+}
@@ -1,11 +1,17 @@
 package io.github.javiercanillas.jackson.masker;
 
+import io.github.javiercanillas.jackson.masker.scan.PiiPattern;
+import io.github.javiercanillas.jackson.masker.scan.PiiScanner;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
 
+import java.io.IOException;
+import java.io.StringWriter;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -29,7 +35,12 @@ class MaskUtilsTest {
                 Arguments.of("abc", 0, 1, '*', "**c"),
                 Arguments.of("abc", 1, 0, '*', "a**"),
                 Arguments.of("abc", 1, 1, '*', "a*c"),
-                Arguments.of("abcde", 2, 1, '*', "ab**e")
+                Arguments.of("abcde", 2, 1, '*', "ab**e"),
+                Arguments.of("\uD83D\uDE00", 0, 0, '*', "*"),
+                Arguments.of("\uD83D\uDE00ab\uD83D\uDE00", 1, 1, '*', "\uD83D\uDE00**\uD83D\uDE00"),
+                Arguments.of("a\uD83D\uDE00\uD83D\uDE00b", 1, 1, '*', "a**b"),
+                Arguments.of("\uD83D\uDE00\u4E2D\u00E9", 1, 0, '#', "\uD83D\uDE00##"),
+                Arguments.of("\uD83Dx", 0, 1, '*', "*x")
         );
     }
 
@@ -39,6 +50,98 @@ class MaskUtilsTest {
         assertEquals(result, MaskUtils.mask(value, keepInitials, keepLast, maskChar));
     }
 
+    @ParameterizedTest
+    @MethodSource("stringArguments")
+    void maskIntoCharArray(String value, int keepInitials, int keepLast, char maskChar, String result) {
+        final char[] destination = new char[16];
+        final int written = MaskUtils.mask(value, keepInitials, keepLast, maskChar, destination, 2);
+        if (value == null) {
+            assertEquals(0, written);
+        } else {
+            assertEquals(result, new String(destination, 2, written));
+        }
+    }
+
+    @ParameterizedTest
+    @MethodSource("stringArguments")
+    void maskCharWindowIntoCharArray(String value, int keepInitials, int keepLast, char maskChar, String result) {
+        if (value == null) {
+            return;
+        }
+        final char[] source = ("<<" + value + ">>").toCharArray();
+        final char[] destination = new char[16];
+        final int written = MaskUtils.mask(source, 2, value.length(), keepInitials, keepLast, maskChar, destination, 1);
+        assertEquals(result, new String(destination, 1, written));
+    }
+
+    @ParameterizedTest
+    @MethodSource("stringArguments")
+    void maskUtf8(String value, int keepInitials, int keepLast, char maskChar, String result) {
+        final byte[] destination = new byte[2 + MaskUtils.maxUtf8Length(16)];
+        final int written = MaskUtils.maskUtf8(value, keepInitials, keepLast, maskChar, destination, 2);
+        if (value == null) {
+            assertEquals(0, written);
+        } else {
+            assertEquals(result, new String(destination, 2, written, StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    void maskMatches() {
+        final PiiScanner scanner = PiiScanner.of(PiiPattern.EMAIL, PiiPattern.CARD_NUMBER);
+        final String value = "mail john@example.com, card 4111 1111 1111 1111";
+        assertEquals("mail j***********.com, card 4**************1111",
+                MaskUtils.maskMatches(value, scanner, 1, 4, '*'));
+        assertSame(value, MaskUtils.maskMatches(value, PiiScanner.of(PiiPattern.PHONE_NUMBER), 0, 0, '*'));
+        assertNull(MaskUtils.maskMatches(null, scanner, 0, 0, '*'));
+
+        final char[] destination = new char[value.length() + 1];
+        assertEquals(value.length(), MaskUtils.maskMatches(value, scanner, 0, 0, '#', destination, 1));
+        assertEquals("mail ################, card ###################", new String(destination, 1, value.length()));
+        assertThrows(IllegalArgumentException.class, () -> MaskUtils.maskMatches(value, scanner, -1, 0, '*'));
+    }
+
+    @ParameterizedTest
+    @MethodSource("stringArguments")
+    void maskIntoAppendable(String value, int keepInitials, int keepLast, char maskChar, String result) throws IOException {
+        final StringBuilder destination = MaskUtils.mask(value, keepInitials, keepLast, maskChar, new StringBuilder(">"));
+        assertEquals(value == null ? ">" : ">" + result, destination.toString());
+    }
+
+    @ParameterizedTest
+    @MethodSource("stringArguments")
+    void lazyMask(String value, int keepInitials, int keepLast, char maskChar, String result) throws IOException {
+        final MaskedCharSequence masked = MaskUtils.lazyMask(value, keepInitials, keepLast, maskChar);
+        if (value == null) {
+            assertNull(masked);
+            return;
+        }
+        assertEquals(result, masked.toString());
+        assertEquals(result.length(), masked.length());
+        assertEquals(result, new StringBuilder().append(masked).toString());
+        assertEquals(result, masked.appendTo(new StringWriter()).toString());
+        for (int start = 0; start <= result.length(); start++) {
+            for (int end = start; end <= result.length(); end++) {
+                final CharSequence window = masked.subSequence(start, end);
+                assertEquals(result.substring(start, end), window.toString());
+                assertEquals(result.substring(start, end), ((MaskedCharSequence) window).appendTo(new StringBuilder()).toString());
+            }
+        }
+        assertThrows(IndexOutOfBoundsException.class, () -> masked.charAt(result.length()));
+        assertThrows(IndexOutOfBoundsException.class, () -> masked.charAt(-1));
+    }
+
+    @Test
+    void lazyMaskReadsValueOnDemand() {
+        final StringBuilder value = new StringBuilder("abcdef");
+        final MaskedCharSequence masked = MaskUtils.lazyMask(value, 2, 1, '*');
+        // the view reads the value when needed, characters to keep are found up front
+        value.setCharAt(0, 'z');
+        assertEquals('z', masked.charAt(0));
+        assertEquals("zb***f", masked.toString());
+        assertThrows(IllegalArgumentException.class, () -> MaskUtils.lazyMask("abc", -1, 0, '*'));
+    }
+
     private static Stream<Arguments> stringArrayArguments() {
         return Stream.of(
                 Arguments.of(null, 0, 0, '*', null),
@@ -63,6 +166,42 @@ class MaskUtilsTest {
 
     }
 
+    @ParameterizedTest
+    @MethodSource("stringArrayArguments")
+    void maskIntoDestination(String[] value, int keepInitial, int keepLast, char maskChar, String[] result) {
+        if (value != null) {
+            final String[] destination = new String[value.length + 1];
+            assertSame(destination, MaskUtils.mask(value, destination, keepInitial, keepLast, maskChar));
+            IntStream.range(0, result.length).forEach(i -> assertEquals(result[i], destination[i]));
+            assertNull(destination[value.length]);
+        }
+    }
+
+    @ParameterizedTest
+    @MethodSource("stringArrayArguments")
+    void maskInPlace(String[] value, int keepInitial, int keepLast, char maskChar, String[] result) {
+        if (value != null) {
+            final String[] values = value.clone();
+            assertSame(values, MaskUtils.maskInPlace(values, keepInitial, keepLast, maskChar));
+            assertArrayEquals(result, values);
+        }
+    }
+
+    @Test
+    void maskInPlaceAboveParallelThreshold() {
+        final String[] values = IntStream.range(0, MaskUtils.PARALLEL_THRESHOLD * 4 + 3)
+                .mapToObj(i -> "value" + i)
+                .toArray(String[]::new);
+        MaskUtils.maskInPlace(values, 1, 1, '*');
+        IntStream.range(0, values.length).forEach(i ->
+                assertEquals(MaskUtils.mask("value" + i, 1, 1, '*'), values[i]));
+    }
+
+    @Test
+    void maskIntoShorterDestination() {
+        assertThrows(IllegalArgumentException.class, () -> MaskUtils.mask(new String[2], new String[1], 0, 0, '*'));
+    }
+
     private static Stream<Arguments> stringListArguments() {
         return Stream.of(
                 Arguments.of(null, 0, 0, '*', null),
@@ -131,9 +270,23 @@ class MaskUtilsTest {
         }
     }
 
+    @Test
+    void maskMapValuesIntoDestination() {
+        final Map<Integer, String> source = new LinkedHashMap<>();
+        IntStream.range(0, MaskUtils.PARALLEL_THRESHOLD + 1).forEach(i -> source.put(i, "value" + i));
+        source.put(-1, null);
+
+        final LinkedHashMap<Integer, String> masked = MaskUtils.maskMapValues(source,
+                new LinkedHashMap<>(source.size() * 2), 0, 2, '#');
+        assertEquals(List.copyOf(source.keySet()), List.copyOf(masked.keySet()));
+        source.forEach((key, val) -> assertEquals(MaskUtils.mask(val, 0, 2, '#'), masked.get(key)));
+    }
+
     @Test
     void maskIllegalArgumentException() {
         assertThrows(IllegalArgumentException.class, () -> MaskUtils.mask("abc", -1, -1, '*'));
         assertThrows(IllegalArgumentException.class, () -> MaskUtils.mask("abc", 0, -1, '*'));
+        assertThrows(IllegalArgumentException.class, () -> MaskUtils.mask("abc", -1, 0, '*', new char[3], 0));
+        assertThrows(IndexOutOfBoundsException.class, () -> MaskUtils.mask("abc", 0, 1, '*', new char[2], 0));
     }
 }
\ No newline at end of file
@@ -0,0 +1,12 @@
+package io.github.javiercanillas.jackson.masker;
+
+import io.github.javiercanillas.jackson.masker.annotation.MaskString;
+
+/**
+ * Top-level superclass for {@link MaskedToStringTest}, so its private fields are not reachable as a nestmate's.
+ */
+class MaskedToStringBase {
+    private String id = "r-1";
+    @MaskString(keepLastCharacters = 2)
+    private String token = "secret";
+}
@@ -0,0 +1,14 @@
+package io.github.javiercanillas.jackson.masker;
+
+/**
+ * Top-level class for {@link MaskedToStringTest}, holding a masked field two objects deep.
+ */
+class MaskedToStringRoot extends MaskedToStringBase {
+    private String name = "x";
+    private MaskedToStringTest.Holder holder = new MaskedToStringTest.Holder();
+
+    @Override
+    public String toString() {
+        return MaskedToString.toString(this);
+    }
+}
@@ -0,0 +1,152 @@
+package io.github.javiercanillas.jackson.masker;
+
+import io.github.javiercanillas.jackson.masker.annotation.MaskString;
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MaskedToStringTest {
+
+    static class Base {
+        private String id = "c-1";
+    }
+
+    static class Customer extends Base {
+        private String name = "John";
+        @MaskString(keepInitialCharacters = 1, keepLastCharacters = 12)
+        private String email = "john@example.com";
+        private int age = 42;
+        private float score = 1.1f;
+        private boolean active = true;
+        private long document = 30123456L;
+        @MaskString(keepLastCharacters = 1)
+        private List<String> phones = List.of("1234", "5678");
+        @MaskString
+        private Map<String, String> attributes = new LinkedHashMap<>(Map.of("key", "value"));
+        @MaskString(keepLastCharacters = 1)
+        private Optional<String> nickname = Optional.of("johnny");
+        private Address address = new Address();
+        private String notes;
+
+        @MaskString(keepLastCharacters = 2)
+        public long getDocument() {
+            return this.document;
+        }
+
+        @Override
+        public String toString() {
+            return MaskedToString.toString(this);
+        }
+    }
+
+    static class Address {
+        @MaskString(keepLastCharacters = 3)
+        private String street = "Main St 123";
+        private Plain plain = new Plain();
+    }
+
+    static class Plain {
+        @Override
+        public String toString() {
+            return "plain";
+        }
+    }
+
+    static class Holder {
+        private Card card = new Card();
+
+        @Override
+        public String toString() {
+            // as Lombok would write it
+            return "Holder(card=" + this.card + ")";
+        }
+    }
+
+    static class Card {
+        @MaskString(keepLastCharacters = 4)
+        private String number = "4111111111111111";
+
+        @Override
+        public String toString() {
+            return "Card(number=" + this.number + ")";
+        }
+    }
+
+    static class Node {
+        private String name;
+        private Node next;
+        @MaskString
+        private String secret = "abc";
+
+        Node(final String name) {
+            this.name = name;
+        }
+    }
+
+    @Test
+    void lombokLikeOutput() {
+        assertEquals("MaskedToStringTest.Customer(id=c-1, name=John, email=j***@example.com, age=42, score=1.1, "
+                        + "active=true, document=******56, phones=[***4, ***8], attributes={key=*****}, "
+                        + "nickname=Optional[*****y], address=MaskedToStringTest.Address(street=********123, "
+                        + "plain=plain), notes=null)",
+                new Customer().toString());
+    }
+
+    @Test
+    void nestedInContainers() {
+        assertEquals("[MaskedToStringTest.Address(street=********123, plain=plain), 1, null]",
+                MaskedToString.toString(new Object[]{new Address(), 1, null}));
+        assertEquals("{a=MaskedToStringTest.Address(street=********123, plain=plain)}",
+                MaskedToString.toString(Map.of("a", new Address())));
+    }
+
+    @Test
+    void plainValues() {
+        assertEquals("null", MaskedToString.toString(null));
+        assertEquals("text", MaskedToString.toString("text"));
+        assertEquals("42", MaskedToString.toString(42));
+        assertEquals("[1, 2]", MaskedToString.toString(new int[]{1, 2}));
+    }
+
+    @Test
+    void appendTo() {
+        final StringBuilder builder = new StringBuilder("> ");
+        assertSame(builder, MaskedToString.appendTo(new Address(), builder));
+        assertEquals("> MaskedToStringTest.Address(street=********123, plain=plain)", builder.toString());
+    }
+
+    @Test
+    void reentrant() {
+        // Customer.toString() is called while writing the list, on the same thread
+        final Customer customer = new Customer();
+        assertEquals("[" + customer + "]", MaskedToString.toString(List.of(new Object() {
+            @Override
+            public String toString() {
+                return customer.toString();
+            }
+        })));
+    }
+
+    @Test
+    void nestedObjectsWithoutMaskedFieldsOfTheirOwn() {
+        assertEquals("MaskedToStringRoot(id=r-1, token=****et, name=x, "
+                        + "holder=MaskedToStringTest.Holder(card=MaskedToStringTest.Card(number=************1111)))",
+                new MaskedToStringRoot().toString());
+    }
+
+    @Test
+    void cycles() {
+        final Node first = new Node("first");
+        final Node second = new Node("second");
+        first.next = second;
+        second.next = first;
+        assertEquals("MaskedToStringTest.Node(name=first, next=MaskedToStringTest.Node(name=second, "
+                        + "next=MaskedToStringTest.Node(...), secret=***), secret=***)",
+                MaskedToString.toString(first));
+    }
+}
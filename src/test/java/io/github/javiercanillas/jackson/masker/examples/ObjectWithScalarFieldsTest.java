@@ -0,0 +1,162 @@
+package io.github.javiercanillas.jackson.masker.examples;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import io.github.javiercanillas.jackson.masker.annotation.MaskString;
+import io.github.javiercanillas.jackson.masker.view.Masked;
+import lombok.Data;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+
+class ObjectWithScalarFieldsTest {
+
+    @Data
+    public static class TestObject {
+
+        @MaskString(keepLastCharacters = 2)
+        private long id;
+        @MaskString(keepInitialCharacters = 1, keepLastCharacters = 2)
+        private Long negative;
+        @MaskString(keepLastCharacters = 4)
+        private BigInteger big;
+        @MaskString(keepInitialCharacters = 8, keepLastCharacters = 4)
+        private UUID uuid;
+        @MaskString(keepLastCharacters = 2)
+        private char[] chars;
+        @MaskString(keepLastCharacters = 2)
+        private StringBuilder builder;
+        @MaskString(keepLastCharacters = 2)
+        private Optional<String> optional;
+        @MaskString(keepLastCharacters = 2)
+        private long[] longs;
+    }
+
+    private static TestObject buildTestObject(long id, Long negative, BigInteger big, UUID uuid, String chars,
+                                              String builder, Optional<String> optional, long[] longs) {
+        TestObject obj;
+        obj = new TestObject();
+        obj.setId(id);
+        obj.setNegative(negative);
+        obj.setBig(big);
+        obj.setUuid(uuid);
+        obj.setChars(chars == null ? null : chars.toCharArray());
+        obj.setBuilder(builder == null ? null : new StringBuilder(builder));
+        obj.setOptional(optional);
+        obj.setLongs(longs);
+        return obj;
+    }
+
+    private static Stream<Arguments> arguments() {
+        return Stream.of(
+                Arguments.of(buildTestObject(1234567890L, -987654321L, new BigInteger("123456789012345678901234567890"),
+                                UUID.fromString("123e4567-e89b-12d3-a456-426614174000"), "secret", "builder",
+                                Optional.of("optional"), new long[] { 1234567L, -42L }),
+                        "{\"id\":\"********90\",\"negative\":\"-*******21\",\"big\":\"**************************7890\",\"uuid\":\"123e4567************************4000\",\"chars\":\"****et\",\"builder\":\"*****er\",\"optional\":\"******al\",\"longs\":[\"*****67\",\"*42\"]}"),
+                Arguments.of(buildTestObject(0L, null, BigInteger.valueOf(-5), null, "", null, Optional.empty(),
+                                new long[0]),
+                        "{\"id\":\"0\",\"negative\":null,\"big\":\"-5\",\"uuid\":null,\"chars\":\"\",\"builder\":null,\"optional\":null,\"longs\":[]}")
+        );
+    }
+
+    @ParameterizedTest
+    @MethodSource("arguments")
+    void map(TestObject obj, String maskedStringOutput) throws JsonProcessingException {
+        ObjectMapper mapper = new ObjectMapper();
+
+        Assertions.assertEquals(maskedStringOutput, mapper.writerWithView(Masked.class).writeValueAsString(obj));
+    }
+
+    @Data
+    public static class ContainerObject {
+        @MaskString(keepLastCharacters = 2)
+        private Long[] ids = {123456L, 7890L};
+        @MaskString(keepInitialCharacters = 8)
+        private UUID[] uuids = {UUID.fromString("123e4567-e89b-12d3-a456-426614174000")};
+        @MaskString(keepLastCharacters = 1)
+        private Map<String, Long> balances = new HashMap<>(Map.of("b", 12345L, "a", 678L));
+    }
+
+    @Test
+    void objectArraysAndMapsOfScalars() throws JsonProcessingException {
+        ObjectMapper mapper = new ObjectMapper().enable(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS);
+
+        Assertions.assertEquals("{\"ids\":[\"****56\",\"**90\"],\"uuids\":[\"123e4567****************************\"],"
+                        + "\"balances\":{\"a\":\"**8\",\"b\":\"****5\"}}",
+                mapper.writerWithView(Masked.class).writeValueAsString(new ContainerObject()));
+    }
+
+    @Data
+    public static class DecimalObject {
+        @MaskString(keepLastCharacters = 2)
+        private double rate = 1234.56;
+        @MaskString(keepLastCharacters = 2)
+        private Float ratio = 0.75f;
+        @MaskString(keepInitialCharacters = 1)
+        private BigDecimal balance = new BigDecimal("-1500.25");
+        @MaskString(keepLastCharacters = 2)
+        private Double missing;
+        @MaskString(keepLastCharacters = 2)
+        private double[] rates = {1234.56};
+    }
+
+    @Test
+    void decimalsAreMaskedLikeTheirArrays() throws JsonProcessingException {
+        ObjectMapper mapper = new ObjectMapper();
+
+        Assertions.assertEquals("{\"rate\":\"*****56\",\"ratio\":\"**75\",\"balance\":\"-*******\",\"missing\":null,"
+                        + "\"rates\":[\"*****56\"]}",
+                mapper.writerWithView(Masked.class).writeValueAsString(new DecimalObject()));
+        Assertions.assertEquals("{\"rate\":1234.56,\"ratio\":0.75,\"balance\":-1500.25,\"missing\":null,"
+                        + "\"rates\":[1234.56]}",
+                mapper.writeValueAsString(new DecimalObject()));
+    }
+
+    @SuppressWarnings("rawtypes")
+    public static class CollectionSerializer extends JsonSerializer<Collection> {
+        @Override
+        public void serialize(Collection value, JsonGenerator gen, SerializerProvider serializers) throws IOException {
+            gen.writeStartArray();
+            for (Object element : value) {
+                gen.writeString(String.valueOf(element));
+            }
+            gen.writeEndArray();
+        }
+    }
+
+    @Data
+    public static class CustomSerializedObject {
+        @MaskString
+        private Set<Long> ids = new LinkedHashSet<>(List.of(1234L, 5678L));
+    }
+
+    @Test
+    void customSerializedSetKeepsEveryElement() throws JsonProcessingException {
+        ObjectMapper mapper = new ObjectMapper()
+                .registerModule(new SimpleModule().addSerializer(Set.class, new CollectionSerializer()));
+
+        Assertions.assertEquals("{\"ids\":[\"****\",\"****\"]}",
+                mapper.writerWithView(Masked.class).writeValueAsString(new CustomSerializedObject()));
+    }
+}
@@ -0,0 +1,64 @@
+package io.github.javiercanillas.jackson.masker.examples;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.javiercanillas.jackson.masker.annotation.MaskString;
+import io.github.javiercanillas.jackson.masker.scan.PiiPattern;
+import io.github.javiercanillas.jackson.masker.view.Masked;
+import lombok.Data;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+
+class ObjectWithScannedStringFieldTest {
+
+    @Data
+    public static class TestObject {
+
+        private String stringValue;
+        @MaskString(mode = MaskString.Mode.SCAN)
+        private String sensitiveString;
+        @MaskString(mode = MaskString.Mode.SCAN, scanFor = PiiPattern.EMAIL, keepLastCharacters = 4, scanTerms = "John Doe")
+        private String sensitiveStringEmailsAndTerms;
+        @MaskString(mode = MaskString.Mode.SCAN)
+        private List<String> sensitiveList;
+    }
+
+    private static TestObject buildTestObject(String stringValue) {
+        TestObject obj;
+        obj = new TestObject();
+        obj.setSensitiveString(stringValue);
+        obj.setSensitiveStringEmailsAndTerms(stringValue);
+        obj.setSensitiveList(stringValue == null ? null : List.of(stringValue));
+        obj.setStringValue(stringValue);
+        return obj;
+    }
+
+    private static Stream<Arguments> arguments() {
+        return Stream.of(
+                Arguments.of(buildTestObject("John Doe, john@doe.com, 555-1234"),
+                        "{\"stringValue\":\"John Doe, john@doe.com, 555-1234\",\"sensitiveString\":\"John Doe, ************, ********\",\"sensitiveStringEmailsAndTerms\":\"**** Doe, ********.com, 555-1234\",\"sensitiveList\":[\"John Doe, ************, ********\"]}",
+                        "{\"stringValue\":\"John Doe, john@doe.com, 555-1234\",\"sensitiveString\":\"John Doe, john@doe.com, 555-1234\",\"sensitiveStringEmailsAndTerms\":\"John Doe, john@doe.com, 555-1234\",\"sensitiveList\":[\"John Doe, john@doe.com, 555-1234\"]}"),
+                Arguments.of(buildTestObject("Jane Doe"),
+                        "{\"stringValue\":\"Jane Doe\",\"sensitiveString\":\"Jane Doe\",\"sensitiveStringEmailsAndTerms\":\"Jane Doe\",\"sensitiveList\":[\"Jane Doe\"]}",
+                        "{\"stringValue\":\"Jane Doe\",\"sensitiveString\":\"Jane Doe\",\"sensitiveStringEmailsAndTerms\":\"Jane Doe\",\"sensitiveList\":[\"Jane Doe\"]}"),
+                Arguments.of(buildTestObject(null),
+                        "{\"stringValue\":null,\"sensitiveString\":null,\"sensitiveStringEmailsAndTerms\":null,\"sensitiveList\":null}",
+                        "{\"stringValue\":null,\"sensitiveString\":null,\"sensitiveStringEmailsAndTerms\":null,\"sensitiveList\":null}")
+        );
+    }
+
+    @ParameterizedTest
+    @MethodSource("arguments")
+    void map(TestObject obj, String maskedStringOutput, String normalStringOutput) throws JsonProcessingException {
+        ObjectMapper mapper = new ObjectMapper();
+
+        Assertions.assertEquals(maskedStringOutput, mapper.writerWithView(Masked.class).writeValueAsString(obj));
+        Assertions.assertEquals(normalStringOutput, mapper.writer().writeValueAsString(obj));
+    }
+}
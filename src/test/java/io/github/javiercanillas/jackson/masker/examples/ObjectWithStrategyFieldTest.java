@@ -0,0 +1,66 @@
+package io.github.javiercanillas.jackson.masker.examples;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.javiercanillas.jackson.masker.annotation.MaskString;
+import io.github.javiercanillas.jackson.masker.strategy.EmailMaskStrategy;
+import io.github.javiercanillas.jackson.masker.strategy.PanMaskStrategy;
+import io.github.javiercanillas.jackson.masker.strategy.PhoneMaskStrategy;
+import io.github.javiercanillas.jackson.masker.view.Masked;
+import lombok.Data;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.util.stream.Stream;
+
+
+class ObjectWithStrategyFieldTest {
+
+    @Data
+    public static class TestObject {
+
+        @MaskString(strategy = EmailMaskStrategy.class, keepInitialCharacters = 1)
+        private String email;
+        @MaskString(strategy = PanMaskStrategy.class)
+        private String cardNumber;
+        @MaskString(strategy = PhoneMaskStrategy.class, keepLastCharacters = 2)
+        private String phone;
+        @MaskString(mode = MaskString.Mode.SCAN, strategy = EmailMaskStrategy.class)
+        private String notes;
+    }
+
+    private static TestObject buildTestObject(String email, String cardNumber, String phone, String notes) {
+        TestObject obj;
+        obj = new TestObject();
+        obj.setEmail(email);
+        obj.setCardNumber(cardNumber);
+        obj.setPhone(phone);
+        obj.setNotes(notes);
+        return obj;
+    }
+
+    private static Stream<Arguments> arguments() {
+        return Stream.of(
+                Arguments.of(buildTestObject("john@example.com", "4111 1111 1111 1111", "+1 (555) 123-4567", "mail to john@example.com"),
+                        "{\"email\":\"j***@example.com\",\"cardNumber\":\"**** **** **** 1111\",\"phone\":\"+* (***) ***-**67\",\"notes\":\"mail to ****@example.com\"}",
+                        "{\"email\":\"john@example.com\",\"cardNumber\":\"4111 1111 1111 1111\",\"phone\":\"+1 (555) 123-4567\",\"notes\":\"mail to john@example.com\"}"),
+                Arguments.of(buildTestObject("john", "4111111111111112", "", "nothing"),
+                        "{\"email\":\"j***\",\"cardNumber\":\"****************\",\"phone\":\"\",\"notes\":\"nothing\"}",
+                        "{\"email\":\"john\",\"cardNumber\":\"4111111111111112\",\"phone\":\"\",\"notes\":\"nothing\"}"),
+                Arguments.of(buildTestObject(null, null, null, null),
+                        "{\"email\":null,\"cardNumber\":null,\"phone\":null,\"notes\":null}",
+                        "{\"email\":null,\"cardNumber\":null,\"phone\":null,\"notes\":null}")
+        );
+    }
+
+    @ParameterizedTest
+    @MethodSource("arguments")
+    void map(TestObject obj, String maskedStringOutput, String normalStringOutput) throws JsonProcessingException {
+        ObjectMapper mapper = new ObjectMapper();
+
+        Assertions.assertEquals(maskedStringOutput, mapper.writerWithView(Masked.class).writeValueAsString(obj));
+        Assertions.assertEquals(normalStringOutput, mapper.writer().writeValueAsString(obj));
+    }
+}
@@ -6,16 +6,19 @@ import io.github.javiercanillas.jackson.masker.annotation.MaskString;
 import io.github.javiercanillas.jackson.masker.view.Masked;
 import lombok.Data;
 import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
 
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Set;
 import java.util.stream.Stream;
 
 /**
- * Masking {@Link java.util.Set} might be tricky, because it might appear duplications over masked values.
- * Please be aware of this.
+ * Masking {@Link java.util.Set} writes every element masked, so duplications might appear over masked values, but
+ * the set size and iteration order are kept.
  */
 class ObjectWithStringSetFieldTest {
 
@@ -45,10 +48,10 @@ class ObjectWithStringSetFieldTest {
     private static Stream<Arguments> arguments() {
         return Stream.of(
                 Arguments.of(buildTestObject(Set.of("aabbccdd", "eeffgghh")),
-                        "{\"stringValues\":[\"eeffgghh\",\"aabbccdd\"],\"sensitiveStrings\":[\"********\"],\"sensitiveStringKeepLastCharacters\":[\"**ffgghh\",\"**bbccdd\"],\"sensitiveStringKeepLastCharactersWithCustomMask\":[\"##bbccdd\",\"##ffgghh\"]}",
+                        "{\"stringValues\":[\"eeffgghh\",\"aabbccdd\"],\"sensitiveStrings\":[\"********\",\"********\"],\"sensitiveStringKeepLastCharacters\":[\"**ffgghh\",\"**bbccdd\"],\"sensitiveStringKeepLastCharactersWithCustomMask\":[\"##bbccdd\",\"##ffgghh\"]}",
                         "{\"stringValues\":[\"eeffgghh\",\"aabbccdd\"],\"sensitiveStrings\":[\"eeffgghh\",\"aabbccdd\"],\"sensitiveStringKeepLastCharacters\":[\"eeffgghh\",\"aabbccdd\"],\"sensitiveStringKeepLastCharactersWithCustomMask\":[\"eeffgghh\",\"aabbccdd\"]}"),
                 Arguments.of(buildTestObject(Set.of("aabb", "ccdd")),
-                        "{\"stringValues\":[\"ccdd\",\"aabb\"],\"sensitiveStrings\":[\"****\"],\"sensitiveStringKeepLastCharacters\":[\"aabb\",\"ccdd\"],\"sensitiveStringKeepLastCharactersWithCustomMask\":[\"aabb\",\"ccdd\"]}",
+                        "{\"stringValues\":[\"ccdd\",\"aabb\"],\"sensitiveStrings\":[\"****\",\"****\"],\"sensitiveStringKeepLastCharacters\":[\"aabb\",\"ccdd\"],\"sensitiveStringKeepLastCharactersWithCustomMask\":[\"aabb\",\"ccdd\"]}",
                         "{\"stringValues\":[\"ccdd\",\"aabb\"],\"sensitiveStrings\":[\"ccdd\",\"aabb\"],\"sensitiveStringKeepLastCharacters\":[\"ccdd\",\"aabb\"],\"sensitiveStringKeepLastCharactersWithCustomMask\":[\"ccdd\",\"aabb\"]}"),
                 Arguments.of(buildTestObject(),
                         "{\"stringValues\":null,\"sensitiveStrings\":null,\"sensitiveStringKeepLastCharacters\":null,\"sensitiveStringKeepLastCharactersWithCustomMask\":null}",
@@ -67,4 +70,13 @@ class ObjectWithStringSetFieldTest {
         Assertions.assertEquals(expectedMaskObject, mapper.readValue(mapper.writerWithView(Masked.class).writeValueAsString(obj), TestObject.class));
         Assertions.assertEquals(expectedNormalObject, mapper.readValue(mapper.writer().writeValueAsString(obj), TestObject.class));
     }
+
+    @Test
+    void keepsSizeAndOrder() throws JsonProcessingException {
+        ObjectMapper mapper = new ObjectMapper();
+        var obj = buildTestObject(new LinkedHashSet<>(List.of("eeffgghh", "aabbccdd")));
+
+        Assertions.assertEquals("{\"stringValues\":[\"eeffgghh\",\"aabbccdd\"],\"sensitiveStrings\":[\"********\",\"********\"],\"sensitiveStringKeepLastCharacters\":[\"**ffgghh\",\"**bbccdd\"],\"sensitiveStringKeepLastCharactersWithCustomMask\":[\"##ffgghh\",\"##bbccdd\"]}",
+                mapper.writerWithView(Masked.class).writeValueAsString(obj));
+    }
 }
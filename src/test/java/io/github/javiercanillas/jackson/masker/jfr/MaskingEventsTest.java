@@ -0,0 +1,64 @@
+package io.github.javiercanillas.jackson.masker.jfr;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.javiercanillas.jackson.masker.annotation.MaskString;
+import io.github.javiercanillas.jackson.masker.view.Masked;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import lombok.Data;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MaskingEventsTest {
+
+    @Data
+    public static class TestObject {
+
+        @MaskString
+        private String name = "john";
+    }
+
+    @Test
+    void noValueEventsWithoutRecording() {
+        assertNull(MaskingEvents.beginValue());
+    }
+
+    @Test
+    void recordsMaskedValuesAndSummary(@TempDir Path directory) throws Exception {
+        final ObjectMapper mapper = new ObjectMapper();
+        final Path file = directory.resolve("masking.jfr");
+        // periodic events registered while a recording runs are only scheduled on its next settings change
+        MaskingEvents.beginValue();
+        try (Recording recording = new Recording()) {
+            recording.enable(MaskedValueEvent.NAME).withThreshold(Duration.ZERO);
+            recording.enable(SerializerSummaryEvent.NAME).withPeriod(Duration.ofMillis(10));
+            recording.start();
+            assertEquals("{\"name\":\"****\"}", mapper.writerWithView(Masked.class).writeValueAsString(new TestObject()));
+            Thread.sleep(100);
+            recording.stop();
+            recording.dump(file);
+        }
+
+        final List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+        final List<RecordedEvent> masked = events.stream()
+                .filter(event -> event.getEventType().getName().equals(MaskedValueEvent.NAME))
+                .collect(Collectors.toList());
+        assertEquals(1, masked.size());
+        assertEquals(TestObject.class.getName(), masked.get(0).getClass("declaringClass").getName());
+        assertEquals("name", masked.get(0).getString("property"));
+        assertEquals(String.class.getName(), masked.get(0).getClass("valueType").getName());
+        assertEquals(4, masked.get(0).getInt("inputLength"));
+
+        assertTrue(events.stream()
+                .filter(event -> event.getEventType().getName().equals(SerializerSummaryEvent.NAME))
+                .anyMatch(event -> event.getLong("contextualized") > 0));
+    }
+}
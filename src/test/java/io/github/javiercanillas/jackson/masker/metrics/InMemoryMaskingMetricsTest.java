@@ -0,0 +1,67 @@
+package io.github.javiercanillas.jackson.masker.metrics;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.javiercanillas.jackson.masker.annotation.MaskString;
+import io.github.javiercanillas.jackson.masker.view.Masked;
+import lombok.Data;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InMemoryMaskingMetricsTest {
+
+    @Data
+    public static class TestObject {
+
+        @MaskString
+        private String name = "john";
+        @MaskString
+        private List<String> tags = Arrays.asList("ab", "cde");
+        @MaskString
+        private Boolean flag = Boolean.TRUE;
+    }
+
+    @AfterEach
+    void tearDown() {
+        MaskingMetrics.setDefault(null);
+    }
+
+    @Test
+    void recordsMaskedProperties() throws JsonProcessingException {
+        final InMemoryMaskingMetrics metrics = new InMemoryMaskingMetrics();
+        MaskingMetrics.setDefault(metrics);
+        final ObjectMapper mapper = new ObjectMapper();
+
+        assertEquals("{\"name\":\"****\",\"tags\":[\"**\",\"***\"],\"flag\":true}",
+                mapper.writerWithView(Masked.class).writeValueAsString(new TestObject()));
+        mapper.writerWithView(Masked.class).writeValueAsString(new TestObject());
+        // not masked, not recorded
+        mapper.writer().writeValueAsString(new TestObject());
+
+        final Map<String, InMemoryMaskingMetrics.PropertySnapshot> snapshot = metrics.snapshot();
+        assertEquals(Arrays.asList("TestObject.flag", "TestObject.name", "TestObject.tags"),
+                Arrays.asList(snapshot.keySet().toArray()));
+        assertEquals(2, snapshot.get("TestObject.name").getMasked());
+        assertEquals(8, snapshot.get("TestObject.name").getCharacters());
+        assertEquals(10, snapshot.get("TestObject.tags").getCharacters());
+        assertEquals(0, snapshot.get("TestObject.flag").getMasked());
+        assertEquals(2, snapshot.get("TestObject.flag").getPassedThrough());
+        assertTrue(snapshot.get("TestObject.name").getNanos() > 0);
+
+        metrics.reset();
+        assertEquals(0, metrics.snapshot().get("TestObject.name").getMasked());
+    }
+
+    @Test
+    void disabledByDefault() throws JsonProcessingException {
+        assertNull(MaskingMetrics.getDefault());
+        assertEquals("{\"name\":\"****\",\"tags\":[\"**\",\"***\"],\"flag\":true}",
+                new ObjectMapper().writerWithView(Masked.class).writeValueAsString(new TestObject()));
+    }
+}
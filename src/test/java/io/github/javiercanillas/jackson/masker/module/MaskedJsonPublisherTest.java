@@ -0,0 +1,176 @@
+package io.github.javiercanillas.jackson.masker.module;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.javiercanillas.jackson.masker.annotation.MaskString;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+class MaskedJsonPublisherTest {
+
+    public static class Customer {
+        public int id;
+        @MaskString(keepLastCharacters = 2)
+        public String document = "30123456";
+
+        Customer(final int id) {
+            this.id = id;
+        }
+    }
+
+    /**
+     * Subscriber requesting one chunk at a time, releasing every chunk once copied.
+     */
+    private static class Collector implements Flow.Subscriber<ByteBuffer> {
+        private final MaskedJsonPublisher publisher;
+        private final int cancelAfter;
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        private final CompletableFuture<String> result = new CompletableFuture<>();
+        private final AtomicInteger chunks = new AtomicInteger();
+        private final AtomicInteger maxChunk = new AtomicInteger();
+        private Flow.Subscription subscription;
+
+        Collector(final MaskedJsonPublisher publisher, final int cancelAfter) {
+            this.publisher = publisher;
+            this.cancelAfter = cancelAfter;
+        }
+
+        @Override
+        public void onSubscribe(final Flow.Subscription subscription) {
+            this.subscription = subscription;
+            subscription.request(1);
+        }
+
+        @Override
+        public void onNext(final ByteBuffer item) {
+            this.maxChunk.accumulateAndGet(item.remaining(), Math::max);
+            this.bytes.write(item.array(), item.arrayOffset() + item.position(), item.remaining());
+            this.publisher.release(item);
+            if (this.chunks.incrementAndGet() == this.cancelAfter) {
+                this.subscription.cancel();
+                this.result.complete("cancelled");
+            } else {
+                this.subscription.request(1);
+            }
+        }
+
+        @Override
+        public void onError(final Throwable throwable) {
+            this.result.completeExceptionally(throwable);
+        }
+
+        @Override
+        public void onComplete() {
+            this.result.complete(this.bytes.toString(StandardCharsets.UTF_8));
+        }
+    }
+
+    private static List<Customer> customers(final int count) {
+        final List<Customer> customers = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            customers.add(new Customer(i));
+        }
+        return customers;
+    }
+
+    @Test
+    void publishesMaskedArray() throws Exception {
+        final var mapper = new ObjectMapper();
+        final var customers = customers(10_000);
+        final var publisher = MaskedJsonPublisher.builder()
+                .mapper(mapper)
+                .elements(customers)
+                .chunkSize(1024)
+                .build();
+
+        final var collector = new Collector(publisher, -1);
+        publisher.subscribe(collector);
+
+        Assertions.assertEquals(MaskedWriters.of(mapper).writeValueAsString(customers),
+                collector.result.get(10, TimeUnit.SECONDS));
+        Assertions.assertEquals(1024, collector.maxChunk.get());
+        Assertions.assertTrue(collector.chunks.get() > 100);
+    }
+
+    @Test
+    void emptyArray() throws Exception {
+        final var publisher = MaskedJsonPublisher.builder()
+                .mapper(new ObjectMapper())
+                .elements(Collections.emptyList())
+                .build();
+
+        final var collector = new Collector(publisher, -1);
+        publisher.subscribe(collector);
+
+        Assertions.assertEquals("[]", collector.result.get(10, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void stopsOnCancel() throws Exception {
+        final var iterated = new AtomicInteger();
+        final var customers = customers(10_000);
+        final Iterable<Customer> counted = () -> customers.stream().peek(customer -> iterated.incrementAndGet()).iterator();
+        final var publisher = MaskedJsonPublisher.builder()
+                .mapper(new ObjectMapper())
+                .elements(counted)
+                .chunkSize(256)
+                .build();
+
+        final var collector = new Collector(publisher, 3);
+        publisher.subscribe(collector);
+
+        Assertions.assertEquals("cancelled", collector.result.get(10, TimeUnit.SECONDS));
+        // only what was needed for the requested chunks was serialized
+        Assertions.assertTrue(iterated.get() < 100);
+    }
+
+    @Test
+    void invalidRequest() {
+        final var publisher = MaskedJsonPublisher.builder()
+                .mapper(new ObjectMapper())
+                .elements(customers(1))
+                .build();
+        final var error = new CompletableFuture<Throwable>();
+
+        publisher.subscribe(new Flow.Subscriber<>() {
+            @Override
+            public void onSubscribe(final Flow.Subscription subscription) {
+                subscription.request(0);
+            }
+
+            @Override
+            public void onNext(final ByteBuffer item) {
+                error.complete(null);
+            }
+
+            @Override
+            public void onError(final Throwable throwable) {
+                error.complete(throwable);
+            }
+
+            @Override
+            public void onComplete() {
+                error.complete(null);
+            }
+        });
+
+        Assertions.assertTrue(error.join() instanceof IllegalArgumentException);
+    }
+
+    @Test
+    void builder() {
+        Assertions.assertThrows(IllegalStateException.class, () -> MaskedJsonPublisher.builder().build());
+        Assertions.assertThrows(IllegalArgumentException.class, () -> MaskedJsonPublisher.builder().chunkSize(0));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> MaskedJsonPublisher.builder().poolSize(0));
+    }
+}
@@ -0,0 +1,68 @@
+package io.github.javiercanillas.jackson.masker.module;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import io.github.javiercanillas.jackson.masker.MaskSpec;
+import io.github.javiercanillas.jackson.masker.annotation.MaskString;
+import lombok.Data;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class MaskedWritersTest {
+
+    @Data
+    public static class AnnotatedObject {
+        private String stringValue = "aabbccdd";
+        @MaskString(keepLastCharacters = 2)
+        private String sensitiveString = "aabbccdd";
+    }
+
+    @Data
+    public static class ThirdPartyObject {
+        private String email = "john@example.com";
+    }
+
+    @Test
+    void annotated() throws JsonProcessingException {
+        final var mapper = new ObjectMapper();
+        final ObjectWriter writer = MaskedWriters.of(mapper);
+
+        Assertions.assertEquals("{\"stringValue\":\"aabbccdd\",\"sensitiveString\":\"******dd\"}",
+                writer.writeValueAsString(new AnnotatedObject()));
+        // source mapper is left untouched
+        Assertions.assertEquals("{\"stringValue\":\"aabbccdd\",\"sensitiveString\":\"aabbccdd\"}",
+                mapper.writeValueAsString(new AnnotatedObject()));
+    }
+
+    @Test
+    void rules() throws JsonProcessingException {
+        final var module = MaskerModule.builder()
+                .rule(ThirdPartyObject.class, "email", MaskSpec.of(1, 12, '#'))
+                .build();
+        final var mapper = new ObjectMapper();
+        final ObjectWriter writer = MaskedWriters.of(mapper, module);
+
+        Assertions.assertEquals("{\"email\":\"j###@example.com\"}", writer.writeValueAsString(new ThirdPartyObject()));
+        Assertions.assertEquals("{\"email\":\"john@example.com\"}", mapper.writeValueAsString(new ThirdPartyObject()));
+    }
+
+    @Test
+    void rulesFromRegisteredModule() throws JsonProcessingException {
+        final var mapper = new ObjectMapper().registerModule(MaskerModule.builder()
+                .rule(ThirdPartyObject.class, "email", MaskSpec.of(1, 12, '#'))
+                .build());
+        final ObjectWriter writer = MaskedWriters.of(mapper);
+
+        Assertions.assertEquals("{\"email\":\"j###@example.com\"}", writer.writeValueAsString(new ThirdPartyObject()));
+        Assertions.assertEquals("{\"email\":\"john@example.com\"}", mapper.writeValueAsString(new ThirdPartyObject()));
+    }
+
+    @Test
+    void alwaysMasking() {
+        final var module = new MaskerModule();
+        Assertions.assertTrue(module.isViewDependent());
+        Assertions.assertFalse(module.alwaysMasking().isViewDependent());
+        Assertions.assertNotEquals(module.getTypeId(), module.alwaysMasking().getTypeId());
+    }
+}
@@ -0,0 +1,117 @@
+package io.github.javiercanillas.jackson.masker.module;
+
+import com.fasterxml.jackson.annotation.JsonView;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ser.BeanPropertyWriter;
+import io.github.javiercanillas.jackson.masker.MaskSpec;
+import io.github.javiercanillas.jackson.masker.annotation.MaskString;
+import io.github.javiercanillas.jackson.masker.ser.MaskStringSerializer;
+import io.github.javiercanillas.jackson.masker.view.Masked;
+import lombok.Data;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+class MaskerModuleTest {
+
+    public static class OtherView {
+    }
+
+    @Data
+    public static class AnnotatedObject {
+        private String stringValue = "aabbccdd";
+        @MaskString(keepLastCharacters = 2)
+        private String sensitiveString = "aabbccdd";
+        @JsonView(OtherView.class)
+        @MaskString
+        private String sensitiveStringOnOtherView = "aabbccdd";
+    }
+
+    @Data
+    public static class ThirdPartyObject {
+        private String email = "john@example.com";
+        private List<String> phones = List.of("1234", "5678");
+        private Object any = "aabbccdd";
+        private int number = 5;
+    }
+
+    @Data
+    public static class MixedObject {
+        private String document = "30123456";
+    }
+
+    public abstract static class MixedObjectMaskMixIn {
+        @MaskString(keepInitialCharacters = 2)
+        private String document;
+    }
+
+    private static ObjectMapper mapper() {
+        return new ObjectMapper().registerModule(MaskerModule.builder()
+                .rule(ThirdPartyObject.class, "email", MaskSpec.of(1, 12, '#'))
+                .rule(ThirdPartyObject.class, "phones", MaskSpec.of(0, 1, '*'))
+                .rule(ThirdPartyObject.class, "any", MaskSpec.DEFAULTS)
+                .mixIn(MixedObject.class, MixedObjectMaskMixIn.class)
+                .build());
+    }
+
+    @Test
+    void annotated() throws JsonProcessingException {
+        var mapper = mapper();
+        var obj = new AnnotatedObject();
+
+        Assertions.assertEquals("{\"stringValue\":\"aabbccdd\",\"sensitiveString\":\"******dd\"}",
+                mapper.writerWithView(Masked.class).writeValueAsString(obj));
+        Assertions.assertEquals("{\"stringValue\":\"aabbccdd\",\"sensitiveString\":\"aabbccdd\",\"sensitiveStringOnOtherView\":\"aabbccdd\"}",
+                mapper.writer().writeValueAsString(obj));
+        Assertions.assertEquals("{\"stringValue\":\"aabbccdd\",\"sensitiveString\":\"aabbccdd\",\"sensitiveStringOnOtherView\":\"aabbccdd\"}",
+                mapper.writerWithView(OtherView.class).writeValueAsString(obj));
+    }
+
+    @Test
+    void rules() throws JsonProcessingException {
+        var mapper = mapper();
+        var obj = new ThirdPartyObject();
+
+        Assertions.assertEquals("{\"email\":\"j###@example.com\",\"phones\":[\"***4\",\"***8\"],\"any\":\"********\",\"number\":5}",
+                mapper.writerWithView(Masked.class).writeValueAsString(obj));
+        Assertions.assertEquals("{\"email\":\"john@example.com\",\"phones\":[\"1234\",\"5678\"],\"any\":\"aabbccdd\",\"number\":5}",
+                mapper.writer().writeValueAsString(obj));
+    }
+
+    @Test
+    void mixIn() throws JsonProcessingException {
+        var mapper = mapper();
+        var obj = new MixedObject();
+
+        Assertions.assertEquals("{\"document\":\"30******\"}", mapper.writerWithView(Masked.class).writeValueAsString(obj));
+        Assertions.assertEquals("{\"document\":\"30123456\"}", mapper.writer().writeValueAsString(obj));
+    }
+
+    @Test
+    void modulesWithDifferentRules() throws JsonProcessingException {
+        var mapper = new ObjectMapper()
+                .registerModule(MaskerModule.builder().rule(ThirdPartyObject.class, "email", MaskSpec.of(1, 12, '#')).build())
+                .registerModule(MaskerModule.builder().rule(MixedObject.class, "document", MaskSpec.of(0, 2, '*')).build())
+                .registerModule(MaskerModule.builder().rule(MixedObject.class, "document", MaskSpec.of(0, 2, '*')).build());
+
+        Assertions.assertEquals(2, mapper.getRegisteredModuleIds().size());
+        Assertions.assertEquals("{\"email\":\"j###@example.com\",\"phones\":[\"1234\",\"5678\"],\"any\":\"aabbccdd\",\"number\":5}",
+                mapper.writerWithView(Masked.class).writeValueAsString(new ThirdPartyObject()));
+        Assertions.assertEquals("{\"document\":\"******56\"}",
+                mapper.writerWithView(Masked.class).writeValueAsString(new MixedObject()));
+    }
+
+    @Test
+    void unmaskedWritersHaveNoMaskingSerializer() throws JsonMappingException {
+        var mapper = mapper();
+        JsonSerializer<Object> serializer = mapper.getSerializerProviderInstance().findValueSerializer(AnnotatedObject.class);
+        serializer.properties().forEachRemaining(property -> {
+            var writerSerializer = ((BeanPropertyWriter) property).getSerializer();
+            Assertions.assertFalse(writerSerializer instanceof MaskStringSerializer, property.getName());
+        });
+    }
+}
@@ -0,0 +1,59 @@
+package io.github.javiercanillas.jackson.masker.module;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.javiercanillas.jackson.masker.annotation.MaskString;
+import io.github.javiercanillas.jackson.masker.view.Masked;
+import lombok.Data;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+class MaskerWarmupTest {
+
+    @Data
+    public static class Customer {
+        private String name = "John";
+        @MaskString(keepLastCharacters = 2)
+        private String email = "john@example.com";
+        private List<Address> addresses = List.of(new Address());
+        private Map<String, Phone> phones = Map.of("home", new Phone());
+    }
+
+    @Data
+    public static class Address {
+        @MaskString(keepLastCharacters = 3)
+        private String street = "Main St 123";
+    }
+
+    @Data
+    public static class Phone {
+        @MaskString(keepInitialCharacters = 2)
+        private String number = "555-1234";
+    }
+
+    @Test
+    void walksNestedTypes() throws JsonProcessingException {
+        final var mapper = new ObjectMapper();
+        final var report = MaskerWarmup.warmUp(mapper, Customer.class);
+
+        Assertions.assertTrue(report.getTypes() >= 5, report.toString());
+        Assertions.assertTrue(report.getSerializersCreated() >= 3, report.toString());
+        Assertions.assertTrue(report.getFailures().isEmpty(), report.toString());
+        Assertions.assertEquals(0, MaskerWarmup.warmUp(mapper, Customer.class).getSerializersCreated());
+
+        Assertions.assertEquals("{\"name\":\"John\",\"email\":\"**************om\","
+                        + "\"addresses\":[{\"street\":\"********123\"}],\"phones\":{\"home\":{\"number\":\"55******\"}}}",
+                mapper.writerWithView(Masked.class).writeValueAsString(new Customer()));
+    }
+
+    @Test
+    void packages() {
+        final var mapper = new ObjectMapper();
+        final var report = MaskerWarmup.warmUpPackages(mapper, "io.github.javiercanillas.jackson.masker.view");
+
+        Assertions.assertTrue(report.getTypes() > 0, report.toString());
+    }
+}
@@ -0,0 +1,88 @@
+package io.github.javiercanillas.jackson.masker.pseudonymization;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.javiercanillas.jackson.masker.annotation.MaskString;
+import io.github.javiercanillas.jackson.masker.view.Masked;
+import lombok.Data;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+class PseudonymizerTest {
+
+    private static final byte[] KEY = "0123456789abcdef0123456789abcdef".getBytes(StandardCharsets.UTF_8);
+
+    @Data
+    public static class TestObject {
+        private String stringValue = "42";
+        @MaskString(mode = MaskString.Mode.PSEUDONYMIZE)
+        private String customerId = "42";
+        @MaskString(mode = MaskString.Mode.PSEUDONYMIZE)
+        private List<String> customerIds = List.of("42", "43");
+    }
+
+    @AfterEach
+    void resetDefault() {
+        Pseudonymizer.setDefault(null);
+    }
+
+    @Test
+    void pseudonymize() {
+        final Pseudonymizer pseudonymizer = new Pseudonymizer(KEY);
+        final String token = pseudonymizer.pseudonymize("42");
+
+        Assertions.assertEquals(Pseudonymizer.TOKEN_LENGTH, token.length());
+        Assertions.assertEquals(token, pseudonymizer.pseudonymize("42"));
+        Assertions.assertEquals(token, new Pseudonymizer(KEY).pseudonymize("42"));
+        Assertions.assertNotEquals(token, pseudonymizer.pseudonymize("43"));
+        Assertions.assertNotEquals(token, new Pseudonymizer("other key".getBytes(StandardCharsets.UTF_8)).pseudonymize("42"));
+        Assertions.assertNull(pseudonymizer.pseudonymize(null));
+
+        final char[] destination = new char[Pseudonymizer.TOKEN_LENGTH + 1];
+        Assertions.assertEquals(Pseudonymizer.TOKEN_LENGTH, pseudonymizer.pseudonymize(new StringBuilder("42"), destination, 1));
+        Assertions.assertEquals(token, new String(destination, 1, Pseudonymizer.TOKEN_LENGTH));
+    }
+
+    @Test
+    void cache() {
+        final Pseudonymizer pseudonymizer = new Pseudonymizer(KEY, 100);
+        for (int i = 0; i < 4; i++) {
+            pseudonymizer.pseudonymize("hot");
+        }
+        Assertions.assertEquals(3, pseudonymizer.getHits());
+        Assertions.assertEquals(1, pseudonymizer.getMisses());
+        Assertions.assertEquals(0.75d, pseudonymizer.getHitRate());
+
+        for (int i = 0; i < 1_000; i++) {
+            pseudonymizer.pseudonymize(Integer.toString(i));
+        }
+        Assertions.assertTrue(pseudonymizer.getCacheSize() <= 100);
+    }
+
+    @Test
+    void invalidArguments() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new Pseudonymizer(new byte[0]));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new Pseudonymizer(KEY, 0));
+    }
+
+    @Test
+    void annotated() throws JsonProcessingException {
+        final ObjectMapper mapper = new ObjectMapper();
+        final TestObject obj = new TestObject();
+        Assertions.assertThrows(JsonProcessingException.class,
+                () -> mapper.writerWithView(Masked.class).writeValueAsString(obj));
+
+        final Pseudonymizer pseudonymizer = new Pseudonymizer(KEY);
+        Pseudonymizer.setDefault(pseudonymizer);
+        final String token = pseudonymizer.pseudonymize("42");
+        Assertions.assertEquals("{\"stringValue\":\"42\",\"customerId\":\"" + token + "\",\"customerIds\":[\"" + token
+                + "\",\"" + pseudonymizer.pseudonymize("43") + "\"]}",
+                mapper.writerWithView(Masked.class).writeValueAsString(obj));
+        Assertions.assertEquals("{\"stringValue\":\"42\",\"customerId\":\"42\",\"customerIds\":[\"42\",\"43\"]}",
+                mapper.writeValueAsString(obj));
+    }
+}
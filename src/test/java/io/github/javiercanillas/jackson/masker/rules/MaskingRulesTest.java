@@ -0,0 +1,170 @@
+package io.github.javiercanillas.jackson.masker.rules;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.javiercanillas.jackson.masker.MaskSpec;
+import io.github.javiercanillas.jackson.masker.annotation.MaskString;
+import io.github.javiercanillas.jackson.masker.module.MaskedWriters;
+import io.github.javiercanillas.jackson.masker.module.MaskerModule;
+import io.github.javiercanillas.jackson.masker.view.Masked;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+class MaskingRulesTest {
+
+    public static class Order {
+        public String id = "o-123456";
+        public Customer customer = new Customer();
+        public List<Card> cards = List.of(new Card());
+    }
+
+    public static class Customer {
+        @MaskString(keepLastCharacters = 1)
+        public String name = "John";
+        public String email = "john@example.com";
+        public String document = "30123456";
+    }
+
+    public static class Card {
+        public String cardNumber = "4111111111111111";
+        public String email = "card@example.com";
+    }
+
+    private static MaskingRules rules() {
+        return MaskingRules.builder()
+                .rule("document", MaskSpec.of(2, 0, '*'))
+                .rule("name", MaskSpec.DEFAULTS)
+                .rule("customer.email", MaskSpec.of(1, 12, '#'))
+                .rule("*.cardNumber", MaskSpec.of(0, 4, 'X'))
+                .build();
+    }
+
+    @Test
+    void find() {
+        var rules = rules();
+
+        Assertions.assertEquals(MaskSpec.of(2, 0, '*'), rules.find("document"));
+        Assertions.assertEquals(MaskSpec.of(2, 0, '*'), rules.find("customer.document"));
+        Assertions.assertEquals(MaskSpec.of(1, 12, '#'), rules.find("order.customer.email"));
+        Assertions.assertNull(rules.find("email"));
+        Assertions.assertNull(rules.find("cardNumber"));
+        Assertions.assertEquals(MaskSpec.of(0, 4, 'X'), rules.find("cards.cardNumber"));
+        Assertions.assertNull(rules.find("id"));
+    }
+
+    @Test
+    void longestMatchWins() {
+        var rules = MaskingRules.builder()
+                .rule("email", MaskSpec.DEFAULTS)
+                .rule("*.email", MaskSpec.of(1, 0, '*'))
+                .rule("customer.email", MaskSpec.of(2, 0, '*'))
+                .build();
+
+        Assertions.assertEquals(MaskSpec.DEFAULTS, rules.find("email"));
+        Assertions.assertEquals(MaskSpec.of(1, 0, '*'), rules.find("card.email"));
+        Assertions.assertEquals(MaskSpec.of(2, 0, '*'), rules.find("customer.email"));
+        Assertions.assertTrue(rules.isPathDependent("email"));
+        Assertions.assertFalse(MaskingRules.builder().rule("email", MaskSpec.DEFAULTS).build().isPathDependent("email"));
+    }
+
+    @Test
+    void parse() throws IOException {
+        var rules = MaskingRules.parse(new StringReader("# comment\n\ndocument = 2,0\n*.cardNumber=0,4,X\nssn\n"));
+
+        Assertions.assertEquals(List.of("document", "*.cardNumber", "ssn"), List.copyOf(rules.getPatterns().keySet()));
+        Assertions.assertEquals(MaskSpec.of(2, 0, '*'), rules.find("document"));
+        Assertions.assertEquals(MaskSpec.of(0, 4, 'X'), rules.find("a.cardNumber"));
+        Assertions.assertEquals(MaskSpec.DEFAULTS, rules.find("ssn"));
+
+        var e = Assertions.assertThrows(IllegalArgumentException.class,
+                () -> MaskingRules.parse(new StringReader("ssn\ndocument=2\n")));
+        Assertions.assertTrue(e.getMessage().startsWith("Invalid rule on line 2"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> MaskingRules.parse(new StringReader("a..b\n")));
+    }
+
+    @Test
+    void module() throws JsonProcessingException {
+        var mapper = new ObjectMapper().registerModule(MaskerModule.builder().rules(rules()).build());
+        var order = new Order();
+
+        // annotations take precedence over rules
+        Assertions.assertEquals("{\"id\":\"o-123456\",\"customer\":{\"name\":\"***n\",\"email\":\"j###@example.com\",\"document\":\"30******\"},"
+                        + "\"cards\":[{\"cardNumber\":\"XXXXXXXXXXXX1111\",\"email\":\"card@example.com\"}]}",
+                mapper.writerWithView(Masked.class).writeValueAsString(order));
+        Assertions.assertEquals("{\"id\":\"o-123456\",\"customer\":{\"name\":\"John\",\"email\":\"john@example.com\",\"document\":\"30123456\"},"
+                        + "\"cards\":[{\"cardNumber\":\"4111111111111111\",\"email\":\"card@example.com\"}]}",
+                mapper.writeValueAsString(order));
+        // no parent property, so *.cardNumber does not match
+        Assertions.assertEquals("{\"cardNumber\":\"4111111111111111\",\"email\":\"card@example.com\"}",
+                mapper.writerWithView(Masked.class).writeValueAsString(new Card()));
+    }
+
+    @Test
+    void reload(@TempDir final Path directory) throws IOException {
+        final Path file = directory.resolve("masking.rules");
+        Files.writeString(file, "document=2,0\n");
+        try (var rules = ReloadableMaskingRules.load(file)) {
+            var mapper = new ObjectMapper().registerModule(MaskerModule.builder().rules(rules).build().alwaysMasking());
+            var customer = new Customer();
+            Assertions.assertEquals("{\"name\":\"***n\",\"email\":\"john@example.com\",\"document\":\"30******\"}",
+                    mapper.writeValueAsString(customer));
+
+            Files.writeString(file, "document=0,2\nemail\n");
+            var before = rules.get();
+            Assertions.assertTrue(rules.reload());
+            Assertions.assertNotSame(before, rules.get());
+            Assertions.assertEquals("{\"name\":\"***n\",\"email\":\"****************\",\"document\":\"******56\"}",
+                    mapper.writeValueAsString(customer));
+
+            // invalid files keep the previous rules
+            Files.writeString(file, "document=x\n");
+            Assertions.assertFalse(rules.reload());
+            Assertions.assertNotNull(rules.getLastError());
+            Assertions.assertEquals("{\"name\":\"***n\",\"email\":\"****************\",\"document\":\"******56\"}",
+                    mapper.writeValueAsString(customer));
+        }
+    }
+
+    @Test
+    void reloadAppliesToCopies(@TempDir final Path directory) throws IOException {
+        final Path file = directory.resolve("masking.rules");
+        Files.writeString(file, "document=2,0\n");
+        try (var rules = ReloadableMaskingRules.load(file)) {
+            var module = MaskerModule.builder().rules(rules).build();
+            var mapper = new ObjectMapper().registerModule(module);
+            var copy = mapper.copy();
+            var maskedWriter = MaskedWriters.of(mapper, module);
+            var rootWriter = mapper.writerFor(Order.class).withView(Masked.class);
+            var order = new Order();
+            // serializers are cached before reloading
+            Assertions.assertEquals("{\"name\":\"***n\",\"email\":\"john@example.com\",\"document\":\"30******\"}",
+                    copy.writerWithView(Masked.class).writeValueAsString(order.customer));
+            Assertions.assertEquals("{\"name\":\"***n\",\"email\":\"john@example.com\",\"document\":\"30******\"}",
+                    maskedWriter.writeValueAsString(order.customer));
+            rootWriter.writeValueAsString(order);
+
+            Files.writeString(file, "document=0,2\ncustomer.email\n");
+            Assertions.assertTrue(rules.reload());
+
+            final String customer = "{\"name\":\"***n\",\"email\":\"****************\",\"document\":\"******56\"}";
+            Assertions.assertEquals("{\"name\":\"***n\",\"email\":\"john@example.com\",\"document\":\"******56\"}",
+                    copy.writerWithView(Masked.class).writeValueAsString(order.customer));
+            Assertions.assertEquals("{\"id\":\"o-123456\",\"customer\":" + customer + ","
+                            + "\"cards\":[{\"cardNumber\":\"4111111111111111\",\"email\":\"card@example.com\"}]}",
+                    maskedWriter.writeValueAsString(order));
+            Assertions.assertEquals("{\"id\":\"o-123456\",\"customer\":" + customer + ","
+                            + "\"cards\":[{\"cardNumber\":\"4111111111111111\",\"email\":\"card@example.com\"}]}",
+                    rootWriter.writeValueAsString(order));
+            // unmasked output is not affected
+            Assertions.assertEquals("{\"name\":\"John\",\"email\":\"john@example.com\",\"document\":\"30123456\"}",
+                    copy.writeValueAsString(order.customer));
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package io.github.javiercanillas.jackson.masker.scan;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+class PiiScannerTest {
+
+    private static final PiiScanner ALL = PiiScanner.of(PiiPattern.values());
+
+    private static List<String> findAll(final PiiScanner scanner, final String value) {
+        final List<String> found = new ArrayList<>();
+        for (long match = scanner.find(value, 0); match >= 0; match = scanner.find(value, PiiScanner.end(match))) {
+            found.add(value.substring(PiiScanner.start(match), PiiScanner.end(match)));
+        }
+        return found;
+    }
+
+    private static Stream<Arguments> arguments() {
+        return Stream.of(
+                Arguments.of("mail john.doe@example.com.", List.of("john.doe@example.com")),
+                Arguments.of("a@b a@b.c @example.com", List.of()),
+                Arguments.of("card 4111 1111 1111 1111, 4111-1111-1111-1111 or 4111111111111111",
+                        List.of("4111 1111 1111 1111", "4111-1111-1111-1111", "4111111111111111")),
+                Arguments.of("not a card 4111111111111112", List.of()),
+                Arguments.of("555-1234 4111111111111111 and 4111111111111111 555-1234",
+                        List.of("555-1234", "4111111111111111", "4111111111111111", "555-1234")),
+                Arguments.of("call +1 555 123 4567 or (555) 123-4567 or 555-1234",
+                        List.of("+1 555 123 4567", "555) 123-4567", "555-1234")),
+                Arguments.of("order 12345678, date 2020-01-31, ip 10.0.0.1, code abc4111111111111111", List.of()),
+                Arguments.of("", List.of())
+        );
+    }
+
+    @ParameterizedTest
+    @MethodSource("arguments")
+    void find(String value, List<String> expected) {
+        Assertions.assertEquals(expected, findAll(ALL, value));
+    }
+
+    @Test
+    void findOnlyConfiguredPatterns() {
+        final String value = "john@example.com 555-1234 4111111111111111";
+        Assertions.assertEquals(List.of("john@example.com"), findAll(PiiScanner.of(PiiPattern.EMAIL), value));
+        Assertions.assertEquals(List.of("555-1234"), findAll(PiiScanner.of(PiiPattern.PHONE_NUMBER), value));
+        Assertions.assertEquals(List.of("4111111111111111"), findAll(PiiScanner.of(PiiPattern.CARD_NUMBER), value));
+        Assertions.assertEquals(List.of(), findAll(PiiScanner.of(), value));
+    }
+
+    @Test
+    void findTerms() {
+        final PiiScanner scanner = PiiScanner.of(Set.of(), List.of("he", "she", "hers", "John Doe"));
+        Assertions.assertEquals(List.of("she", "he", "John Doe"), findAll(scanner, "ushers then John Doe"));
+    }
+
+    @Test
+    void findOverlappingTerms() {
+        final PiiScanner scanner = PiiScanner.of(Set.of(), List.of("word", "password123", "pass"));
+        Assertions.assertEquals(List.of("password123", "word", "pass"),
+                findAll(scanner, "my password123 here, a word and a pass"));
+        Assertions.assertEquals(List.of("pass", "word"), findAll(scanner, "password1 done"));
+        Assertions.assertEquals(List.of("password123"), findAll(scanner, "password123"));
+        Assertions.assertEquals(List.of("password123", "john@example.com"),
+                findAll(PiiScanner.of(List.of(PiiPattern.EMAIL), List.of("word", "password123")),
+                        "password123 john@example.com"));
+    }
+
+    @Test
+    void equality() {
+        Assertions.assertEquals(PiiScanner.of(List.of(PiiPattern.EMAIL), List.of("a")),
+                PiiScanner.of(List.of(PiiPattern.EMAIL), List.of("a")));
+        Assertions.assertNotEquals(PiiScanner.of(List.of(PiiPattern.EMAIL), List.of("a")),
+                PiiScanner.of(List.of(PiiPattern.EMAIL), List.of()));
+        final List<PiiPattern> patterns = List.of();
+        final List<String> terms = List.of("");
+        Assertions.assertThrows(IllegalArgumentException.class, () -> PiiScanner.of(patterns, terms));
+    }
+}
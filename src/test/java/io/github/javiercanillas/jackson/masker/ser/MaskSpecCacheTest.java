@@ -0,0 +1,143 @@
+package io.github.javiercanillas.jackson.masker.ser;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.BeanProperty;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.introspect.AnnotatedMember;
+import io.github.javiercanillas.jackson.masker.MaskSpec;
+import io.github.javiercanillas.jackson.masker.annotation.MaskString;
+import io.github.javiercanillas.jackson.masker.view.Masked;
+import lombok.Data;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class MaskSpecCacheTest {
+
+    @MaskString(keepLastCharacters = 3)
+    private String annotated;
+
+    @Data
+    public static class GeneratedObject {
+        @MaskString
+        private String document = "30123456";
+    }
+
+    public abstract static class GeneratedObjectMixIn {
+        @MaskString(keepInitialCharacters = 2)
+        private String document;
+    }
+
+    /**
+     * Stands for a generated provider, registered as a service on test resources. Its spec differs from the
+     * annotation, so it can be told which one was used.
+     */
+    public static class GeneratedSpecs implements MaskSpecProvider {
+        @Override
+        public Set<Class<?>> getTypes() {
+            return Set.of(GeneratedObject.class);
+        }
+
+        @Override
+        public MaskSpec forMember(final Class<?> type, final String member) {
+            return "document".equals(member) || "getDocument".equals(member) ? MaskSpec.of(0, 2, '#') : null;
+        }
+    }
+
+    /**
+     * Stands for a provider only visible to an application class loader.
+     */
+    public static class ApplicationSpecs implements MaskSpecProvider {
+        @Override
+        public Set<Class<?>> getTypes() {
+            return Set.of();
+        }
+
+        @Override
+        public MaskSpec forMember(final Class<?> type, final String member) {
+            return null;
+        }
+    }
+
+    @TempDir
+    Path directory;
+    @Mock
+    BeanProperty property;
+    @Mock
+    AnnotatedMember member;
+
+    @Test
+    void nullProperty() {
+        assertNull(MaskSpecCache.forProperty(null));
+    }
+
+    @Test
+    void notAnnotatedProperty() {
+        doReturn(null).when(property).getAnnotation(MaskString.class);
+        assertNull(MaskSpecCache.forProperty(property));
+    }
+
+    @Test
+    void annotatedProperty() throws NoSuchFieldException {
+        var annotation = MaskSpecCacheTest.class.getDeclaredField("annotated").getAnnotation(MaskString.class);
+        doReturn(annotation).when(property).getAnnotation(MaskString.class);
+        doReturn(member).when(property).getMember();
+        doReturn(MaskSpecCacheTest.class).when(member).getDeclaringClass();
+        doReturn("annotated").when(member).getName();
+
+        final MaskSpec spec = MaskSpecCache.forProperty(property);
+        assertEquals(MaskSpec.of(0, 3, '*'), spec);
+        assertSame(spec, MaskSpecCache.forProperty(property));
+    }
+
+    @Test
+    void sharedSerializers() {
+        var delegate = mock(JsonSerializer.class);
+        var serializer = MaskSpecCache.serializer(MaskSpec.of(1, 1, '*'), delegate);
+        assertSame(serializer, MaskSpecCache.serializer(MaskSpec.of(1, 1, '*'), delegate));
+        assertNotSame(serializer, MaskSpecCache.serializer(MaskSpec.of(1, 1, '-'), delegate));
+        assertNotSame(serializer, MaskSpecCache.serializer(MaskSpec.of(1, 1, '*'), mock(JsonSerializer.class)));
+        assertEquals(MaskSpec.of(1, 1, '*'), serializer.getSpec());
+        assertSame(delegate, serializer.getNonMaskerSerializer());
+    }
+
+    @Test
+    void generatedSpecs() throws JsonProcessingException {
+        assertEquals("{\"document\":\"######56\"}",
+                new ObjectMapper().writerWithView(Masked.class).writeValueAsString(new GeneratedObject()));
+        // mix-ins win over generated specs
+        assertEquals("{\"document\":\"30******\"}", new ObjectMapper()
+                .addMixIn(GeneratedObject.class, GeneratedObjectMixIn.class)
+                .writerWithView(Masked.class).writeValueAsString(new GeneratedObject()));
+    }
+
+    @Test
+    void providersOfEveryClassLoader() throws IOException {
+        final Path services = Files.createDirectories(this.directory.resolve("META-INF/services"));
+        Files.writeString(services.resolve(MaskSpecProvider.class.getName()), ApplicationSpecs.class.getName());
+        final ClassLoader library = MaskSpecProvider.class.getClassLoader();
+        try (URLClassLoader application = new URLClassLoader(new URL[] { this.directory.toUri().toURL() }, library)) {
+            final List<Class<?>> types = GeneratedMaskSpecs.load(library, null, application).stream()
+                    .map(Object::getClass)
+                    .collect(Collectors.toList());
+            // the application loader sees the library provider too, but it is only taken once
+            assertEquals(List.of(GeneratedSpecs.class, ApplicationSpecs.class), types);
+        }
+    }
+}
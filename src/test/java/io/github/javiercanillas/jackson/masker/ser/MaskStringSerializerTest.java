@@ -1,13 +1,29 @@
 package io.github.javiercanillas.jackson.masker.ser;
 
+import com.fasterxml.jackson.core.JsonFactory;
 import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.CharacterEscapes;
+import com.fasterxml.jackson.core.json.JsonWriteFeature;
+import com.fasterxml.jackson.databind.BeanProperty;
 import com.fasterxml.jackson.databind.JavaType;
 import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import com.fasterxml.jackson.databind.SerializerProvider;
 import com.fasterxml.jackson.databind.jsonFormatVisitors.JsonFormatVisitorWrapper;
 import com.fasterxml.jackson.databind.jsontype.TypeSerializer;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.fasterxml.jackson.databind.ser.std.StringSerializer;
 import com.fasterxml.jackson.databind.util.NameTransformer;
+import io.github.javiercanillas.jackson.masker.MaskSpec;
+import io.github.javiercanillas.jackson.masker.annotation.MaskString;
+import io.github.javiercanillas.jackson.masker.view.Masked;
+import lombok.Data;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -15,7 +31,9 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.Iterator;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -33,6 +51,55 @@ class MaskStringSerializerTest {
     JsonSerializer innerSerializer;
 
 
+    public interface Contact { }
+
+    @Data
+    public static class Email implements Contact {
+        private String address = "john@example.com";
+    }
+
+    @Data
+    public static class Phone implements Contact {
+        private String number = "555-1234";
+        private String extension = "12";
+    }
+
+    @Data
+    public static class Texts {
+        @MaskString(keepInitialCharacters = 2, keepLastCharacters = 2)
+        private String quoted = "a\"b\\c\"d\\e";
+        @MaskString(keepLastCharacters = 3)
+        private String accents = "Ñandú café";
+        @MaskString(keepInitialCharacters = 1, keepLastCharacters = 1)
+        private String emoji = "\uD83D\uDE00secret\uD83D\uDE00";
+        @MaskString(keepLastCharacters = 1)
+        private List<String> list = List.of("\uD83D\uDE00\"é", "x\\y");
+        @MaskString
+        private String all = "\"é\uD83D\uDE00";
+    }
+
+    /**
+     * Escapes the default mask character, which the UTF-8 path would write as it is.
+     */
+    public static class MaskCharacterEscapes extends CharacterEscapes {
+        private static final long serialVersionUID = 1L;
+        private final int[] escapes = standardAsciiEscapesForJSON();
+
+        public MaskCharacterEscapes() {
+            this.escapes['*'] = ESCAPE_STANDARD;
+        }
+
+        @Override
+        public int[] getEscapeCodesForAscii() {
+            return this.escapes;
+        }
+
+        @Override
+        public SerializableString getEscapeSequence(final int ch) {
+            return null;
+        }
+    }
+
     @BeforeEach
     void setup() {
         this.maskStringSerializerNoArgs = new MaskStringSerializer();
@@ -87,6 +154,61 @@ class MaskStringSerializerTest {
         verifyNoMoreInteractions(innerSerializer);
     }
 
+    @Test
+    void serializeUnmasked() throws IOException {
+        var gen = mock(JsonGenerator.class);
+        var serializers = mock(SerializerProvider.class);
+        this.maskStringSerializerArgs.serialize("abcd", gen, serializers);
+        verify(innerSerializer, times(1)).serialize("abcd", gen, serializers);
+        verifyNoMoreInteractions(innerSerializer);
+        verifyNoInteractions(gen);
+    }
+
+    @Test
+    void serializeMaskedWithDelegate() throws IOException {
+        var gen = mock(JsonGenerator.class);
+        var serializers = mock(SerializerProvider.class);
+        doReturn(Masked.class).when(serializers).getActiveView();
+        this.maskStringSerializerArgs.serialize("abcd", gen, serializers);
+        verify(innerSerializer, times(1)).serialize("****", gen, serializers);
+        verifyNoMoreInteractions(innerSerializer);
+        verifyNoInteractions(gen);
+    }
+
+    @Test
+    void serializeMaskedStreaming() throws IOException {
+        var gen = mock(JsonGenerator.class);
+        var serializers = mock(SerializerProvider.class);
+        doReturn(Masked.class).when(serializers).getActiveView();
+        var serializer = new MaskStringSerializer((JsonSerializer) new StringSerializer(), 1, 1, '#');
+        serializer.serialize("abcd", gen, serializers);
+        verify(gen, times(1)).writeString(argThat((char[] chars) -> "a##d".equals(new String(chars, 0, 4))), eq(0), eq(4));
+        verifyNoMoreInteractions(gen);
+    }
+
+    @Test
+    void createContextualWithoutProperty() throws JsonMappingException {
+        var serializers = mock(SerializerProvider.class);
+        var serializer = this.maskStringSerializerNoArgs.createContextual(serializers, null);
+        assertEquals(MaskStringSerializer.class, serializer.getClass());
+        assertEquals(MaskSpec.DEFAULTS, ((MaskStringSerializer) serializer).getSpec());
+        verifyNoInteractions(serializers);
+    }
+
+    @Test
+    void createContextual() throws JsonMappingException {
+        var serializers = mock(SerializerProvider.class);
+        var property = mock(BeanProperty.class);
+        var type = mock(JavaType.class);
+        doReturn(type).when(property).getType();
+        doReturn(innerSerializer).when(serializers).findValueSerializer(type, property);
+        var serializer = this.maskStringSerializerNoArgs.createContextual(serializers, property);
+        assertEquals(MaskStringSerializer.class, serializer.getClass());
+        assertEquals(MaskSpec.DEFAULTS, ((MaskStringSerializer) serializer).getSpec());
+        assertEquals(innerSerializer, ((MaskStringSerializer) serializer).getNonMaskerSerializer());
+        assertSame(serializer, this.maskStringSerializerNoArgs.createContextual(serializers, property));
+    }
+
     @Test
     void serializeWithType() throws IOException {
         var value = mock(Object.class);
@@ -165,4 +287,53 @@ class MaskStringSerializerTest {
         verify(innerSerializer, times(1)).acceptJsonFormatVisitor(visitor, javaType);
         verifyNoMoreInteractions(innerSerializer);
     }
-}
\ No newline at end of file
+
+    @Test
+    void runtimeTypesUseMapperSerializers() throws JsonProcessingException {
+        final ObjectMapper mapper = new ObjectMapper().registerModule(new SimpleModule()
+                .addSerializer(Contact.class, new MaskStringSerializer())
+                .addSerializer(Email.class, new StdSerializer<>(Email.class) {
+                    @Override
+                    public void serialize(final Email value, final JsonGenerator gen,
+                                          final SerializerProvider provider) throws IOException {
+                        gen.writeString(value.getAddress());
+                    }
+                }));
+
+        // serializers registered for the runtime type are used
+        assertEquals("\"john@example.com\"", mapper.writerFor(Contact.class).writeValueAsString(new Email()));
+        // but for the masking one, which would find itself again
+        assertEquals("{\"number\":\"555-1234\",\"extension\":\"12\"}",
+                mapper.writerFor(Contact.class).writeValueAsString(new Phone()));
+    }
+
+    @Test
+    void bytesAreWrittenAsChars() throws IOException {
+        final ObjectWriter writer = new ObjectMapper().writerWithView(Masked.class);
+        final String json = writer.writeValueAsString(new Texts());
+
+        assertEquals("{\"quoted\":\"a\\\"*****\\\\e\",\"accents\":\"*******afé\","
+                + "\"emoji\":\"\uD83D\uDE00******\uD83D\uDE00\",\"list\":[\"**é\",\"**y\"],\"all\":\"***\"}", json);
+        assertEquals(json, new String(writer.writeValueAsBytes(new Texts()), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void bytesFallBackToCharsWhenEscaping() throws IOException {
+        // masked values must be escaped as jackson escapes any other string written to bytes
+        final JsonNode masked = new ObjectMapper().readTree(new ObjectMapper().writerWithView(Masked.class)
+                .writeValueAsString(new Texts()));
+
+        final ObjectMapper nonAscii = new ObjectMapper().enable(JsonWriteFeature.ESCAPE_NON_ASCII.mappedFeature());
+        final String escaped = new String(nonAscii.writerWithView(Masked.class).writeValueAsBytes(new Texts()),
+                StandardCharsets.UTF_8);
+        assertTrue(escaped.contains("\"*******af\\u00E9\""), escaped);
+        assertEquals(new String(nonAscii.writeValueAsBytes(masked), StandardCharsets.UTF_8), escaped);
+
+        final ObjectMapper customEscapes = new ObjectMapper(new JsonFactory()
+                .setCharacterEscapes(new MaskCharacterEscapes()));
+        final String custom = new String(customEscapes.writerWithView(Masked.class).writeValueAsBytes(new Texts()),
+                StandardCharsets.UTF_8);
+        assertTrue(custom.contains("\"all\":\"\\u002A\\u002A\\u002A\""), custom);
+        assertEquals(new String(customEscapes.writeValueAsBytes(masked), StandardCharsets.UTF_8), custom);
+    }
+}
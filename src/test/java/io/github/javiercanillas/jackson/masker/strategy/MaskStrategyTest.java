@@ -0,0 +1,50 @@
+package io.github.javiercanillas.jackson.masker.strategy;
+
+import io.github.javiercanillas.jackson.masker.MaskSpec;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.util.stream.Stream;
+
+class MaskStrategyTest {
+
+    private static Stream<Arguments> arguments() {
+        return Stream.of(
+                Arguments.of(new PositionMaskStrategy(), MaskSpec.of(1, 2, '*'), "abcdef", "a***ef"),
+                Arguments.of(new PositionMaskStrategy(), MaskSpec.of(3, 3, '*'), "abcdef", "abcdef"),
+                Arguments.of(new EmailMaskStrategy(), MaskSpec.DEFAULTS, "john@example.com", "****@example.com"),
+                Arguments.of(new EmailMaskStrategy(), MaskSpec.of(1, 0, '#'), "john.doe@example.com", "j#######@example.com"),
+                Arguments.of(new EmailMaskStrategy(), MaskSpec.DEFAULTS, "not an email", "************"),
+                Arguments.of(new PanMaskStrategy(), MaskSpec.DEFAULTS, "4111 1111 1111 1111", "**** **** **** 1111"),
+                Arguments.of(new PanMaskStrategy(), MaskSpec.of(8, 0, '*'), "4111111111111111", "411111******1111"),
+                Arguments.of(new PanMaskStrategy(), MaskSpec.DEFAULTS, "4111111111111112", "****************"),
+                Arguments.of(new PanMaskStrategy(), MaskSpec.of(0, 2, '*'), "1234", "**34"),
+                Arguments.of(new PhoneMaskStrategy(), MaskSpec.of(1, 2, '*'), "+1 (555) 123-4567", "+1 (***) ***-**67"),
+                Arguments.of(new PhoneMaskStrategy(), MaskSpec.DEFAULTS, "555-1234", "***-****")
+        );
+    }
+
+    @ParameterizedTest
+    @MethodSource("arguments")
+    void mask(MaskStrategy strategy, MaskSpec spec, String value, String expected) {
+        final String wrapped = "<" + value + ">";
+        final char[] destination = new char[value.length() + 2];
+        final int written = strategy.mask(wrapped, 1, wrapped.length() - 1, spec, destination, 2);
+        Assertions.assertEquals(expected, new String(destination, 2, written));
+        Assertions.assertEquals(expected, spec.withStrategy(strategy).mask(value));
+    }
+
+    public static class PrivateStrategy extends PositionMaskStrategy {
+        private PrivateStrategy() { }
+    }
+
+    @Test
+    void instance() {
+        Assertions.assertSame(MaskStrategies.instance(EmailMaskStrategy.class),
+                MaskStrategies.instance(EmailMaskStrategy.class));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> MaskStrategies.instance(PrivateStrategy.class));
+    }
+}
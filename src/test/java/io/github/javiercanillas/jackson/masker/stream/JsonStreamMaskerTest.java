@@ -0,0 +1,64 @@
+package io.github.javiercanillas.jackson.masker.stream;
+
+import io.github.javiercanillas.jackson.masker.MaskSpec;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+class JsonStreamMaskerTest {
+
+    private static final String JSON = "{\"email\":\"john@example.com\",\"phones\":[\"1234\",[\"55\"],{\"x\":\"y\"}],"
+            + "\"customer\":{\"document\":\"30123456\",\"number\":30123456},\"document\":\"30123456\","
+            + "\"cards\":[{\"number\":\"111122223333\"},{\"number\":\"444455556666\"}]}";
+
+    private static final JsonStreamMasker MASKER = JsonStreamMasker.builder()
+            .field("email", MaskSpec.of(1, 12, '#'))
+            .field("phones", MaskSpec.DEFAULTS)
+            .pointer("/customer/document", MaskSpec.of(0, 2, '*'))
+            .pointer("/cards/1/number", MaskSpec.of(0, 4, 'x'))
+            .build();
+
+    @Test
+    void mask() throws IOException {
+        Assertions.assertEquals("{\"email\":\"j###@example.com\",\"phones\":[\"****\",[\"**\"],{\"x\":\"y\"}],"
+                + "\"customer\":{\"document\":\"******56\",\"number\":30123456},\"document\":\"30123456\","
+                + "\"cards\":[{\"number\":\"111122223333\"},{\"number\":\"xxxxxxxx6666\"}]}", MASKER.mask(JSON));
+        Assertions.assertNull(MASKER.mask((String) null));
+    }
+
+    @Test
+    void maskRootValues() throws IOException {
+        Assertions.assertEquals("{\"email\":\"j###@example.com\"} \"john@example.com\"",
+                MASKER.mask("{\"email\":\"john@example.com\"}\n\"john@example.com\""));
+    }
+
+    @Test
+    void maskStreams() throws IOException {
+        final var output = new ByteArrayOutputStream();
+        MASKER.mask(new ByteArrayInputStream(JSON.getBytes(StandardCharsets.UTF_8)), output);
+        Assertions.assertEquals(MASKER.mask(JSON), output.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void numbersAreCopiedAsWritten() throws IOException {
+        final String json = "{\"amount\":1.10,\"big\":12345678901234567890.123456789,\"huge\":123456789012345678901234567890,"
+                + "\"exp\":1.5E-3,\"email\":\"john@example.com\"}";
+        Assertions.assertEquals("{\"amount\":1.10,\"big\":12345678901234567890.123456789,\"huge\":123456789012345678901234567890,"
+                + "\"exp\":1.5E-3,\"email\":\"j###@example.com\"}", MASKER.mask(json));
+    }
+
+    @Test
+    void withoutRules() throws IOException {
+        Assertions.assertEquals(JSON, JsonStreamMasker.builder().build().mask(JSON));
+    }
+
+    @Test
+    void invalidPointer() {
+        final var builder = JsonStreamMasker.builder();
+        Assertions.assertThrows(IllegalArgumentException.class, () -> builder.pointer("customer", MaskSpec.DEFAULTS));
+    }
+}
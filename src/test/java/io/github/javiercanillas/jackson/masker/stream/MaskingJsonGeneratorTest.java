@@ -0,0 +1,190 @@
+package io.github.javiercanillas.jackson.masker.stream;
+
+import com.fasterxml.jackson.annotation.JsonAnyGetter;
+import com.fasterxml.jackson.annotation.JsonRawValue;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerationException;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.javiercanillas.jackson.masker.MaskSpec;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+class MaskingJsonGeneratorTest {
+
+    private static final Map<String, MaskSpec> FIELDS = Map.of(
+            "document", MaskSpec.of(0, 2, '*'),
+            "phones", MaskSpec.DEFAULTS,
+            "balance", MaskSpec.of(0, 0, '#'));
+
+    public static class Payload {
+        public String name = "John";
+        public long document = 30123456L;
+
+        @JsonAnyGetter
+        public Map<String, Object> extra() {
+            final Map<String, Object> extra = new LinkedHashMap<>();
+            extra.put("phones", new String[]{"1234", "5678"});
+            extra.put("balance", new BigDecimal("10.55"));
+            return extra;
+        }
+    }
+
+    public static class RawPayload {
+        @JsonRawValue
+        public String document = "\"30123456\"";
+        @JsonRawValue
+        public String balance = "10.55";
+        @JsonRawValue
+        public String other = "{\"a\":1}";
+        public byte[] phones = "1234".getBytes(StandardCharsets.UTF_8);
+    }
+
+    private interface Writing {
+        void write(JsonGenerator generator) throws IOException;
+    }
+
+    private static String write(final Writing writing) throws IOException {
+        final StringWriter out = new StringWriter();
+        try (JsonGenerator generator = new MaskingJsonGenerator(new JsonFactory().createGenerator(out), FIELDS)) {
+            writing.write(generator);
+        }
+        return out.toString();
+    }
+
+    @Test
+    void streamingApi() throws IOException {
+        Assertions.assertEquals("{\"name\":\"John\",\"document\":\"******56\",\"phones\":[\"****\",\"**\"],"
+                        + "\"nested\":{\"document\":\"**12\",\"other\":12},\"balance\":\"####\"}",
+                write(generator -> {
+                    generator.writeStartObject();
+                    generator.writeStringField("name", "John");
+                    generator.writeNumberField("document", 30123456);
+                    generator.writeFieldName("phones");
+                    generator.writeStartArray();
+                    generator.writeString("1234".toCharArray(), 0, 4);
+                    generator.writeNumber(12);
+                    generator.writeEndArray();
+                    generator.writeObjectFieldStart("nested");
+                    generator.writeStringField("document", "1212");
+                    generator.writeNumberField("other", 12);
+                    generator.writeEndObject();
+                    generator.writeNumberField("balance", 10.5d);
+                    generator.writeEndObject();
+                }));
+    }
+
+    @Test
+    void anySerializer() throws IOException {
+        final ObjectMapper mapper = new ObjectMapper();
+
+        Assertions.assertEquals("{\"name\":\"John\",\"document\":\"******56\",\"phones\":[\"****\",\"****\"],\"balance\":\"#####\"}",
+                write(generator -> mapper.writeValue(generator, new Payload())));
+        Assertions.assertEquals("{\"name\":\"John\",\"document\":\"******56\",\"phones\":[\"****\",\"****\"],\"balance\":\"#####\"}",
+                write(generator -> mapper.writeTree(generator, mapper.valueToTree(new Payload()))));
+    }
+
+    @Test
+    void copiedEvents() throws IOException {
+        final JsonFactory factory = new JsonFactory();
+        try (JsonParser parser = factory.createParser("{\"document\":30123456,\"phones\":[\"1234\"],\"name\":\"John\"}")) {
+            parser.nextToken();
+            Assertions.assertEquals("{\"document\":\"******56\",\"phones\":[\"****\"],\"name\":\"John\"}",
+                    write(generator -> generator.copyCurrentStructure(parser)));
+        }
+    }
+
+    @Test
+    void primitiveArrays() throws IOException {
+        final ObjectMapper mapper = new ObjectMapper();
+        final Map<String, Object> arrays = new LinkedHashMap<>();
+        arrays.put("document", new int[]{3012, 3456});
+        arrays.put("phones", new long[]{1234L, 5678L});
+        arrays.put("balance", new double[]{10.5d});
+        arrays.put("name", new int[]{1234});
+
+        // jackson writes primitive arrays in one go
+        Assertions.assertEquals("{\"document\":[\"**12\",\"**56\"],\"phones\":[\"****\",\"****\"],"
+                        + "\"balance\":[\"####\"],\"name\":[1234]}",
+                write(generator -> mapper.writeValue(generator, arrays)));
+        Assertions.assertEquals("{\"document\":[\"**34\",\"**56\"],\"phones\":[\"**\"],\"name\":[\"John\"]}",
+                write(generator -> {
+                    generator.writeStartObject();
+                    generator.writeFieldName("document");
+                    generator.writeArray(new String[]{"12", "1234", "3456", "78"}, 1, 2);
+                    generator.writeFieldName("phones");
+                    generator.writeArray(new long[]{12L, 34L}, 1, 1);
+                    generator.writeFieldName("name");
+                    generator.writeArray(new String[]{"John"}, 0, 1);
+                    generator.writeEndObject();
+                }));
+    }
+
+    @Test
+    void rawAndBinaryValues() throws IOException {
+        final ObjectMapper mapper = new ObjectMapper();
+
+        Assertions.assertEquals("{\"document\":\"******56\",\"balance\":\"#####\",\"other\":{\"a\":1},"
+                        + "\"phones\":\"********\"}",
+                write(generator -> mapper.writeValue(generator, new RawPayload())));
+        Assertions.assertEquals("{\"document\":\"******==\",\"balance\":\"########\",\"phones\":null}",
+                write(generator -> {
+                    generator.writeStartObject();
+                    generator.writeFieldName("document");
+                    generator.writeBinary("1234".getBytes(StandardCharsets.UTF_8));
+                    generator.writeFieldName("balance");
+                    generator.writeBinary(new ByteArrayInputStream("1234".getBytes(StandardCharsets.UTF_8)), -1);
+                    generator.writeFieldName("phones");
+                    generator.writeRawValue("null");
+                    generator.writeEndObject();
+                }));
+    }
+
+    @Test
+    void rawStringsAreUnescaped() throws IOException {
+        Assertions.assertEquals("{\"document\":\"***12\"}",
+                write(generator -> {
+                    generator.writeStartObject();
+                    generator.writeFieldName("document");
+                    final byte[] escaped = "a\\\"b12".getBytes(StandardCharsets.UTF_8);
+                    generator.writeRawUTF8String(escaped, 0, escaped.length);
+                    generator.writeEndObject();
+                }));
+    }
+
+    @Test
+    void rawTextOnMaskedFields() throws IOException {
+        Assertions.assertThrows(JsonGenerationException.class, () -> write(generator -> {
+            generator.writeStartObject();
+            generator.writeFieldName("document");
+            generator.writeRaw("30123456");
+        }));
+        Assertions.assertEquals("{\"name\" :\"John\"}", write(generator -> {
+            generator.writeStartObject();
+            generator.writeFieldName("name");
+            generator.writeRaw(' ');
+            generator.writeString("John");
+            generator.writeEndObject();
+        }));
+    }
+
+    @Test
+    void withoutFields() throws IOException {
+        final StringWriter out = new StringWriter();
+        try (JsonGenerator generator = new MaskingJsonGenerator(new JsonFactory().createGenerator(out), Map.of())) {
+            generator.writeStartObject();
+            generator.writeNumberField("document", 30123456);
+            generator.writeEndObject();
+        }
+        Assertions.assertEquals("{\"document\":30123456}", out.toString());
+    }
+}
@@ -0,0 +1,119 @@
+package io.github.javiercanillas.jackson.masker.tool;
+
+import io.github.javiercanillas.jackson.masker.MaskSpec;
+import io.github.javiercanillas.jackson.masker.stream.JsonStreamMasker;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+class NdjsonMaskerTest {
+
+    private static final JsonStreamMasker MASKER = JsonStreamMasker.builder()
+            .field("email", MaskSpec.of(1, 12, '*'))
+            .build();
+
+    @TempDir
+    Path directory;
+
+    private static List<String> lines(final int count) {
+        final List<String> lines = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            // some lines longer than the chunk size
+            final String padding = "x".repeat(i % 100 == 0 ? 300 : 5);
+            lines.add("{\"id\":" + i + ",\"email\":\"john" + i + "@example.com\",\"padding\":\"" + padding + "\"}");
+        }
+        return lines;
+    }
+
+    private static List<String> masked(final List<String> lines) throws IOException {
+        final List<String> masked = new ArrayList<>(lines.size());
+        for (final String line : lines) {
+            masked.add(MASKER.mask(line));
+        }
+        return masked;
+    }
+
+    @Test
+    void maskKeepsOrder() throws IOException {
+        final List<String> lines = lines(5_000);
+        final Path input = Files.write(this.directory.resolve("input.ndjson"), lines);
+        final Path output = this.directory.resolve("output.ndjson");
+
+        final NdjsonMasker.Report report = new NdjsonMasker(MASKER, ForkJoinPool.commonPool(), 256).mask(input, output);
+
+        Assertions.assertEquals(masked(lines), Files.readAllLines(output));
+        Assertions.assertEquals(Files.size(input), report.getBytesRead());
+        Assertions.assertEquals(Files.size(output), report.getBytesWritten());
+    }
+
+    @Test
+    void maskWithoutLastNewLine() throws IOException {
+        final Path input = Files.writeString(this.directory.resolve("input.ndjson"),
+                "{\"email\":\"john@example.com\"}\n\n{\"email\":\"jane@example.com\"}");
+        final Path output = this.directory.resolve("output.ndjson");
+
+        new NdjsonMasker(MASKER).mask(input, output);
+
+        Assertions.assertEquals("{\"email\":\"j***@example.com\"}\n{\"email\":\"j***@example.com\"}\n",
+                Files.readString(output));
+    }
+
+    @Test
+    void maskCompressed() throws IOException {
+        final List<String> lines = lines(2_000);
+        final Path input = Files.write(this.directory.resolve("input.ndjson"), lines);
+        final Path compressed = this.directory.resolve("output.ndjson.gz");
+        final Path output = this.directory.resolve("output.ndjson");
+
+        new NdjsonMasker(MASKER, ForkJoinPool.commonPool(), 128).mask(input, compressed);
+        new NdjsonMasker(JsonStreamMasker.builder().build(), ForkJoinPool.commonPool(), 100).mask(compressed, output);
+
+        Assertions.assertEquals(masked(lines), Files.readAllLines(output));
+    }
+
+    @Test
+    void maskMalformed() throws IOException {
+        final Path input = Files.writeString(this.directory.resolve("input.ndjson"), "{\"email\":\n");
+        final Path output = this.directory.resolve("output.ndjson");
+        final NdjsonMasker masker = new NdjsonMasker(MASKER);
+
+        Assertions.assertThrows(IOException.class, () -> masker.mask(input, output));
+    }
+
+    @Test
+    void invalidChunkSize() {
+        final ForkJoinPool pool = ForkJoinPool.commonPool();
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new NdjsonMasker(MASKER, pool, 0));
+    }
+
+    @Test
+    void mainRejectsInvalidNumbers() throws IOException {
+        final Path input = Files.writeString(this.directory.resolve("input.ndjson"), "{\"email\":\"john@example.com\"}");
+        final Path output = this.directory.resolve("output.ndjson");
+        final PrintStream err = System.err;
+        final ByteArrayOutputStream messages = new ByteArrayOutputStream();
+        System.setErr(new PrintStream(messages, true, StandardCharsets.UTF_8));
+        try {
+            NdjsonMasker.main(new String[] { "--field", "email", "--threads", "0", input.toString(), output.toString() });
+            NdjsonMasker.main(new String[] { "--field", "email", "--chunk-size", "-1", input.toString(),
+                    output.toString() });
+        } finally {
+            System.setErr(err);
+        }
+
+        final String printed = messages.toString(StandardCharsets.UTF_8);
+        Assertions.assertTrue(printed.contains("Parameter threads cannot be less than One."), printed);
+        Assertions.assertTrue(printed.contains("Parameter chunk-size cannot be less than One."), printed);
+        Assertions.assertFalse(Files.exists(output));
+    }
+}